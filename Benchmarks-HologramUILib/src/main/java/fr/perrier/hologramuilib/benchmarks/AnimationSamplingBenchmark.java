@@ -0,0 +1,104 @@
+package fr.perrier.hologramuilib.benchmarks;
+
+import fr.perrier.hologramuilib.client.animation.Animation;
+import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.AnimationProperties;
+import fr.perrier.hologramuilib.client.animation.FrameClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one frame of the animation system: sampling every animation, then reading them back.
+ *
+ * Same setup as the in-game {@code /hologram bench animations}, the clock advances by one
+ * 60 FPS frame per invocation and no animation ends during a run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimationSamplingBenchmark {
+
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final long DURATION_MS = 24L * 60L * 60L * 1000L;
+
+    @Param({"1000", "10000"})
+    public int animationCount;
+
+    private FrameClock clock;
+    private AnimationManager sequential;
+    private AnimationManager parallel;
+    private int[] elements;
+    private long time;
+
+    @Setup
+    public void setup() {
+        clock = new FrameClock();
+        sequential = new AnimationManager(clock);
+        parallel = new AnimationManager(clock);
+        sequential.setParallelEvaluation(false);
+        parallel.setParallelEvaluation(true);
+
+        elements = new int[animationCount];
+        for (int i = 0; i < animationCount; i++) {
+            Animation.Builder builder = Animation.builder(AnimationProperties.OPACITY)
+                .from(0).to(1)
+                .duration(DURATION_MS)
+                .delay(i % 100)
+                .easing("easeInOutCubic");
+            elements[i] = sequential.getElementHandle("__bench_" + i);
+            sequential.addAnimation(elements[i], builder.build());
+            parallel.addAnimation(parallel.getElementHandle("__bench_" + i), builder.build());
+        }
+        time = 0;
+    }
+
+    @Benchmark
+    public void sample() {
+        advance();
+        sequential.sample();
+    }
+
+    @Benchmark
+    public void sampleParallel() {
+        advance();
+        parallel.sample();
+    }
+
+    @Benchmark
+    public float sampleAndRead() {
+        advance();
+        sequential.sample();
+        float sum = 0;
+        for (int element : elements) {
+            sum += sequential.getValue(element, AnimationProperties.Handles.OPACITY, 1.0f);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        for (int element : elements) {
+            blackhole.consume(sequential.getValue(element, AnimationProperties.Handles.OPACITY, 1.0f));
+        }
+    }
+
+    private void advance() {
+        time += FRAME_NANOS;
+        clock.setTime(time);
+    }
+}
@@ -0,0 +1,72 @@
+package fr.perrier.hologramuilib.benchmarks;
+
+import fr.perrier.hologramuilib.client.animation.Easing;
+import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
+import fr.perrier.hologramuilib.client.animation.EasingTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one easing evaluation, analytic against lookup table, like the in-game
+ * {@code /hologram bench easing}. Pass {@code -p easing=<name>} to JMH for other curves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EasingEvaluationBenchmark {
+
+    private static final int SAMPLES = 4096;
+
+    @Param({"easeInOutCubic", "easeOutBack", "easeOutElastic", "easeOutBounce"})
+    public String easing;
+
+    private EasingFunction analytic;
+    private EasingFunction table;
+    private float[] inputs;
+
+    @Setup
+    public void setup() {
+        analytic = Easing.getAnalyticFunction(easing);
+        table = new EasingTable(analytic);
+        inputs = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Irregular spacing so table lookups do not walk memory in order
+            inputs[i] = (i * 0.618034f) % 1f;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float analytic() {
+        return evaluate(analytic);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float table() {
+        return evaluate(table);
+    }
+
+    private float evaluate(EasingFunction function) {
+        float sum = 0;
+        for (float t : inputs) {
+            sum += function.apply(t);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,11 @@
+package fr.perrier.hologramuilib.protocol;
+
+import java.util.List;
+
+/**
+ * An element as sent in the {@link MenuWireFormat}. Fields the server left unset are not sent:
+ * an empty content, sizes of 0 and NaN values.
+ */
+public record ElementData(String type, String id, String content, int width, int height,
+                          float min, float max, float value, List<ElementData> children) {
+}
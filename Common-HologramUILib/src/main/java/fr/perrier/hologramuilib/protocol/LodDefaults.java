@@ -0,0 +1,24 @@
+package fr.perrier.hologramuilib.protocol;
+
+/**
+ * Level of detail settings of menus that do not set their own, used by the plugin API,
+ * the mod's menus and its menu configurations alike.
+ *
+ * Level of detail is off by default, menus keep every element at any distance until
+ * their author enables it.
+ */
+public final class LodDefaults {
+
+    public static final boolean ENABLED = false;
+
+    // Distances in blocks
+    public static final double REDUCED_DISTANCE = 24.0;
+    public static final double IMPOSTOR_DISTANCE = 48.0;
+
+    // Projected heights in screen pixels
+    public static final float FULL_MIN_SCREEN_HEIGHT = 64;
+    public static final float REDUCED_MIN_SCREEN_HEIGHT = 12;
+
+    private LodDefaults() {
+    }
+}
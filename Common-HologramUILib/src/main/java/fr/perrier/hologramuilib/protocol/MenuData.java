@@ -0,0 +1,18 @@
+package fr.perrier.hologramuilib.protocol;
+
+import java.util.List;
+
+/**
+ * A menu as sent in the {@link MenuWireFormat}, with the same fields as the JSON format.
+ *
+ * @param position X, Y and Z, or null if the server did not place the menu
+ * @param title Title, or null for none
+ */
+public record MenuData(String menuId, double[] position, String title,
+                       int width, int height, float scale, float maxDistance,
+                       int backgroundColor, int borderColor, int padding, int spacing,
+                       boolean backgroundEnabled, boolean lodEnabled,
+                       float lodReducedDistance, float lodImpostorDistance,
+                       float lodFullMinScreenHeight, float lodReducedMinScreenHeight,
+                       List<ElementData> elements) {
+}
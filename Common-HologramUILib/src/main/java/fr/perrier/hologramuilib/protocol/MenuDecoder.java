@@ -0,0 +1,123 @@
+package fr.perrier.hologramuilib.protocol;
+
+import fr.perrier.hologramuilib.protocol.MenuWireFormat.Reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the binary {@link MenuWireFormat} the Spigot plugin sends as "menu_data_bin", and the
+ * "menu_patch" changes to a shown menu added in version 2, into records the mod builds elements
+ * from. The plugin only uses it once the mod's "hello" announced {@link MenuWireFormat#VERSION}.
+ */
+public final class MenuDecoder {
+
+    private MenuDecoder() {
+    }
+
+    /**
+     * Decodes a menu.
+     *
+     * @throws IllegalArgumentException If the data is truncated, malformed or of a newer version
+     */
+    public static MenuData decode(byte[] data) {
+        Reader in = new Reader(data);
+        String[] strings = MenuWireFormat.readHeader(in);
+
+        String menuId = readString(in, strings);
+        int flags = in.readByte();
+
+        double[] position = null;
+        if ((flags & MenuWireFormat.FLAG_POSITION) != 0) {
+            position = new double[] {in.readDouble(), in.readDouble(), in.readDouble()};
+        }
+        String title = (flags & MenuWireFormat.FLAG_TITLE) != 0 ? readString(in, strings) : null;
+
+        int width = in.readZigZag();
+        int height = in.readZigZag();
+        float scale = in.readFloat();
+        float maxDistance = in.readFloat();
+        int backgroundColor = in.readInt();
+        int borderColor = in.readInt();
+        int padding = in.readVarInt();
+        int spacing = in.readVarInt();
+        float lodReducedDistance = in.readFloat();
+        float lodImpostorDistance = in.readFloat();
+        float lodFullMinScreenHeight = in.readFloat();
+        float lodReducedMinScreenHeight = in.readFloat();
+
+        List<ElementData> elements = readElements(in, strings);
+
+        return new MenuData(menuId, position, title, width, height, scale, maxDistance,
+            backgroundColor, borderColor, padding, spacing,
+            (flags & MenuWireFormat.FLAG_BACKGROUND) != 0, (flags & MenuWireFormat.FLAG_LOD) != 0,
+            lodReducedDistance, lodImpostorDistance, lodFullMinScreenHeight, lodReducedMinScreenHeight,
+            elements);
+    }
+
+    /**
+     * Decodes changes to a shown menu.
+     *
+     * @throws IllegalArgumentException If the data is truncated, malformed or of a newer version
+     */
+    public static PatchData decodePatch(byte[] data) {
+        Reader in = new Reader(data);
+        String[] strings = MenuWireFormat.readHeader(in);
+
+        String menuId = readString(in, strings);
+        int count = in.readCount();
+        List<PatchOperation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int opcode = in.readByte();
+            operations.add(switch (opcode) {
+                case MenuWireFormat.OP_SET_CONTENT -> new PatchOperation(opcode, readString(in, strings),
+                    readString(in, strings), Float.NaN, -1, null);
+                case MenuWireFormat.OP_SET_VALUE -> new PatchOperation(opcode, readString(in, strings),
+                    null, in.readFloat(), -1, null);
+                case MenuWireFormat.OP_INSERT -> {
+                    int index = in.readVarInt();
+                    ElementData element = readElement(in, strings);
+                    yield new PatchOperation(opcode, element.id(), null, Float.NaN, index, element);
+                }
+                case MenuWireFormat.OP_REMOVE -> new PatchOperation(opcode, readString(in, strings),
+                    null, Float.NaN, -1, null);
+                case MenuWireFormat.OP_MOVE -> new PatchOperation(opcode, readString(in, strings),
+                    null, Float.NaN, in.readVarInt(), null);
+                default -> throw new IllegalArgumentException("Unknown patch opcode " + opcode);
+            });
+        }
+        return new PatchData(menuId, operations);
+    }
+
+    private static List<ElementData> readElements(Reader in, String[] strings) {
+        int count = in.readCount();
+        List<ElementData> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            elements.add(readElement(in, strings));
+        }
+        return elements;
+    }
+
+    private static ElementData readElement(Reader in, String[] strings) {
+        int typeTag = in.readByte();
+        String type = typeTag == MenuWireFormat.TYPE_OTHER
+            ? readString(in, strings)
+            : MenuWireFormat.typeName(typeTag);
+
+        String id = readString(in, strings);
+        int fields = in.readByte();
+        String content = (fields & MenuWireFormat.FIELD_CONTENT) != 0 ? readString(in, strings) : "";
+        int width = (fields & MenuWireFormat.FIELD_WIDTH) != 0 ? in.readVarInt() : 0;
+        int height = (fields & MenuWireFormat.FIELD_HEIGHT) != 0 ? in.readVarInt() : 0;
+        float min = (fields & MenuWireFormat.FIELD_MIN) != 0 ? in.readFloat() : Float.NaN;
+        float max = (fields & MenuWireFormat.FIELD_MAX) != 0 ? in.readFloat() : Float.NaN;
+        float value = (fields & MenuWireFormat.FIELD_VALUE) != 0 ? in.readFloat() : Float.NaN;
+        List<ElementData> children = (fields & MenuWireFormat.FIELD_CHILDREN) != 0 ? readElements(in, strings) : List.of();
+
+        return new ElementData(type, id, content, width, height, min, max, value, children);
+    }
+
+    private static String readString(Reader in, String[] strings) {
+        return MenuWireFormat.string(strings, in.readVarInt());
+    }
+}
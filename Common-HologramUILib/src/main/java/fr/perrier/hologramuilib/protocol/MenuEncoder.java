@@ -0,0 +1,133 @@
+package fr.perrier.hologramuilib.protocol;
+
+import fr.perrier.hologramuilib.protocol.MenuWireFormat.StringTable;
+import fr.perrier.hologramuilib.protocol.MenuWireFormat.Writer;
+
+/**
+ * Encodes menus and patches in the binary {@link MenuWireFormat}, which documents the layout.
+ * The exact inverse of {@link MenuDecoder}: decoding the result gives back the same records.
+ */
+public final class MenuEncoder {
+
+    private MenuEncoder() {
+    }
+
+    /**
+     * Encodes a menu, the same bytes can be sent to every player that supports the format.
+     */
+    public static byte[] encode(MenuData menu) {
+        StringTable strings = new StringTable();
+        Writer body = new Writer(256);
+
+        body.writeVarInt(strings.indexOf(menu.menuId()));
+
+        int flags = 0;
+        if (menu.position() != null) flags |= MenuWireFormat.FLAG_POSITION;
+        if (menu.title() != null) flags |= MenuWireFormat.FLAG_TITLE;
+        if (menu.backgroundEnabled()) flags |= MenuWireFormat.FLAG_BACKGROUND;
+        if (menu.lodEnabled()) flags |= MenuWireFormat.FLAG_LOD;
+        body.writeByte(flags);
+
+        if (menu.position() != null) {
+            body.writeDouble(menu.position()[0]);
+            body.writeDouble(menu.position()[1]);
+            body.writeDouble(menu.position()[2]);
+        }
+        if (menu.title() != null) {
+            body.writeVarInt(strings.indexOf(menu.title()));
+        }
+
+        body.writeZigZag(menu.width());
+        body.writeZigZag(menu.height());
+        body.writeFloat(menu.scale());
+        body.writeFloat(menu.maxDistance());
+        body.writeInt(menu.backgroundColor());
+        body.writeInt(menu.borderColor());
+        body.writeVarInt(menu.padding());
+        body.writeVarInt(menu.spacing());
+        body.writeFloat(menu.lodReducedDistance());
+        body.writeFloat(menu.lodImpostorDistance());
+        body.writeFloat(menu.lodFullMinScreenHeight());
+        body.writeFloat(menu.lodReducedMinScreenHeight());
+
+        body.writeVarInt(menu.elements().size());
+        for (ElementData element : menu.elements()) {
+            writeElement(body, strings, element);
+        }
+
+        return MenuWireFormat.finish(MenuWireFormat.MENU_VERSION, strings, body);
+    }
+
+    /**
+     * Encodes changes to a shown menu, for players that agreed on version 2 or later.
+     *
+     * @throws IllegalArgumentException If an operation has an unknown opcode
+     */
+    public static byte[] encodePatch(PatchData patch) {
+        StringTable strings = new StringTable();
+        Writer body = new Writer(64);
+
+        body.writeVarInt(strings.indexOf(patch.menuId()));
+        body.writeVarInt(patch.operations().size());
+        for (PatchOperation operation : patch.operations()) {
+            body.writeByte(operation.opcode());
+            switch (operation.opcode()) {
+                case MenuWireFormat.OP_SET_CONTENT -> {
+                    body.writeVarInt(strings.indexOf(operation.elementId()));
+                    body.writeVarInt(strings.indexOf(operation.content() != null ? operation.content() : ""));
+                }
+                case MenuWireFormat.OP_SET_VALUE -> {
+                    body.writeVarInt(strings.indexOf(operation.elementId()));
+                    body.writeFloat(operation.value());
+                }
+                case MenuWireFormat.OP_INSERT -> {
+                    body.writeVarInt(operation.index());
+                    writeElement(body, strings, operation.element());
+                }
+                case MenuWireFormat.OP_REMOVE -> body.writeVarInt(strings.indexOf(operation.elementId()));
+                case MenuWireFormat.OP_MOVE -> {
+                    body.writeVarInt(strings.indexOf(operation.elementId()));
+                    body.writeVarInt(operation.index());
+                }
+                default -> throw new IllegalArgumentException("Unknown patch opcode " + operation.opcode());
+            }
+        }
+
+        return MenuWireFormat.finish(MenuWireFormat.PATCH_VERSION, strings, body);
+    }
+
+    private static void writeElement(Writer out, StringTable strings, ElementData element) {
+        int type = MenuWireFormat.typeOf(element.type());
+        out.writeByte(type);
+        if (type == MenuWireFormat.TYPE_OTHER) {
+            out.writeVarInt(strings.indexOf(element.type()));
+        }
+        out.writeVarInt(strings.indexOf(element.id()));
+
+        boolean hasContent = element.content() != null && !element.content().isEmpty();
+        boolean hasChildren = element.children() != null && !element.children().isEmpty();
+        int fields = 0;
+        if (hasContent) fields |= MenuWireFormat.FIELD_CONTENT;
+        if (element.width() > 0) fields |= MenuWireFormat.FIELD_WIDTH;
+        if (element.height() > 0) fields |= MenuWireFormat.FIELD_HEIGHT;
+        if (!Float.isNaN(element.min())) fields |= MenuWireFormat.FIELD_MIN;
+        if (!Float.isNaN(element.max())) fields |= MenuWireFormat.FIELD_MAX;
+        if (!Float.isNaN(element.value())) fields |= MenuWireFormat.FIELD_VALUE;
+        if (hasChildren) fields |= MenuWireFormat.FIELD_CHILDREN;
+        out.writeByte(fields);
+
+        if (hasContent) out.writeVarInt(strings.indexOf(element.content()));
+        if (element.width() > 0) out.writeVarInt(element.width());
+        if (element.height() > 0) out.writeVarInt(element.height());
+        if (!Float.isNaN(element.min())) out.writeFloat(element.min());
+        if (!Float.isNaN(element.max())) out.writeFloat(element.max());
+        if (!Float.isNaN(element.value())) out.writeFloat(element.value());
+
+        if (hasChildren) {
+            out.writeVarInt(element.children().size());
+            for (ElementData child : element.children()) {
+                writeElement(out, strings, child);
+            }
+        }
+    }
+}
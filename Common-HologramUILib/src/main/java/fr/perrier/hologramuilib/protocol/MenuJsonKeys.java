@@ -0,0 +1,21 @@
+package fr.perrier.hologramuilib.protocol;
+
+/**
+ * Keys of the element objects in the JSON menu format ("menu_data"), written by the plugin
+ * and read by the mod. Unset fields are left out and keep the mod's defaults.
+ */
+public final class MenuJsonKeys {
+
+    public static final String ID = "id";
+    public static final String TYPE = "type";
+    public static final String CONTENT = "content";
+    public static final String WIDTH = "width";
+    public static final String HEIGHT = "height";
+    public static final String MIN_VALUE = "minValue";
+    public static final String MAX_VALUE = "maxValue";
+    public static final String VALUE = "value";
+    public static final String CHILDREN = "children";
+
+    private MenuJsonKeys() {
+    }
+}
@@ -0,0 +1,356 @@
+package fr.perrier.hologramuilib.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of menus, sent as {@link #MENU_ACTION} to clients that announced it in their "hello".
+ *
+ * Layout, version 1 (numbers are big-endian, varints are unsigned LEB128 like Minecraft's):
+ * <pre>
+ * varint   version
+ * varint   string count, then each string as varint byte length + UTF-8 bytes
+ * varint   menu ID (string index)
+ * byte     menu flags, see FLAG_*
+ * double*3 position, if FLAG_POSITION
+ * varint   title (string index), if FLAG_TITLE
+ * zigzag   width, height (-1 for automatic)
+ * float    scale, max render distance
+ * int      background color, border color (ARGB)
+ * varint   padding, spacing
+ * float*4  LOD reduced and impostor distances, full and reduced minimum screen heights
+ * varint   element count, then each element record:
+ *   byte     type, see TYPE_*, followed by a string index for TYPE_OTHER
+ *   varint   ID (string index)
+ *   byte     field mask, see FIELD_*, then the fields present in that order:
+ *            content (string index), width, height (varints), min, max, value (floats),
+ *            children (varint count + element records)
+ * </pre>
+ * Every string appears once in the table, repeated labels and IDs cost one byte per use.
+ *
+ * Version 2 adds {@link #PATCH_ACTION}, changes to a shown menu:
+ * <pre>
+ * varint   version, string table and menu ID, as above
+ * varint   operation count, then each operation:
+ *   byte     opcode, see OP_*
+ *   SET_CONTENT: element ID, content (string indices)
+ *   SET_VALUE:   element ID, value (float)
+ *   INSERT:      index (varint), element record
+ *   REMOVE:      element ID
+ *   MOVE:        element ID, index (varint)
+ * </pre>
+ * Indices count the menu elements without the title. Each message starts with the version
+ * that introduced its layout, so menus still decode on clients that only know version 1.
+ *
+ * {@link MenuEncoder} and {@link MenuDecoder} convert between these bytes and the {@link MenuData}
+ * and {@link PatchData} records, the plugin builds the records from its API menus. Changing the
+ * layout means bumping {@link #VERSION}.
+ */
+public final class MenuWireFormat {
+
+    /**
+     * Highest version both sides know, announced by the mod in its "hello". The plugin falls
+     * back to it for higher announced versions.
+     */
+    public static final int VERSION = 2;
+
+    // Version that introduced each message layout, written at the start of the message
+    public static final int MENU_VERSION = 1;
+    public static final int PATCH_VERSION = 2;
+
+    public static final String MENU_ACTION = "menu_data_bin";
+    public static final String PATCH_ACTION = "menu_patch";
+
+    public static final int FLAG_POSITION = 1;
+    public static final int FLAG_TITLE = 1 << 1;
+    public static final int FLAG_BACKGROUND = 1 << 2;
+    public static final int FLAG_LOD = 1 << 3;
+
+    public static final int TYPE_OTHER = 0;
+    public static final int TYPE_TEXT = 1;
+    public static final int TYPE_BUTTON = 2;
+    public static final int TYPE_SLIDER = 3;
+    public static final int TYPE_PROGRESS_BAR = 4;
+    public static final int TYPE_SEPARATOR = 5;
+    public static final int TYPE_SPACING = 6;
+
+    public static final int FIELD_CONTENT = 1;
+    public static final int FIELD_WIDTH = 1 << 1;
+    public static final int FIELD_HEIGHT = 1 << 2;
+    public static final int FIELD_MIN = 1 << 3;
+    public static final int FIELD_MAX = 1 << 4;
+    public static final int FIELD_VALUE = 1 << 5;
+    public static final int FIELD_CHILDREN = 1 << 6;
+
+    public static final int OP_SET_CONTENT = 1;
+    public static final int OP_SET_VALUE = 2;
+    public static final int OP_INSERT = 3;
+    public static final int OP_REMOVE = 4;
+    public static final int OP_MOVE = 5;
+
+    private static final String[] TYPE_NAMES = {
+        null, "text", "button", "slider", "progress_bar", "separator", "spacing"
+    };
+
+    private MenuWireFormat() {
+    }
+
+    /**
+     * Gets the type tag of an element type, {@link #TYPE_OTHER} for types sent by name.
+     */
+    public static int typeOf(String type) {
+        return switch (type) {
+            case "text" -> TYPE_TEXT;
+            case "button" -> TYPE_BUTTON;
+            case "slider" -> TYPE_SLIDER;
+            case "progress_bar" -> TYPE_PROGRESS_BAR;
+            case "separator" -> TYPE_SEPARATOR;
+            case "spacing" -> TYPE_SPACING;
+            default -> TYPE_OTHER;
+        };
+    }
+
+    /**
+     * Gets the element type of a type tag other than {@link #TYPE_OTHER}.
+     *
+     * @throws IllegalArgumentException If the tag is unknown
+     */
+    public static String typeName(int typeTag) {
+        if (typeTag <= TYPE_OTHER || typeTag >= TYPE_NAMES.length) {
+            throw new IllegalArgumentException("Unknown element type tag " + typeTag);
+        }
+        return TYPE_NAMES[typeTag];
+    }
+
+    /**
+     * Puts the version and the string table in front of a message body.
+     * The table goes first so the decoder resolves indices as it reads.
+     */
+    public static byte[] finish(int version, StringTable strings, Writer body) {
+        Writer out = new Writer(body.size() + strings.byteSize() + 8);
+        out.writeVarInt(version);
+        strings.writeTo(out);
+        out.writeBytes(body.buffer, 0, body.size());
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads the version and the string table every message starts with.
+     *
+     * @return The string table
+     * @throws IllegalArgumentException If the data is truncated or of a newer version
+     */
+    public static String[] readHeader(Reader in) {
+        int version = in.readVarInt();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported menu wire version " + version);
+        }
+
+        String[] strings = new String[in.readCount()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUtf8();
+        }
+        return strings;
+    }
+
+    /**
+     * Resolves a string index read from a message.
+     *
+     * @throws IllegalArgumentException If the index is out of the table
+     */
+    public static String string(String[] strings, int index) {
+        if (index < 0 || index >= strings.length) {
+            throw new IllegalArgumentException("String index " + index + " out of " + strings.length);
+        }
+        return strings[index];
+    }
+
+    /**
+     * Strings of one message, each stored once and referenced by index.
+     */
+    public static final class StringTable {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private int byteSize = 0;
+
+        public int indexOf(String value) {
+            Integer index = indices.get(value);
+            if (index == null) {
+                index = encoded.size();
+                indices.put(value, index);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                byteSize += bytes.length + 5;
+            }
+            return index;
+        }
+
+        int byteSize() {
+            return byteSize;
+        }
+
+        void writeTo(Writer out) {
+            out.writeVarInt(encoded.size());
+            for (byte[] bytes : encoded) {
+                out.writeVarInt(bytes.length);
+                out.writeBytes(bytes, 0, bytes.length);
+            }
+        }
+    }
+
+    /**
+     * Growable big-endian byte buffer, cheaper than a DataOutputStream over a ByteArrayOutputStream.
+     */
+    public static final class Writer {
+        private byte[] buffer;
+        private int size = 0;
+
+        public Writer(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        public void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        /**
+         * Writes a signed value as a varint, small negative values stay short.
+         */
+        public void writeZigZag(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        public void writeInt(int value) {
+            ensure(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        public void writeFloat(float value) {
+            writeInt(Float.floatToIntBits(value));
+        }
+
+        public void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            writeInt((int) (bits >>> 32));
+            writeInt((int) bits);
+        }
+
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    /**
+     * Big-endian reader over a byte array, failing with a clear message on truncated data.
+     */
+    public static final class Reader {
+        private final byte[] data;
+        private int position = 0;
+
+        public Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private void require(int bytes) {
+            if (position + bytes > data.length) {
+                throw new IllegalArgumentException("Truncated menu data: " + data.length + " bytes");
+            }
+        }
+
+        public int position() {
+            return position;
+        }
+
+        public int readByte() {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+
+        public int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("VarInt too long");
+        }
+
+        /**
+         * Reads a count of entries that each take at least one byte, so a corrupt count cannot
+         * make the decoder allocate more than the message could hold.
+         */
+        public int readCount() {
+            int count = readVarInt();
+            if (count < 0 || count > data.length - position) {
+                throw new IllegalArgumentException("Invalid count " + count);
+            }
+            return count;
+        }
+
+        public int readZigZag() {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public int readInt() {
+            require(4);
+            int value = ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16)
+                | ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        public float readFloat() {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        public double readDouble() {
+            long high = readInt() & 0xFFFFFFFFL;
+            long low = readInt() & 0xFFFFFFFFL;
+            return Double.longBitsToDouble((high << 32) | low);
+        }
+
+        public String readUtf8() {
+            int length = readCount();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package fr.perrier.hologramuilib.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional compression of plugin channel messages, for players whose mod announced
+ * {@link #ALGORITHM} in the "compression" list of its "hello".
+ *
+ * A compressed message is sent as the binary action {@link #ACTION}, its body being:
+ * <pre>
+ * byte     dictionary version
+ * varint   length of the original message
+ * bytes    the original message (action and data) as raw deflate, with the preset dictionary
+ * </pre>
+ * Only {@link MenuWireFormat} messages get this large in practice, so the dictionary holds
+ * what {@link MenuEncoder} writes for every menu: action headers, the default menu settings,
+ * element records, color codes and common labels. Even menus just above {@link #THRESHOLD}
+ * compress well. Smaller messages are sent as is.
+ *
+ * The plugin compresses and the mod decompresses with this same class. The mod announces the
+ * latest dictionary it knows in its "hello", mods that predate that field only know version 1.
+ * Change the dictionary by adding a new version, never by editing an existing one: players
+ * may join with an older mod.
+ */
+public final class MessageCompression {
+
+    public static final String ACTION = "compressed";
+    public static final String ALGORITHM = "deflate";
+
+    /**
+     * Messages below this size in bytes are not worth the CPU time.
+     */
+    public static final int THRESHOLD = 256;
+
+    /**
+     * Largest original message accepted when decompressing, against compression bombs.
+     */
+    public static final int MAX_MESSAGE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Latest dictionary, announced by the mod as "compressionDictionary" in its "hello".
+     */
+    public static final int DICTIONARY_VERSION = 2;
+
+    // Version 1, for JSON menus. Kept for mods that predate version 2
+    private static final byte[] DICTIONARY_V1 = (
+        "Welcome! What would you like to Close Back Settings Volume Balance Level Health Score Shop Buy Sell"
+            + "menu_closemenu_patchmenu_data_binmenu_data"
+            + "{\"action\":\"show_menu\",\"menuId\":\""
+            + "\",\"position\":{\"x\":,\"y\":,\"z\":},\"title\":\""
+            + "\",\"width\":220,\"height\":-1,\"scale\":0.02,\"maxDistance\":20.0,"
+            + "\"backgroundColor\":\"#DD000000\",\"borderColor\":\"#FFFFD700\",\"padding\":10,\"spacing\":5,"
+            + "\"backgroundEnabled\":true,\"lod\":{\"enabled\":true,\"reducedDistance\":24.0,"
+            + "\"impostorDistance\":48.0,\"fullMinScreenHeight\":64.0,\"reducedMinScreenHeight\":12.0},\"elements\":["
+            + "\",\"type\":\"image\",\"content\":\"{\"id\":\"container_\",\"type\":\"container\",\"children\":["
+            + ",\"minValue\":0.0,\"maxValue\":100.0,\"value\":50.0}"
+            + "{\"id\":\"slider_\",\"type\":\"slider\",\"content\":\""
+            + "{\"id\":\"progress_\",\"type\":\"progress_bar\",\"maxValue\":100.0,\"value\":"
+            + "{\"id\":\"spacing_\",\"type\":\"spacing\",\"height\":5}"
+            + "{\"id\":\"separator_\",\"type\":\"separator\"},"
+            + "§8§9§b§d§f§r§c§6§a§e§7§l"
+            + "\",\"type\":\"text\",\"content\":\"§7"
+            + "\",\"type\":\"button\",\"content\":\"§a"
+            + "\",\"width\":200},{\"id\":\""
+    ).getBytes(StandardCharsets.UTF_8);
+
+    // Version 2, for MenuWireFormat messages. Deflate matches the end of the dictionary best,
+    // the most common bytes go last
+    private static final byte[] DICTIONARY_V2 = buildDictionaryV2();
+
+    private MessageCompression() {
+    }
+
+    /**
+     * Compresses a whole message (action and data) with the latest dictionary.
+     *
+     * @return The body of a {@link #ACTION} message, or null if it would not be smaller
+     */
+    public static byte[] compress(byte[] message) {
+        return compress(message, DICTIONARY_VERSION);
+    }
+
+    /**
+     * Compresses a whole message (action and data) with the dictionary a player's mod knows.
+     *
+     * @return The body of a {@link #ACTION} message, or null if it would not be smaller
+     * @throws IllegalArgumentException If the dictionary version is unknown
+     */
+    public static byte[] compress(byte[] message, int dictionaryVersion) {
+        byte[] dictionary = dictionary(dictionaryVersion);
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown compression dictionary " + dictionaryVersion);
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(message);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(message.length / 2 + 16);
+            out.write(dictionaryVersion);
+            int length = message.length;
+            while ((length & ~0x7F) != 0) {
+                out.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.write(length);
+
+            byte[] buffer = new byte[Math.max(64, Math.min(message.length, 8192))];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+                if (out.size() >= message.length) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Restores a message compressed by {@link #compress(byte[], int)}, with any known dictionary.
+     *
+     * @throws IllegalArgumentException If the body is malformed, too large, or uses an unknown dictionary
+     */
+    public static byte[] decompress(byte[] body) {
+        if (body.length < 2) {
+            throw new IllegalArgumentException("Truncated compressed message: " + body.length + " bytes");
+        }
+        byte[] dictionary = dictionary(body[0]);
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown compression dictionary " + body[0]);
+        }
+
+        int position = 1;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position >= body.length || shift >= 35) {
+                throw new IllegalArgumentException("Malformed compressed message length");
+            }
+            int b = body[position++] & 0xFF;
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (length < 0 || length > MAX_MESSAGE_SIZE) {
+            throw new IllegalArgumentException("Compressed message too large: " + length + " bytes");
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(dictionary);
+            inflater.setInput(body, position, body.length - position);
+
+            byte[] message = new byte[length];
+            int size = 0;
+            while (size < length) {
+                int count = inflater.inflate(message, size, length - size);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                size += count;
+            }
+            if (size != length) {
+                throw new IllegalArgumentException("Compressed message length mismatch: " + size + " of " + length + " bytes");
+            }
+            return message;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed message", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Gets the dictionary of a version, null if unknown.
+     */
+    static byte[] dictionary(int version) {
+        return switch (version) {
+            case 1 -> DICTIONARY_V1;
+            case 2 -> DICTIONARY_V2;
+            default -> null;
+        };
+    }
+
+    private static byte[] buildDictionaryV2() {
+        MenuWireFormat.Writer out = new MenuWireFormat.Writer(1024);
+
+        // Less common labels and IDs, as string table entries
+        writeStrings(out,
+            "Volume", "Brightness", "Distance", "Speed", "Loading", "Complete!", "HP", "Mana", "XP",
+            "Settings", "Shop", "Stats", "Buy", "Sell", "Level ", "Health", " coins", "§6Balance: §e",
+            "image", "image_url", "container", "item_", "stock_", "footer", "info", "progress_title",
+            "header_sep", "nav_title", "volume_slider", "speed_slider", "slider_", "progress_", "button_", "text_");
+
+        // Color and format codes, for the strings of other menus
+        writeStrings(out, "§0§1§2§3§4§5§6§7§8§9§a§b§c§d§e§f§k§l§m§n§o§r");
+
+        // Patch operations: set value, set content, insert, remove
+        for (int i = 1; i < 6; i++) {
+            out.writeByte(MenuWireFormat.OP_SET_VALUE);
+            out.writeVarInt(i);
+            out.writeFloat(i * 25f);
+            out.writeByte(MenuWireFormat.OP_SET_CONTENT);
+            out.writeVarInt(i * 2);
+            out.writeVarInt(i * 2 + 1);
+        }
+        out.writeByte(MenuWireFormat.OP_INSERT);
+        out.writeByte(MenuWireFormat.OP_REMOVE);
+
+        // Element records as the builder makes them: slider, progress bar, separator, button, text
+        int id = 1;
+        out.writeByte(MenuWireFormat.TYPE_SLIDER);
+        out.writeVarInt(id++);
+        out.writeByte(MenuWireFormat.FIELD_CONTENT | MenuWireFormat.FIELD_WIDTH | MenuWireFormat.FIELD_MAX | MenuWireFormat.FIELD_VALUE);
+        out.writeVarInt(id++);
+        out.writeVarInt(180);
+        out.writeFloat(100f);
+        out.writeFloat(50f);
+        out.writeByte(MenuWireFormat.TYPE_PROGRESS_BAR);
+        out.writeVarInt(id++);
+        out.writeByte(MenuWireFormat.FIELD_WIDTH | MenuWireFormat.FIELD_MAX | MenuWireFormat.FIELD_VALUE);
+        out.writeVarInt(180);
+        out.writeFloat(100f);
+        out.writeFloat(75f);
+        for (int i = 0; i < 2; i++) {
+            out.writeByte(MenuWireFormat.TYPE_SEPARATOR);
+            out.writeVarInt(id++);
+            out.writeByte(MenuWireFormat.FIELD_WIDTH);
+            out.writeVarInt(200);
+            out.writeByte(MenuWireFormat.TYPE_BUTTON);
+            out.writeVarInt(id++);
+            out.writeByte(MenuWireFormat.FIELD_CONTENT | MenuWireFormat.FIELD_WIDTH | MenuWireFormat.FIELD_HEIGHT);
+            out.writeVarInt(id++);
+            out.writeVarInt(200);
+            out.writeVarInt(20);
+            out.writeByte(MenuWireFormat.TYPE_TEXT);
+            out.writeVarInt(id++);
+            out.writeByte(MenuWireFormat.FIELD_CONTENT | MenuWireFormat.FIELD_WIDTH);
+            out.writeVarInt(id++);
+            out.writeVarInt(200);
+        }
+
+        // Menu settings after the position, with the MenuBuilder defaults
+        out.writeZigZag(220);
+        out.writeZigZag(-1);
+        out.writeFloat(0.02f);
+        out.writeFloat(20f);
+        out.writeInt(0xDD000000);
+        out.writeInt(0xFFFFD700);
+        out.writeVarInt(10);
+        out.writeVarInt(5);
+        out.writeFloat(24f);
+        out.writeFloat(48f);
+        out.writeFloat(64f);
+        out.writeFloat(12f);
+
+        // Strings most menus repeat
+        writeStrings(out, "§7← Back to Main", "§c✖ Close", "btn_back_menu", "btn_close",
+            "sep1", "sep2", "sep3", "subtitle", "title", "§e§l", "§7");
+
+        // Message starts: the action as writeUTF frames it, then the wire version
+        for (String action : new String[] {MenuWireFormat.PATCH_ACTION, MenuWireFormat.MENU_ACTION}) {
+            out.writeByte(0);
+            writeStrings(out, action);
+            out.writeVarInt(action.equals(MenuWireFormat.MENU_ACTION) ? MenuWireFormat.MENU_VERSION : MenuWireFormat.PATCH_VERSION);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeStrings(MenuWireFormat.Writer out, String... values) {
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeVarInt(bytes.length);
+            out.writeBytes(bytes, 0, bytes.length);
+        }
+    }
+}
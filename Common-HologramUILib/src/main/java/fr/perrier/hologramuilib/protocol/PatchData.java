@@ -0,0 +1,9 @@
+package fr.perrier.hologramuilib.protocol;
+
+import java.util.List;
+
+/**
+ * Changes to a shown menu, to apply in order.
+ */
+public record PatchData(String menuId, List<PatchOperation> operations) {
+}
@@ -0,0 +1,11 @@
+package fr.perrier.hologramuilib.protocol;
+
+/**
+ * One change to a shown menu, see the OP_* constants of {@link MenuWireFormat}.
+ * Fields an operation does not use are null, NaN or -1.
+ *
+ * @param index Position among the menu elements, the title excluded
+ */
+public record PatchOperation(int opcode, String elementId, String content,
+                             float value, int index, ElementData element) {
+}
@@ -0,0 +1,70 @@
+package fr.perrier.hologramuilib.protocol;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class MenuEncoderTest {
+
+    @Test
+    public void menuRoundTrips() {
+        MenuData menu = TestMenuData.sliderMenu();
+        MenuData decoded = MenuDecoder.decode(MenuEncoder.encode(menu));
+
+        assertEquals(menu.menuId(), decoded.menuId());
+        assertArrayEquals(menu.position(), decoded.position(), 0);
+        assertEquals(menu.title(), decoded.title());
+        assertEquals(menu.width(), decoded.width());
+        assertEquals(menu.height(), decoded.height());
+        assertEquals(menu.scale(), decoded.scale(), 0);
+        assertEquals(menu.maxDistance(), decoded.maxDistance(), 0);
+        assertEquals(menu.backgroundColor(), decoded.backgroundColor());
+        assertEquals(menu.borderColor(), decoded.borderColor());
+        assertEquals(menu.padding(), decoded.padding());
+        assertEquals(menu.spacing(), decoded.spacing());
+        assertEquals(menu.backgroundEnabled(), decoded.backgroundEnabled());
+        assertEquals(menu.lodEnabled(), decoded.lodEnabled());
+        assertEquals(menu.lodReducedMinScreenHeight(), decoded.lodReducedMinScreenHeight(), 0);
+        // Records compare NaN fields equal, so unset values must stay unset
+        assertEquals(menu.elements(), decoded.elements());
+    }
+
+    @Test
+    public void menuWithoutPositionOrTitleRoundTrips() {
+        MenuData menu = new MenuData("bare", null, null, 0, 0, 1f, 32f, 0, 0, 0, 0, false, true,
+            24f, 48f, 64f, 12f, List.of(new ElementData("image", "logo", "", 0, 0, Float.NaN, Float.NaN, Float.NaN,
+                List.of(TestMenuData.text("caption", "§7Logo")))));
+        MenuData decoded = MenuDecoder.decode(MenuEncoder.encode(menu));
+
+        assertNull(decoded.position());
+        assertNull(decoded.title());
+        assertEquals(menu.elements(), decoded.elements());
+    }
+
+    @Test
+    public void patchRoundTrips() {
+        PatchData patch = new PatchData("shop_demo", List.of(
+            new PatchOperation(MenuWireFormat.OP_SET_CONTENT, "balance", "§6Balance: §e1250", Float.NaN, -1, null),
+            new PatchOperation(MenuWireFormat.OP_SET_VALUE, "stock_0", null, 87.5f, -1, null),
+            new PatchOperation(MenuWireFormat.OP_INSERT, "btn_close", null, Float.NaN, 3, TestMenuData.button("btn_close", "§c✖ Close")),
+            new PatchOperation(MenuWireFormat.OP_REMOVE, "item_5", null, Float.NaN, -1, null),
+            new PatchOperation(MenuWireFormat.OP_MOVE, "balance", null, Float.NaN, 0, null)
+        ));
+
+        assertEquals(patch, MenuDecoder.decodePatch(MenuEncoder.encodePatch(patch)));
+    }
+
+    @Test
+    public void unknownOpcodeIsRejected() {
+        try {
+            MenuEncoder.encodePatch(new PatchData("shop_demo", List.of(new PatchOperation(99, "x", null, Float.NaN, -1, null))));
+            fail("Encoded opcode 99");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
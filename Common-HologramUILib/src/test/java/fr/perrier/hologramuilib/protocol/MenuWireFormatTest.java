@@ -0,0 +1,83 @@
+package fr.perrier.hologramuilib.protocol;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MenuWireFormatTest {
+
+    @Test
+    public void primitivesRoundTrip() {
+        MenuWireFormat.Writer out = new MenuWireFormat.Writer(4);
+        out.writeVarInt(0);
+        out.writeVarInt(300);
+        out.writeVarInt(Integer.MAX_VALUE);
+        out.writeZigZag(-1);
+        out.writeZigZag(-70000);
+        out.writeInt(0xDD000000);
+        out.writeFloat(0.02f);
+        out.writeDouble(-123.456);
+
+        MenuWireFormat.Reader in = new MenuWireFormat.Reader(out.toByteArray());
+        assertEquals(0, in.readVarInt());
+        assertEquals(300, in.readVarInt());
+        assertEquals(Integer.MAX_VALUE, in.readVarInt());
+        assertEquals(-1, in.readZigZag());
+        assertEquals(-70000, in.readZigZag());
+        assertEquals(0xDD000000, in.readInt());
+        assertEquals(0.02f, in.readFloat(), 0);
+        assertEquals(-123.456, in.readDouble(), 0);
+        assertEquals(out.size(), in.position());
+    }
+
+    @Test
+    public void stringTableStoresEachStringOnce() {
+        MenuWireFormat.StringTable strings = new MenuWireFormat.StringTable();
+        MenuWireFormat.Writer body = new MenuWireFormat.Writer(16);
+        body.writeVarInt(strings.indexOf("§aBuy"));
+        body.writeVarInt(strings.indexOf("shop"));
+        body.writeVarInt(strings.indexOf("§aBuy"));
+
+        MenuWireFormat.Reader in = new MenuWireFormat.Reader(MenuWireFormat.finish(MenuWireFormat.MENU_VERSION, strings, body));
+        String[] table = MenuWireFormat.readHeader(in);
+        assertArrayEquals(new String[] {"§aBuy", "shop"}, table);
+        assertEquals("§aBuy", MenuWireFormat.string(table, in.readVarInt()));
+        assertEquals("shop", MenuWireFormat.string(table, in.readVarInt()));
+        assertEquals("§aBuy", MenuWireFormat.string(table, in.readVarInt()));
+    }
+
+    @Test
+    public void typeTagsRoundTrip() {
+        for (String type : new String[] {"text", "button", "slider", "progress_bar", "separator", "spacing"}) {
+            assertEquals(type, MenuWireFormat.typeName(MenuWireFormat.typeOf(type)));
+        }
+        assertEquals(MenuWireFormat.TYPE_OTHER, MenuWireFormat.typeOf("image"));
+    }
+
+    @Test
+    public void newerVersionIsRejected() {
+        MenuWireFormat.Writer out = new MenuWireFormat.Writer(4);
+        out.writeVarInt(MenuWireFormat.VERSION + 1);
+        out.writeVarInt(0);
+        assertRejected(out.toByteArray());
+    }
+
+    @Test
+    public void truncatedDataIsRejected() {
+        MenuWireFormat.Writer out = new MenuWireFormat.Writer(4);
+        out.writeVarInt(MenuWireFormat.MENU_VERSION);
+        out.writeVarInt(3); // Three strings announced, none present
+        assertRejected(out.toByteArray());
+    }
+
+    private static void assertRejected(byte[] data) {
+        try {
+            MenuWireFormat.readHeader(new MenuWireFormat.Reader(data));
+            fail("Accepted malformed data of " + data.length + " bytes");
+        } catch (IllegalArgumentException expected) {
+            // Malformed data must fail cleanly, never with another exception
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package fr.perrier.hologramuilib.protocol;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MessageCompressionTest {
+
+    /**
+     * Frames a binary message like the plugin's NetworkManager: the action, then the body.
+     */
+    private static byte[] frame(String action, byte[] body) {
+        byte[] actionBytes = action.getBytes(StandardCharsets.UTF_8);
+        MenuWireFormat.Writer out = new MenuWireFormat.Writer(body.length + actionBytes.length + 2);
+        out.writeByte(actionBytes.length >>> 8);
+        out.writeByte(actionBytes.length);
+        out.writeBytes(actionBytes, 0, actionBytes.length);
+        out.writeBytes(body, 0, body.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] menuMessage() {
+        return frame(MenuWireFormat.MENU_ACTION, MenuEncoder.encode(TestMenuData.sliderMenu()));
+    }
+
+    private static byte[] patchMessage() {
+        return frame(MenuWireFormat.PATCH_ACTION, MenuEncoder.encodePatch(TestMenuData.shopRefresh()));
+    }
+
+    @Test
+    public void roundTrip() {
+        for (byte[] message : new byte[][] {menuMessage(), patchMessage()}) {
+            byte[] body = MessageCompression.compress(message);
+
+            assertNotNull(body);
+            assertEquals(MessageCompression.DICTIONARY_VERSION, body[0]);
+            assertArrayEquals(message, MessageCompression.decompress(body));
+        }
+    }
+
+    @Test
+    public void dictionaryBeatsPlainDeflate() {
+        for (byte[] message : new byte[][] {menuMessage(), patchMessage()}) {
+            assertTrue(message.length >= MessageCompression.THRESHOLD);
+
+            byte[] body = MessageCompression.compress(message);
+            int plainSize = plainDeflateSize(message);
+            assertTrue("compressed " + body.length + " of " + message.length + " bytes", body.length < message.length);
+            assertTrue("compressed " + body.length + " bytes, " + plainSize + " without the dictionary", body.length < plainSize);
+        }
+    }
+
+    @Test
+    public void olderDictionaryStillWorks() {
+        byte[] message = menuMessage();
+        byte[] body = MessageCompression.compress(message, 1);
+
+        assertEquals(1, body[0]);
+        assertArrayEquals(message, MessageCompression.decompress(body));
+    }
+
+    @Test
+    public void dictionariesNeverChange() {
+        // Mods decompress with the dictionaries they shipped with, add a version instead
+        assertEquals(0xB749F88DL, crc(MessageCompression.dictionary(1)));
+        assertEquals(0x9923CA34L, crc(MessageCompression.dictionary(2)));
+    }
+
+    @Test
+    public void incompressibleMessageIsNotCompressed() {
+        byte[] message = new byte[64];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) (i * 73 + 11);
+        }
+        assertNull(MessageCompression.compress(message));
+    }
+
+    @Test
+    public void truncatedBodyIsRejected() {
+        byte[] body = MessageCompression.compress(menuMessage());
+        assertRejected(Arrays.copyOf(body, body.length / 2));
+        assertRejected(new byte[] {MessageCompression.DICTIONARY_VERSION});
+    }
+
+    @Test
+    public void unknownDictionaryIsRejected() {
+        byte[] body = MessageCompression.compress(menuMessage());
+        body[0] = (byte) (MessageCompression.DICTIONARY_VERSION + 1);
+        assertRejected(body);
+
+        try {
+            MessageCompression.compress(menuMessage(), MessageCompression.DICTIONARY_VERSION + 1);
+            fail("Compressed with an unknown dictionary");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void oversizedLengthIsRejected() {
+        MenuWireFormat.Writer body = new MenuWireFormat.Writer(8);
+        body.writeByte(MessageCompression.DICTIONARY_VERSION);
+        body.writeVarInt(MessageCompression.MAX_MESSAGE_SIZE + 1);
+        body.writeByte(0);
+        assertRejected(body.toByteArray());
+    }
+
+    private static void assertRejected(byte[] body) {
+        try {
+            MessageCompression.decompress(body);
+            fail("Accepted a malformed body of " + body.length + " bytes");
+        } catch (IllegalArgumentException expected) {
+            // Malformed bodies must fail cleanly, never with another exception
+        }
+    }
+
+    private static int plainDeflateSize(byte[] message) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(message);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            int size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(buffer);
+            }
+            return size;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,79 @@
+package fr.perrier.hologramuilib.protocol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Menus and patches shaped like the mod's TestMenus, for the protocol tests.
+ */
+final class TestMenuData {
+
+    private TestMenuData() {
+    }
+
+    static ElementData text(String id, String content) {
+        return new ElementData("text", id, content, 0, 0, Float.NaN, Float.NaN, Float.NaN, List.of());
+    }
+
+    static ElementData button(String id, String content) {
+        return new ElementData("button", id, content, 200, 20, Float.NaN, Float.NaN, Float.NaN, List.of());
+    }
+
+    static ElementData separator(String id) {
+        return new ElementData("separator", id, "", 200, 0, Float.NaN, Float.NaN, Float.NaN, List.of());
+    }
+
+    static ElementData slider(String id, String label, float max, float value) {
+        return new ElementData("slider", id, label, 180, 0, Float.NaN, max, value, List.of());
+    }
+
+    static ElementData progressBar(String id, float value) {
+        return new ElementData("progress_bar", id, "", 180, 0, Float.NaN, 100f, value, List.of());
+    }
+
+    static MenuData menu(String menuId, String title, List<ElementData> elements) {
+        return new MenuData(menuId, new double[] {12.5, 64.0, -340.5}, title, 220, -1, 0.02f, 20f,
+            0xDD000000, 0xFFFFD700, 10, 5, true, false, 24f, 48f, 64f, 12f, elements);
+    }
+
+    /**
+     * The slider showcase.
+     */
+    static MenuData sliderMenu() {
+        return menu("slider_menu", "§d§l🎚 Slider Showcase 🎚", List.of(
+            text("subtitle", "§7Phase 5: Interactive Controls"),
+            separator("sep1"),
+            text("info", "§7Click and drag the sliders:"),
+            slider("volume_slider", "Volume", 100f, 75f),
+            slider("brightness_slider", "Brightness", 1f, 0.5f),
+            slider("distance_slider", "Distance", 64f, 16f),
+            slider("speed_slider", "Speed", 200f, 100f),
+            separator("sep2"),
+            text("progress_title", "§e§lLinked Progress Bars"),
+            progressBar("linked_1", 75f),
+            progressBar("linked_2", 50f),
+            separator("sep3"),
+            button("btn_back_menu", "§7← Back to Main"),
+            button("btn_close", "§c✖ Close")
+        ));
+    }
+
+    /**
+     * A live refresh of the shop demo: every line and bar of the menu changes.
+     */
+    static PatchData shopRefresh() {
+        List<PatchOperation> operations = new ArrayList<>();
+        String[] items = {"Diamond Sword", "Golden Apple", "Ender Pearl", "Iron Pickaxe", "Bow", "Arrows x64"};
+        for (int i = 0; i < items.length; i++) {
+            operations.add(new PatchOperation(MenuWireFormat.OP_SET_CONTENT, "item_" + i,
+                "§a" + items[i] + " §7- §e" + (i + 1) * 25 + " coins", Float.NaN, -1, null));
+            operations.add(new PatchOperation(MenuWireFormat.OP_SET_VALUE, "stock_" + i,
+                null, 100f - i * 12.5f, -1, null));
+        }
+        operations.add(new PatchOperation(MenuWireFormat.OP_SET_CONTENT, "balance", "§6Balance: §e1250 coins",
+            Float.NaN, -1, null));
+        operations.add(new PatchOperation(MenuWireFormat.OP_INSERT, "btn_close", null, Float.NaN, 14,
+            button("btn_close", "§c✖ Close")));
+        return new PatchData("shop_demo", operations);
+    }
+}
@@ -1,12 +1,23 @@
 package fr.perrier.hologramuilib.client;
 
+import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.Easing;
+import fr.perrier.hologramuilib.client.animation.FrameClock;
+import fr.perrier.hologramuilib.client.benchmark.AnimationBenchmark;
+import fr.perrier.hologramuilib.client.benchmark.EasingBenchmark;
+import fr.perrier.hologramuilib.client.benchmark.HoverBenchmark;
+import fr.perrier.hologramuilib.client.benchmark.NetworkBenchmark;
 import fr.perrier.hologramuilib.client.config.ConfigLoader;
 import fr.perrier.hologramuilib.client.config.InteractionConfig;
+import fr.perrier.hologramuilib.client.config.StyleConfig;
 import fr.perrier.hologramuilib.client.interaction.ActionRegistry;
 import fr.perrier.hologramuilib.client.interaction.InteractionHandler;
 import fr.perrier.hologramuilib.client.interaction.MenuInteractionTracker;
 import fr.perrier.hologramuilib.client.menu.HologramMenu;
 import fr.perrier.hologramuilib.client.menu.MenuManager;
+import fr.perrier.hologramuilib.client.menu.MenuSpatialIndex;
 import fr.perrier.hologramuilib.client.menu.TestMenus;
 import fr.perrier.hologramuilib.client.menu.elements.ButtonElement;
 import fr.perrier.hologramuilib.client.network.ClientPacketHandler;
@@ -16,16 +27,20 @@ import fr.perrier.hologramuilib.client.render.HologramRenderer;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
+import net.minecraft.entity.Entity;
 import net.minecraft.text.Text;
 import org.lwjgl.glfw.GLFW;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+
 /**
  * Client-side entry point for HologramUILib.
  * Initializes the hologram menu system.
@@ -112,6 +127,148 @@ public class MainClient implements ClientModInitializer {
                         return 1;
                     })
                 )
+                .then(ClientCommandManager.literal("batch")
+                    .executes(context -> {
+                        HologramRenderer.getInstance().toggleBatchedRendering();
+                        boolean batched = HologramRenderer.getInstance().isBatchedRendering();
+                        context.getSource().sendFeedback(Text.literal("§e[HologramUI] Batched rendering: " + (batched ? "§aON" : "§cOFF")));
+                        return 1;
+                    })
+                )
+                .then(ClientCommandManager.literal("cache")
+                    .executes(context -> {
+                        HologramRenderer.getInstance().toggleMeshCaching();
+                        boolean caching = HologramRenderer.getInstance().isMeshCaching();
+                        context.getSource().sendFeedback(Text.literal("§e[HologramUI] Mesh caching: " + (caching ? "§aON" : "§cOFF")));
+                        return 1;
+                    })
+                )
+                .then(ClientCommandManager.literal("texture")
+                    .executes(context -> {
+                        HologramRenderer.getInstance().toggleTextureCaching();
+                        boolean textures = HologramRenderer.getInstance().isTextureCaching();
+                        context.getSource().sendFeedback(Text.literal("§e[HologramUI] Texture caching: " + (textures ? "§aON" : "§cOFF")));
+                        return 1;
+                    })
+                )
+                .then(ClientCommandManager.literal("transforms")
+                    .executes(context -> {
+                        HologramRenderer.getInstance().toggleDeferredTransforms();
+                        boolean deferred = HologramRenderer.getInstance().isDeferredTransforms();
+                        context.getSource().sendFeedback(Text.literal("§e[HologramUI] Deferred element transforms: " + (deferred ? "§aON" : "§cOFF")));
+                        return 1;
+                    })
+                )
+                .then(ClientCommandManager.literal("occlusion")
+                    .executes(context -> {
+                        HologramRenderer.getInstance().toggleOcclusionCulling();
+                        boolean occlusion = HologramRenderer.getInstance().isOcclusionCulling();
+                        context.getSource().sendFeedback(Text.literal("§e[HologramUI] Occlusion culling: " + (occlusion ? "§aON" : "§cOFF")));
+                        return 1;
+                    })
+                )
+                .then(ClientCommandManager.literal("perf")
+                    .executes(context -> {
+                        HologramRenderer renderer = HologramRenderer.getInstance();
+
+                        context.getSource().sendFeedback(Text.literal("§6=== Hologram Render Stats ==="));
+                        context.getSource().sendFeedback(Text.literal("§7Batched rendering: " + (renderer.isBatchedRendering() ? "§a✔ ON" : "§c✘ OFF")));
+                        context.getSource().sendFeedback(Text.literal("§7Menus rendered: §e" + renderer.getLastRenderedMenuCount()
+                            + " §7(culled: §e" + renderer.getLastCulledMenuCount() + "§7)"));
+                        MenuSpatialIndex spatialIndex = MenuManager.getInstance().getSpatialIndex();
+                        context.getSource().sendFeedback(Text.literal("§7Spatial index: §e" + spatialIndex.size()
+                            + " §7menus in §e" + spatialIndex.getSectionCount() + " §7sections"));
+                        context.getSource().sendFeedback(Text.literal("§7Detail levels: §efull " + renderer.getLastLodMenuCount(StyleConfig.LodLevel.FULL)
+                            + "§7, §ereduced " + renderer.getLastLodMenuCount(StyleConfig.LodLevel.REDUCED)
+                            + "§7, §eimpostor " + renderer.getLastLodMenuCount(StyleConfig.LodLevel.IMPOSTOR)));
+                        context.getSource().sendFeedback(Text.literal("§7Occlusion culling: " + (renderer.isOcclusionCulling() ? "§a✔ ON" : "§c✘ OFF")));
+                        context.getSource().sendFeedback(Text.literal("§7Mesh caching: " + (renderer.isMeshCaching() ? "§a✔ ON" : "§c✘ OFF")));
+                        context.getSource().sendFeedback(Text.literal("§7Texture caching: " + (renderer.isTextureCaching() ? "§a✔ ON" : "§c✘ OFF")));
+                        context.getSource().sendFeedback(Text.literal("§7Deferred transforms: " + (renderer.isDeferredTransforms() ? "§a✔ ON" : "§c✘ OFF")));
+                        context.getSource().sendFeedback(Text.literal("§7Drawn from cache: §e" + renderer.getLastCachedMenuCount()
+                            + " §7(cached: §e" + renderer.getCachedMenuCount() + "§7, rebuilds: §e" + renderer.getCacheRebuilds() + "§7)"));
+                        context.getSource().sendFeedback(Text.literal(String.format("§7Average render time: §e%.1fµs", renderer.getAverageFrameTimeMicros())));
+                        double allocatedBytes = renderer.getAverageAllocatedBytes();
+                        context.getSource().sendFeedback(Text.literal(allocatedBytes < 0
+                            ? "§7Allocated per frame: §cunavailable"
+                            : String.format("§7Allocated per frame: §e%.0f bytes", allocatedBytes)));
+                        AnimationManager animationManager = MenuManager.getInstance().getAnimationManager();
+                        FrameClock clock = animationManager.getClock();
+                        context.getSource().sendFeedback(Text.literal("§7Animations: §e" + animationManager.getActiveAnimationCount()
+                            + " §7active, §e" + animationManager.getActiveTimelineCount() + " §7timelines"
+                            + " (speed: §e" + clock.getTimeScale() + "x§7" + (clock.isPaused() ? ", §cpaused§7" : "") + ")"));
+                        context.getSource().sendFeedback(Text.literal("§7Animations evaluated: §e" + animationManager.getLastEvaluatedCount()
+                            + " §7(timeline tracks: §e" + animationManager.getLastEvaluatedTrackCount()
+                            + "§7, skipped: §e" + animationManager.getLastSkippedCount() + "§7, budget: §e" + animationManager.getFrameBudget() + "§7)"));
+
+                        return 1;
+                    })
+                )
+                .then(ClientCommandManager.literal("anim")
+                    .then(ClientCommandManager.literal("pause")
+                        .executes(context -> {
+                            FrameClock clock = MenuManager.getInstance().getAnimationManager().getClock();
+                            clock.setPaused(!clock.isPaused());
+                            context.getSource().sendFeedback(Text.literal("§e[HologramUI] Animations paused: " + (clock.isPaused() ? "§aON" : "§cOFF")));
+                            return 1;
+                        })
+                    )
+                    .then(ClientCommandManager.literal("budget")
+                        .then(ClientCommandManager.argument("count", IntegerArgumentType.integer(1, 1000000))
+                            .executes(context -> {
+                                int budget = IntegerArgumentType.getInteger(context, "count");
+                                MenuManager.getInstance().getAnimationManager().setFrameBudget(budget);
+                                context.getSource().sendFeedback(Text.literal("§e[HologramUI] Animation budget: §a" + budget));
+                                return 1;
+                            })
+                        )
+                    )
+                    .then(ClientCommandManager.literal("lut")
+                        .executes(context -> {
+                            Easing.setUseLookupTables(!Easing.isUsingLookupTables());
+                            context.getSource().sendFeedback(Text.literal("§e[HologramUI] Easing lookup tables: " + (Easing.isUsingLookupTables() ? "§aON" : "§cOFF")));
+                            return 1;
+                        })
+                    )
+                    .then(ClientCommandManager.literal("parallel")
+                        .executes(context -> {
+                            AnimationManager animationManager = MenuManager.getInstance().getAnimationManager();
+                            animationManager.setParallelEvaluation(!animationManager.isParallelEvaluation());
+                            context.getSource().sendFeedback(Text.literal("§e[HologramUI] Parallel animation evaluation: " + (animationManager.isParallelEvaluation() ? "§aON" : "§cOFF")));
+                            return 1;
+                        })
+                    )
+                    .then(ClientCommandManager.literal("speed")
+                        .then(ClientCommandManager.argument("scale", FloatArgumentType.floatArg(0, 10))
+                            .executes(context -> {
+                                float scale = FloatArgumentType.getFloat(context, "scale");
+                                MenuManager.getInstance().getAnimationManager().getClock().setTimeScale(scale);
+                                context.getSource().sendFeedback(Text.literal("§e[HologramUI] Animation speed: §a" + scale + "x"));
+                                return 1;
+                            })
+                        )
+                    )
+                )
+                .then(ClientCommandManager.literal("bench")
+                    .then(ClientCommandManager.literal("hover")
+                        .executes(context -> runHoverBenchmark(context.getSource(), 10, 100, 1000))
+                        .then(ClientCommandManager.argument("count", IntegerArgumentType.integer(1, 10000))
+                            .executes(context -> runHoverBenchmark(context.getSource(), IntegerArgumentType.getInteger(context, "count")))
+                        )
+                    )
+                    .then(ClientCommandManager.literal("easing")
+                        .executes(context -> runEasingBenchmark(context.getSource()))
+                    )
+                    .then(ClientCommandManager.literal("animations")
+                        .executes(context -> runAnimationBenchmark(context.getSource(), 1000, 10000))
+                        .then(ClientCommandManager.argument("count", IntegerArgumentType.integer(1, 100000))
+                            .executes(context -> runAnimationBenchmark(context.getSource(), IntegerArgumentType.getInteger(context, "count")))
+                        )
+                    )
+                    .then(ClientCommandManager.literal("network")
+                        .executes(context -> runNetworkBenchmark(context.getSource()))
+                    )
+                )
                 .then(ClientCommandManager.literal("interaction")
                     .then(ClientCommandManager.literal("status")
                         .executes(context -> {
@@ -149,6 +306,100 @@ public class MainClient implements ClientModInitializer {
         });
     }
 
+    /**
+     * Runs the easing benchmark and reports the results in chat.
+     */
+    private int runEasingBenchmark(FabricClientCommandSource source) {
+        source.sendFeedback(Text.literal("§6=== Easing Benchmark ==="));
+        for (EasingBenchmark.Result result : EasingBenchmark.run()) {
+            source.sendFeedback(Text.literal(String.format(
+                "§7%s: §eanalytic %.1fns§7, §etable %.1fns §7(max error %s%.5f§7)",
+                result.name(), result.analyticNanos(), result.tableNanos(),
+                result.isAccurate() ? "§a" : "§c", result.maxError()
+            )));
+        }
+        return 1;
+    }
+
+    /**
+     * Runs the animation checks, then the benchmark for each animation count, and reports the results in chat.
+     * Timings are not reported if a check fails, they would not mean anything.
+     */
+    private int runAnimationBenchmark(FabricClientCommandSource source, int... animationCounts) {
+        source.sendFeedback(Text.literal("§6=== Animation Benchmark ==="));
+        boolean passed = true;
+        for (AnimationBenchmark.Check check : AnimationBenchmark.check()) {
+            passed &= check.passed();
+            source.sendFeedback(Text.literal("§7" + check.name() + ": " + (check.passed() ? "§a✔ " : "§c✘ ") + check.detail()));
+        }
+        if (!passed) {
+            source.sendError(Text.literal("§c[HologramUI] Animation checks failed, skipping timings"));
+            return 0;
+        }
+
+        for (int animationCount : animationCounts) {
+            AnimationBenchmark.Result result = AnimationBenchmark.run(animationCount);
+            source.sendFeedback(Text.literal(String.format(
+                "§7%d animations: §esample %.1fµs§7, §eparallel %.1fµs§7, §eread %.1fns §7(%s)",
+                result.animationCount(), result.sampleMicros(), result.parallelSampleMicros(), result.readNanos(),
+                result.allocatedBytes() < 0 ? "allocation unavailable" : String.format("%.0f bytes/frame", result.allocatedBytes())
+            )));
+        }
+        return 1;
+    }
+
+    /**
+     * Runs the compression benchmark over the loaded menus and reports the results in chat.
+     */
+    private int runNetworkBenchmark(FabricClientCommandSource source) {
+        Collection<HologramMenu> menus = MenuManager.getInstance().getActiveMenus();
+        if (menus.isEmpty()) {
+            source.sendError(Text.literal("§c[HologramUI] No menus to benchmark, open some test menus first"));
+            return 0;
+        }
+
+        source.sendFeedback(Text.literal("§6=== Network Benchmark ==="));
+        long rawTotal = 0;
+        long sentTotal = 0;
+        for (NetworkBenchmark.Result result : NetworkBenchmark.run(menus)) {
+            rawTotal += result.rawBytes();
+            sentTotal += result.sentBytes();
+            source.sendFeedback(Text.literal(String.format(
+                "§7%s: §e%d bytes§7, deflate §e%d§7, dictionary §e%s §7(%s)",
+                result.name(), result.rawBytes(), result.deflateBytes(),
+                result.compressedBytes() < 0 ? "-" : String.valueOf(result.compressedBytes()),
+                !result.roundTrip() ? "§cround trip failed"
+                    : result.isCompressed() ? String.format("§e%.1fµs§7 / §e%.1fµs", result.compressMicros(), result.decompressMicros())
+                    : "sent as is"
+            )));
+        }
+        source.sendFeedback(Text.literal(String.format(
+            "§7Total: §e%d §7-> §e%d bytes §7(%.0f%%)", rawTotal, sentTotal, 100.0 * sentTotal / rawTotal
+        )));
+        return 1;
+    }
+
+    /**
+     * Runs the hover benchmark for each menu count and reports the results in chat.
+     */
+    private int runHoverBenchmark(FabricClientCommandSource source, int... menuCounts) {
+        Entity camera = MinecraftClient.getInstance().cameraEntity;
+        if (camera == null) {
+            source.sendError(Text.literal("§c[HologramUI] No camera to benchmark from"));
+            return 0;
+        }
+
+        source.sendFeedback(Text.literal("§6=== Hover Benchmark ==="));
+        for (int menuCount : menuCounts) {
+            HoverBenchmark.Result result = HoverBenchmark.run(camera, menuCount);
+            source.sendFeedback(Text.literal(String.format(
+                "§7%d menus: §efull scan %.2fµs§7, §eindexed %.2fµs §7(%.1f candidates)",
+                result.menuCount(), result.fullScanMicros(), result.indexedMicros(), result.averageCandidates()
+            )));
+        }
+        return 1;
+    }
+
     /**
      * Client tick event handler.
      */
@@ -4,12 +4,18 @@ import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
 
 /**
  * Represents a single animation that can be applied to properties.
+ *
+ * The values depend on the {@link ChannelType} of the property: one float for scalars,
+ * several for vectors and transforms, a packed ARGB integer for colors.
  */
 public class Animation {
 
     private final String propertyName;
-    private final float startValue;
-    private final float endValue;
+    private final ChannelType channelType;
+    private final float[] startValues;
+    private final float[] endValues;
+    private final int startColor;
+    private final int endColor;
     private final long durationMs;
     private final long delayMs;
     private final EasingFunction easingFunction;
@@ -21,8 +27,11 @@ public class Animation {
 
     private Animation(Builder builder) {
         this.propertyName = builder.propertyName;
-        this.startValue = builder.startValue;
-        this.endValue = builder.endValue;
+        this.channelType = builder.channelType;
+        this.startValues = builder.startValues.clone();
+        this.endValues = builder.endValues.clone();
+        this.startColor = builder.startColor;
+        this.endColor = builder.endColor;
         this.durationMs = builder.durationMs;
         this.delayMs = builder.delayMs;
         this.easingFunction = builder.easingFunction;
@@ -40,6 +49,7 @@ public class Animation {
 
     /**
      * Updates the animation and returns the current value.
+     * Only the first component is returned for multi-component channels.
      *
      * @return The current interpolated value, or null if animation hasn't started yet
      */
@@ -48,6 +58,8 @@ public class Animation {
             return null;
         }
 
+        float startValue = getStartValue();
+        float endValue = getEndValue();
         if (startTime < 0) {
             return startValue;
         }
@@ -108,12 +120,63 @@ public class Animation {
         return propertyName;
     }
 
+    public ChannelType getChannelType() {
+        return channelType;
+    }
+
+    /**
+     * Gets the start value, the first component for multi-component channels.
+     */
     public float getStartValue() {
-        return startValue;
+        return startValues.length > 0 ? startValues[0] : 0;
     }
 
+    /**
+     * Gets the end value, the first component for multi-component channels.
+     */
     public float getEndValue() {
-        return endValue;
+        return endValues.length > 0 ? endValues[0] : 0;
+    }
+
+    float[] getStartValues() {
+        return startValues;
+    }
+
+    float[] getEndValues() {
+        return endValues;
+    }
+
+    public int getStartColor() {
+        return startColor;
+    }
+
+    public int getEndColor() {
+        return endColor;
+    }
+
+    long getDurationMs() {
+        return durationMs;
+    }
+
+    long getDelayMs() {
+        return delayMs;
+    }
+
+    EasingFunction getEasingFunction() {
+        return easingFunction;
+    }
+
+    /**
+     * Marks the animation as completed and runs its callback once.
+     * Used by the {@link AnimationManager}, which samples the animation itself.
+     */
+    void complete() {
+        if (!completed) {
+            completed = true;
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        }
     }
 
     /**
@@ -125,11 +188,15 @@ public class Animation {
 
     /**
      * Builder for creating animations.
+     * Scalars go from 0 to 1 by default, other channels stay at their identity value.
      */
     public static class Builder {
         private final String propertyName;
-        private float startValue = 0;
-        private float endValue = 1;
+        private final ChannelType channelType;
+        private final float[] startValues;
+        private final float[] endValues;
+        private int startColor = 0xFFFFFFFF;
+        private int endColor = 0xFFFFFFFF;
         private long durationMs = 300;
         private long delayMs = 0;
         private EasingFunction easingFunction = Easing::easeOutQuad;
@@ -137,15 +204,53 @@ public class Animation {
 
         private Builder(String propertyName) {
             this.propertyName = propertyName;
+            this.channelType = AnimationProperties.getChannelType(AnimationProperties.handle(propertyName));
+            this.startValues = channelType.getDefaults();
+            this.endValues = channelType.getDefaults();
+            if (channelType == ChannelType.SCALAR) {
+                endValues[0] = 1;
+            }
         }
 
         public Builder from(float startValue) {
-            this.startValue = startValue;
-            return this;
+            return from(new float[] {startValue});
         }
 
         public Builder to(float endValue) {
-            this.endValue = endValue;
+            return to(new float[] {endValue});
+        }
+
+        /**
+         * Sets the first components of the start value, for vector and transform channels.
+         */
+        public Builder from(float... components) {
+            copyComponents(components, startValues);
+            return this;
+        }
+
+        /**
+         * Sets the first components of the end value, for vector and transform channels.
+         */
+        public Builder to(float... components) {
+            copyComponents(components, endValues);
+            return this;
+        }
+
+        /**
+         * Sets the start color of a color channel.
+         */
+        public Builder fromColor(int argb) {
+            requireColor();
+            this.startColor = argb;
+            return this;
+        }
+
+        /**
+         * Sets the end color of a color channel.
+         */
+        public Builder toColor(int argb) {
+            requireColor();
+            this.endColor = argb;
             return this;
         }
 
@@ -175,14 +280,31 @@ public class Animation {
         }
 
         public Animation build() {
+            if (Easing.isUsingLookupTables()) {
+                easingFunction = EasingTable.of(easingFunction);
+            }
             return new Animation(this);
         }
 
         public Animation buildAndStart() {
-            Animation animation = new Animation(this);
+            Animation animation = build();
             animation.start();
             return animation;
         }
+
+        private void copyComponents(float[] components, float[] target) {
+            if (components.length > target.length) {
+                throw new IllegalArgumentException("Property " + propertyName + " is a " + channelType
+                    + " channel with " + target.length + " components, got " + components.length);
+            }
+            System.arraycopy(components, 0, target, 0, components.length);
+        }
+
+        private void requireColor() {
+            if (channelType != ChannelType.COLOR) {
+                throw new IllegalArgumentException("Property " + propertyName + " is a " + channelType + " channel, not a color");
+            }
+        }
     }
 }
 
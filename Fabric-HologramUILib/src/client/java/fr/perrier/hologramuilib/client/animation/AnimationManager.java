@@ -1,16 +1,267 @@
 package fr.perrier.hologramuilib.client.animation;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
+import fr.perrier.hologramuilib.util.ColorHelper;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Manages animations for menu elements.
  * Supports multiple concurrent animations per element.
+ *
+ * Animations are stored as a struct of arrays: one slot per running animation, with its
+ * start and end values, timing and easing in primitive arrays. Element IDs and property names
+ * are interned into integer handles, so reading a value is two array lookups.
+ * {@link #sample()} evaluates every slot in one pass, elements only read the results.
+ *
+ * Slots hold typed channels (see {@link ChannelType}): the easing of a vector, transform or
+ * color channel is evaluated once for all its components. Elements read their whole
+ * transform in one call with {@link #readTransform(int, ElementTransform)}.
+ *
+ * Several animations can be played as one {@link AnimationTimeline}: its tracks own their
+ * slots, but timing, repeats and completion are handled once per playback.
+ *
+ * With many animations running, evaluation can move off the client thread:
+ * {@link #beginSample()} forks it to the common fork-join pool, split by slot range, writing
+ * into a back buffer, and {@link #finishSample()} joins and copies it back. Readers only
+ * ever see the values of a complete frame. Easing functions must then be free of side effects.
+ *
+ * Elements can be put in budget groups, one per menu, whose {@link AnimationTier} says how often
+ * they are evaluated: hidden menus are skipped, distant ones evaluated every few frames, and
+ * a frame budget caps how many slots are evaluated per frame, hovered menus first. Timeline
+ * tracks count against the budget like any slot, and are left out with their element. Since values
+ * are a function of the clock, a skipped animation is exactly where it should be when evaluated
+ * again; animations due to end are always evaluated so they complete on time.
+ *
+ * Time comes from a {@link FrameClock}, captured once per frame, so every element of a frame
+ * is sampled at the same instant and animations can be paused or slowed down.
+ *
+ * Like the rest of the menu system, it must only be used from the client thread.
  */
 public class AnimationManager {
 
-    // Map of element ID -> property name -> animation
-    private final Map<String, Map<String, Animation>> activeAnimations = new ConcurrentHashMap<>();
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int[] NO_SLOTS = new int[0];
+    // Floats per slot in the value arrays, slot i starts at i * STRIDE
+    private static final int STRIDE = ChannelType.MAX_COMPONENTS;
+
+    // Below this many slots, forking costs more than evaluating on the client thread
+    private static final int PARALLEL_THRESHOLD = 1024;
+    // Slots evaluated by one fork-join leaf
+    private static final int PARALLEL_CHUNK = 256;
+
+    // Default cap on slots evaluated per frame, see setFrameBudget
+    public static final int DEFAULT_FRAME_BUDGET = 8192;
+    // Distant groups are evaluated once every this many samples
+    private static final int DISTANT_INTERVAL = 4;
+
+    private final FrameClock clock;
+
+    // Element ID -> element handle
+    private final Object2IntOpenHashMap<String> elementHandles = new Object2IntOpenHashMap<>();
+
+    // Element handle -> property handle -> slot, -1 when the property is not animated
+    private int[][] slotsByElement = new int[INITIAL_CAPACITY][];
+    // Element handle -> number of slots, 0 means the element has nothing to sample
+    private int[] slotCountByElement = new int[INITIAL_CAPACITY];
+    // Element handle -> budget group, -1 for elements outside any group (always evaluated)
+    private int[] elementGroups = newElementGroups(INITIAL_CAPACITY);
+
+    // Budget groups: group ID -> handle -> tier and elements
+    private final Object2IntOpenHashMap<String> groupHandles = new Object2IntOpenHashMap<>();
+    private AnimationTier[] groupTiers = new AnimationTier[INITIAL_CAPACITY];
+    private IntArrayList[] groupElements = new IntArrayList[INITIAL_CAPACITY];
+
+    // Slots, densely packed in [0, slotCount)
+    private int slotCount = 0;
+    private int[] slotElements = new int[INITIAL_CAPACITY];
+    private int[] slotProperties = new int[INITIAL_CAPACITY];
+    private ChannelType[] slotTypes = new ChannelType[INITIAL_CAPACITY];
+    private float[] startValues = new float[INITIAL_CAPACITY * STRIDE];
+    private float[] endValues = new float[INITIAL_CAPACITY * STRIDE];
+    private int[] startColors = new int[INITIAL_CAPACITY];
+    private int[] endColors = new int[INITIAL_CAPACITY];
+    // Clock times, in nanoseconds
+    private long[] startTimes = new long[INITIAL_CAPACITY];
+    private long[] delays = new long[INITIAL_CAPACITY];
+    private long[] durations = new long[INITIAL_CAPACITY];
+    private EasingFunction[] easings = new EasingFunction[INITIAL_CAPACITY];
+    private Animation[] animations = new Animation[INITIAL_CAPACITY];
+    // Playback driving the slot, for slots owned by a timeline track (their animation is null)
+    private TimelinePlayback[] playbacks = new TimelinePlayback[INITIAL_CAPACITY];
+    private float[] values = new float[INITIAL_CAPACITY * STRIDE];
+    private int[] colorValues = new int[INITIAL_CAPACITY];
+    // Completed during the last sample, the end value stays readable until the next one
+    private boolean[] finished = new boolean[INITIAL_CAPACITY];
+    // Reached their end in the evaluation in progress, completed on the client thread
+    private boolean[] completing = new boolean[INITIAL_CAPACITY];
+
+    // Written by the off-thread evaluation, copied into values when it is joined
+    private float[] backValues = new float[INITIAL_CAPACITY * STRIDE];
+    private int[] backColorValues = new int[INITIAL_CAPACITY];
+    private boolean parallelEvaluation = true;
+    private ForkJoinTask<?> pendingEvaluation;
+    private boolean sampleInProgress = false;
+    private int evaluatedCount;
+    private long evaluatedTime;
+
+    // Slots picked for evaluation by the current sample, within the frame budget
+    private int frameBudget = DEFAULT_FRAME_BUDGET;
+    private int[] scheduled = new int[INITIAL_CAPACITY];
+    private int[] visibleQueue = new int[INITIAL_CAPACITY];
+    private int[] distantQueue = new int[INITIAL_CAPACITY];
+    private int scheduledCount;
+    // Timeline tracks picked by the current sample, evaluated with their playback on the client thread
+    private boolean[] scheduledTracks = new boolean[INITIAL_CAPACITY];
+    private int scheduledTrackCount;
+    // Slot the next schedule starts from, so slots left out by the budget go first next time
+    private int budgetCursor;
+    private long sampleIndex;
+    private int lastSkippedCount;
+
+    private final List<TimelinePlayback> activePlaybacks = new ArrayList<>();
+
+    public AnimationManager() {
+        this(new FrameClock());
+    }
+
+    /**
+     * Creates a manager sampling animations against the given clock.
+     */
+    public AnimationManager(FrameClock clock) {
+        this.clock = clock;
+        elementHandles.defaultReturnValue(-1);
+        groupHandles.defaultReturnValue(-1);
+    }
+
+    /**
+     * Gets the clock animations are sampled against.
+     */
+    public FrameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the handle of an element ID, registering it on first use.
+     * Handles stay valid for the lifetime of this manager, elements can cache them.
+     */
+    public int getElementHandle(String elementId) {
+        int handle = elementHandles.getInt(elementId);
+        if (handle < 0) {
+            handle = elementHandles.size();
+            elementHandles.put(elementId, handle);
+            if (handle >= slotCountByElement.length) {
+                int capacity = slotCountByElement.length * 2;
+                slotsByElement = Arrays.copyOf(slotsByElement, capacity);
+                slotCountByElement = Arrays.copyOf(slotCountByElement, capacity);
+                int oldLength = elementGroups.length;
+                elementGroups = Arrays.copyOf(elementGroups, capacity);
+                Arrays.fill(elementGroups, oldLength, capacity, -1);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Gets the handle of a budget group, registering it on first use.
+     * New groups are {@link AnimationTier#HIDDEN} until their tier is set.
+     *
+     * @param groupId Usually the ID of the menu the elements belong to
+     */
+    public int getGroupHandle(String groupId) {
+        int handle = groupHandles.getInt(groupId);
+        if (handle < 0) {
+            handle = groupHandles.size();
+            groupHandles.put(groupId, handle);
+            if (handle >= groupTiers.length) {
+                groupTiers = Arrays.copyOf(groupTiers, groupTiers.length * 2);
+                groupElements = Arrays.copyOf(groupElements, groupElements.length * 2);
+            }
+            groupTiers[handle] = AnimationTier.HIDDEN;
+            groupElements[handle] = new IntArrayList();
+        }
+        return handle;
+    }
+
+    /**
+     * Puts an element in a budget group, its animations then follow the tier of the group.
+     */
+    public void assignGroup(int elementHandle, int groupHandle) {
+        int previous = elementGroups[elementHandle];
+        if (previous == groupHandle) {
+            return;
+        }
+        if (previous >= 0) {
+            groupElements[previous].rem(elementHandle);
+        }
+        elementGroups[elementHandle] = groupHandle;
+        groupElements[groupHandle].add(elementHandle);
+    }
+
+    /**
+     * Sets how often the animations of a group are evaluated.
+     * A group that comes back into view is evaluated right away, at the current frame time,
+     * so it never shows values from when it was throttled.
+     */
+    public void setGroupTier(int groupHandle, AnimationTier tier) {
+        AnimationTier previous = groupTiers[groupHandle];
+        groupTiers[groupHandle] = tier;
+
+        boolean wasThrottled = previous == AnimationTier.HIDDEN || previous == AnimationTier.DISTANT;
+        boolean isFull = tier == AnimationTier.HOVERED || tier == AnimationTier.VISIBLE;
+        if (wasThrottled && isFull) {
+            refreshGroup(groupHandle);
+        }
+    }
+
+    public AnimationTier getGroupTier(int groupHandle) {
+        return groupTiers[groupHandle];
+    }
+
+    /**
+     * Sets the maximum number of slots evaluated per frame. Hovered groups are always evaluated,
+     * then visible ones, then distant ones, in turns when they do not all fit.
+     */
+    public void setFrameBudget(int frameBudget) {
+        if (frameBudget < 1) {
+            throw new IllegalArgumentException("Frame budget must be at least 1");
+        }
+        this.frameBudget = frameBudget;
+    }
+
+    public int getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * Gets the number of slots evaluated by the last sample, timeline tracks included.
+     */
+    public int getLastEvaluatedCount() {
+        return scheduledCount + scheduledTrackCount;
+    }
+
+    /**
+     * Gets the number of timeline tracks evaluated by the last sample.
+     * Unlike other slots, they are always evaluated on the client thread.
+     */
+    public int getLastEvaluatedTrackCount() {
+        return scheduledTrackCount;
+    }
+
+    /**
+     * Gets the number of visible or distant slots, timeline tracks included, the frame budget
+     * left out during the last sample.
+     */
+    public int getLastSkippedCount() {
+        return lastSkippedCount;
+    }
 
     /**
      * Adds an animation for an element.
@@ -19,72 +270,523 @@ public class AnimationManager {
      * @param animation The animation to add
      */
     public void addAnimation(String elementId, Animation animation) {
-        Map<String, Animation> elementAnimations = activeAnimations.computeIfAbsent(
-            elementId,
-            k -> new ConcurrentHashMap<>()
-        );
+        addAnimation(getElementHandle(elementId), animation);
+    }
 
-        // Cancel existing animation for the same property
-        Animation existing = elementAnimations.get(animation.getPropertyName());
-        if (existing != null) {
-            existing.cancel();
+    /**
+     * Adds an animation for an element, by handle.
+     * An animation already running on the same property is cancelled and its slot reused.
+     */
+    public void addAnimation(int elementHandle, Animation animation) {
+        finishSample();
+        int property = AnimationProperties.handle(animation.getPropertyName());
+        animation.start();
+
+        int slot = getSlot(elementHandle, property);
+        if (slot >= 0) {
+            // Cancel existing animation for the same property, or take it over from a timeline
+            if (animations[slot] != null && animations[slot] != animation) {
+                animations[slot].cancel();
+            }
+            playbacks[slot] = null;
+        } else {
+            slot = allocateSlot(elementHandle, property);
         }
 
-        elementAnimations.put(animation.getPropertyName(), animation);
-        animation.start();
+        int offset = slot * STRIDE;
+        ChannelType type = slotTypes[slot];
+        type.copy(animation.getStartValues(), 0, startValues, offset);
+        type.copy(animation.getEndValues(), 0, endValues, offset);
+        type.copy(animation.getStartValues(), 0, values, offset);
+        startColors[slot] = animation.getStartColor();
+        endColors[slot] = animation.getEndColor();
+        colorValues[slot] = animation.getStartColor();
+        startTimes[slot] = clock.getTimeNanos();
+        delays[slot] = animation.getDelayMs() * FrameClock.NANOS_PER_MILLI;
+        durations[slot] = animation.getDurationMs() * FrameClock.NANOS_PER_MILLI;
+        easings[slot] = animation.getEasingFunction();
+        animations[slot] = animation;
+        finished[slot] = false;
+        completing[slot] = false;
     }
 
     /**
-     * Gets the current animated value for a property.
+     * Plays a timeline on this manager's elements, as a single entry.
+     * Tracks take over properties that were already animated.
      *
-     * @param elementId The element ID
-     * @param propertyName The property name
+     * @return The playback, which can be cancelled
+     */
+    public TimelinePlayback play(AnimationTimeline timeline) {
+        finishSample();
+        TimelinePlayback playback = new TimelinePlayback(timeline, clock.getTimeNanos());
+
+        for (int track = 0; track < timeline.getTrackCount(); track++) {
+            int elementHandle = getElementHandle(timeline.getTrackElement(track));
+            int property = timeline.getTrackProperty(track);
+            playback.elementHandles[track] = elementHandle;
+            playback.propertyHandles[track] = property;
+
+            int slot = getSlot(elementHandle, property);
+            if (slot >= 0) {
+                if (animations[slot] != null) {
+                    animations[slot].cancel();
+                }
+            } else {
+                slot = allocateSlot(elementHandle, property);
+            }
+
+            easings[slot] = null;
+            animations[slot] = null;
+            playbacks[slot] = playback;
+            finished[slot] = false;
+            completing[slot] = false;
+            if (timeline.isTrackPrimary(track)) {
+                timeline.writeStart(track, values, slot * STRIDE, colorValues, slot);
+            }
+        }
+
+        activePlaybacks.add(playback);
+        return playback;
+    }
+
+    /**
+     * Evaluates every animation at the time of the last captured frame.
+     * Animations that completed during the previous pass, or were cancelled, are dropped first.
+     * Same as {@link #beginSample()} followed by {@link #finishSample()}.
+     */
+    public void sample() {
+        beginSample();
+        finishSample();
+    }
+
+    /**
+     * Starts evaluating the animations at the time of the last captured frame.
+     * With enough animations and parallel evaluation enabled, the work runs on the fork-join
+     * pool until {@link #finishSample()}, otherwise it is done right away.
+     */
+    public void beginSample() {
+        finishSample();
+
+        for (int i = slotCount - 1; i >= 0; i--) {
+            if (finished[i] || isCancelled(i)) {
+                removeSlot(i);
+            }
+        }
+
+        evaluatedTime = clock.getTimeNanos();
+        evaluatedCount = slotCount;
+        sampleInProgress = true;
+        schedule(evaluatedTime);
+
+        if (parallelEvaluation && scheduledCount >= PARALLEL_THRESHOLD) {
+            pendingEvaluation = ForkJoinPool.commonPool().submit(
+                new EvaluateTask(this, 0, scheduledCount, evaluatedTime, backValues, backColorValues));
+        } else {
+            evaluate(0, scheduledCount, evaluatedTime, values, colorValues);
+        }
+    }
+
+    /**
+     * Picks the slots to evaluate this frame, from the tier of their group and the frame budget.
+     */
+    private void schedule(long frameTime) {
+        boolean distantTurn = sampleIndex++ % DISTANT_INTERVAL == 0;
+        if (budgetCursor >= slotCount) {
+            budgetCursor = 0;
+        }
+        Arrays.fill(scheduledTracks, 0, slotCount, false);
+
+        int count = 0;
+        int tracks = 0;
+        int visible = 0;
+        int distant = 0;
+        for (int k = 0; k < slotCount; k++) {
+            int i = k + budgetCursor;
+            if (i >= slotCount) {
+                i -= slotCount;
+            }
+            boolean track = animations[i] == null;
+
+            // Ending animations are not throttled, their end value and callback must not wait.
+            // Ending timelines always write their tracks, see samplePlayback
+            if (!track && frameTime - startTimes[i] - delays[i] >= durations[i]) {
+                scheduled[count++] = i;
+                continue;
+            }
+
+            switch (getTier(slotElements[i])) {
+                case HOVERED -> {
+                    if (track) {
+                        scheduledTracks[i] = true;
+                        tracks++;
+                    } else {
+                        scheduled[count++] = i;
+                    }
+                }
+                case VISIBLE -> visibleQueue[visible++] = i;
+                case DISTANT -> {
+                    if (distantTurn) {
+                        distantQueue[distant++] = i;
+                    }
+                }
+                case HIDDEN -> {
+                }
+            }
+        }
+
+        int remaining = Math.max(0, frameBudget - count - tracks);
+        int takenVisible = Math.min(visible, remaining);
+        for (int k = 0; k < takenVisible; k++) {
+            int slot = visibleQueue[k];
+            if (animations[slot] == null) {
+                scheduledTracks[slot] = true;
+                tracks++;
+            } else {
+                scheduled[count++] = slot;
+            }
+        }
+        remaining -= takenVisible;
+
+        int takenDistant = Math.min(distant, remaining);
+        for (int k = 0; k < takenDistant; k++) {
+            int slot = distantQueue[k];
+            if (animations[slot] == null) {
+                scheduledTracks[slot] = true;
+                tracks++;
+            } else {
+                scheduled[count++] = slot;
+            }
+        }
+
+        // Start from the first slot left out, so every slot gets its turn
+        if (takenVisible < visible) {
+            budgetCursor = visibleQueue[takenVisible];
+        } else if (takenDistant < distant) {
+            budgetCursor = distantQueue[takenDistant];
+        } else {
+            budgetCursor = 0;
+        }
+
+        scheduledCount = count;
+        scheduledTrackCount = tracks;
+        lastSkippedCount = (visible - takenVisible) + (distant - takenDistant);
+    }
+
+    private AnimationTier getTier(int elementHandle) {
+        int group = elementGroups[elementHandle];
+        return group < 0 ? AnimationTier.VISIBLE : groupTiers[group];
+    }
+
+    /**
+     * Evaluates the animations of a group right away, at the time of the current frame.
+     * Timeline tracks catch up with their playback on the next sample.
+     */
+    private void refreshGroup(int groupHandle) {
+        finishSample();
+
+        long frameTime = clock.getTimeNanos();
+        IntArrayList elements = groupElements[groupHandle];
+        for (int e = 0; e < elements.size(); e++) {
+            int elementHandle = elements.getInt(e);
+            if (!isAnimating(elementHandle)) {
+                continue;
+            }
+
+            int[] slots = slotsByElement[elementHandle];
+            for (int property = 0; property < slots.length; property++) {
+                int slot = slots[property];
+                if (slot >= 0 && animations[slot] != null) {
+                    // Completion is left to the next sample, which always evaluates ending animations
+                    evaluateSlot(slot, frameTime, values, colorValues);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finishes the evaluation started by {@link #beginSample()}: waits for the workers,
+     * publishes their values, runs completion callbacks and samples timelines.
+     * Does nothing if no evaluation is in progress.
+     */
+    public void finishSample() {
+        if (!sampleInProgress) {
+            return;
+        }
+        sampleInProgress = false;
+
+        if (pendingEvaluation != null) {
+            ForkJoinTask<?> evaluation = pendingEvaluation;
+            pendingEvaluation = null;
+            evaluation.join();
+
+            // Only the scheduled slots were written, the others keep their last value
+            for (int k = 0; k < scheduledCount; k++) {
+                int slot = scheduled[k];
+                System.arraycopy(backValues, slot * STRIDE, values, slot * STRIDE, STRIDE);
+                colorValues[slot] = backColorValues[slot];
+            }
+        }
+
+        // Completion callbacks may add animations (even reusing the slot) or cancel others
+        for (int i = 0; i < evaluatedCount && i < slotCount; i++) {
+            if (completing[i]) {
+                completing[i] = false;
+                finished[i] = true;
+                animations[i].complete();
+            }
+        }
+
+        // Callbacks may start new playbacks, they are appended after the ones being visited
+        for (int i = activePlaybacks.size() - 1; i >= 0; i--) {
+            TimelinePlayback playback = activePlaybacks.get(i);
+            if (playback.isCancelled() || samplePlayback(playback, evaluatedTime)) {
+                activePlaybacks.remove(i);
+                if (!playback.isCancelled()) {
+                    playback.complete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a range of the scheduled slots. Only reads the slot arrays and writes the given
+     * values and the completion flags, so ranges can be evaluated concurrently.
+     */
+    private void evaluate(int from, int to, long frameTime, float[] out, int[] colorOut) {
+        for (int k = from; k < to; k++) {
+            int slot = scheduled[k];
+            if (evaluateSlot(slot, frameTime, out, colorOut)) {
+                completing[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * Evaluates one animation slot. The easing is applied once, whatever the number of components.
+     *
+     * @return true if the animation reached its end
+     */
+    private boolean evaluateSlot(int i, long frameTime, float[] out, int[] colorOut) {
+        ChannelType type = slotTypes[i];
+        int offset = i * STRIDE;
+        long elapsed = frameTime - startTimes[i] - delays[i];
+        if (elapsed < 0) {
+            type.copy(startValues, offset, out, offset);
+            colorOut[i] = startColors[i];
+            return false;
+        }
+        if (elapsed >= durations[i]) {
+            type.copy(endValues, offset, out, offset);
+            colorOut[i] = endColors[i];
+            return true;
+        }
+
+        float eased = easings[i].apply((float) elapsed / durations[i]);
+        if (type == ChannelType.COLOR) {
+            colorOut[i] = ColorHelper.lerp(startColors[i], endColors[i], eased);
+        } else {
+            type.interpolate(startValues, offset, endValues, offset, eased, out, offset);
+        }
+        return false;
+    }
+
+    /**
+     * Checks if animations are evaluated on the fork-join pool when there are enough of them.
+     */
+    public boolean isParallelEvaluation() {
+        return parallelEvaluation;
+    }
+
+    public void setParallelEvaluation(boolean parallelEvaluation) {
+        finishSample();
+        this.parallelEvaluation = parallelEvaluation;
+    }
+
+    /**
+     * Writes the values of every track of a playback.
+     *
+     * @return true if the playback reached its end
+     */
+    private boolean samplePlayback(TimelinePlayback playback, long frameTime) {
+        AnimationTimeline timeline = playback.timeline;
+        long duration = timeline.getDurationNanos();
+        long elapsed = Math.max(0, frameTime - playback.startTime);
+
+        boolean done;
+        long time;
+        if (duration <= 0) {
+            done = true;
+            time = 0;
+        } else {
+            long iteration = elapsed / duration;
+            int repeatCount = timeline.getRepeatCount();
+            done = repeatCount != AnimationTimeline.INFINITE && iteration >= repeatCount;
+            if (done) {
+                iteration = repeatCount - 1;
+                time = duration;
+            } else {
+                time = elapsed - iteration * duration;
+            }
+            if (timeline.isYoyo() && (iteration & 1) == 1) {
+                time = duration - time;
+            }
+        }
+
+        // Tracks are sorted by start, a later track of the same property overrides an earlier one
+        for (int track = 0; track < timeline.getTrackCount(); track++) {
+            int slot = getSlot(playback.elementHandles[track], playback.propertyHandles[track]);
+            if (slot < 0 || playbacks[slot] != playback) {
+                continue; // Taken over or cancelled
+            }
+            if (done) {
+                finished[slot] = true;
+            } else if (!scheduledTracks[slot]) {
+                continue; // Throttled or over budget, picked up again at the right time on a later sample
+            }
+
+            if (!timeline.evaluate(track, time, values, slot * STRIDE, colorValues, slot) && timeline.isTrackPrimary(track)) {
+                timeline.writeStart(track, values, slot * STRIDE, colorValues, slot);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Checks if an element has any animation to read. When false, every property of the
+     * element is at its default value and can be skipped entirely.
+     */
+    public boolean isAnimating(int elementHandle) {
+        return elementHandle >= 0 && elementHandle < slotCountByElement.length && slotCountByElement[elementHandle] > 0;
+    }
+
+    /**
+     * Gets the value of a property as of the last {@link #sample()}, by handle.
+     * For multi-component channels, this is the first component.
+     *
+     * @param elementHandle The element handle
+     * @param propertyHandle The property handle, see {@link AnimationProperties.Handles}
      * @param defaultValue The default value if no animation is active
      * @return The current animated value
      */
-    public float getValue(String elementId, String propertyName, float defaultValue) {
-        Map<String, Animation> elementAnimations = activeAnimations.get(elementId);
-        if (elementAnimations == null) {
+    public float getValue(int elementHandle, int propertyHandle, float defaultValue) {
+        return getComponent(elementHandle, propertyHandle, 0, defaultValue);
+    }
+
+    /**
+     * Gets one component of a vector or transform channel as of the last {@link #sample()}.
+     *
+     * @param component Index of the component, below {@link ChannelType#getComponents()}
+     */
+    public float getComponent(int elementHandle, int propertyHandle, int component, float defaultValue) {
+        int slot = getSlot(elementHandle, propertyHandle);
+        if (slot < 0 || isCancelled(slot)) {
             return defaultValue;
         }
+        return values[slot * STRIDE + component];
+    }
 
-        Animation animation = elementAnimations.get(propertyName);
-        if (animation == null) {
-            return defaultValue;
+    /**
+     * Gets the packed ARGB value of a color channel as of the last {@link #sample()}.
+     */
+    public int getColor(int elementHandle, int propertyHandle, int defaultColor) {
+        int slot = getSlot(elementHandle, propertyHandle);
+        if (slot < 0 || isCancelled(slot)) {
+            return defaultColor;
         }
+        return colorValues[slot];
+    }
 
-        Float value = animation.update();
-        if (value == null || animation.isCompleted() || animation.isCancelled()) {
-            elementAnimations.remove(propertyName);
-            if (elementAnimations.isEmpty()) {
-                activeAnimations.remove(elementId);
+    /**
+     * Reads every animated property of an element into a transform, in one pass over its slots.
+     * Properties without an animation keep their default value.
+     *
+     * @param out Transform to fill, reset first
+     */
+    public void readTransform(int elementHandle, ElementTransform out) {
+        out.reset();
+        if (!isAnimating(elementHandle)) {
+            return;
+        }
+
+        int[] slots = slotsByElement[elementHandle];
+        for (int property = 0; property < slots.length; property++) {
+            int slot = slots[property];
+            if (slot >= 0 && !isCancelled(slot)) {
+                out.apply(property, values, slot * STRIDE, colorValues[slot]);
             }
-            return animation.isCompleted() ? animation.getEndValue() : defaultValue;
         }
+    }
 
-        return value;
+    /**
+     * Gets the current animated value for a property.
+     *
+     * @param elementId The element ID
+     * @param propertyName The property name
+     * @param defaultValue The default value if no animation is active
+     * @return The current animated value
+     */
+    public float getValue(String elementId, String propertyName, float defaultValue) {
+        return getValue(elementHandles.getInt(elementId), AnimationProperties.findHandle(propertyName), defaultValue);
     }
 
     /**
      * Checks if an element has an active animation for a property.
      */
     public boolean hasAnimation(String elementId, String propertyName) {
-        Map<String, Animation> elementAnimations = activeAnimations.get(elementId);
-        if (elementAnimations == null) {
-            return false;
+        int slot = getSlot(elementHandles.getInt(elementId), AnimationProperties.findHandle(propertyName));
+        return slot >= 0 && !finished[slot] && !isCancelled(slot);
+    }
+
+    /**
+     * Checks if every animation of an element only moves, scales, rotates or fades it,
+     * see {@link ElementTransform#appliesToCachedGeometry(int)}.
+     */
+    public boolean isTransformOnly(String elementId) {
+        return isTransformOnly(elementHandles.getInt(elementId));
+    }
+
+    /**
+     * Checks if every animation of an element only moves, scales, rotates or fades it, by handle.
+     */
+    public boolean isTransformOnly(int elementHandle) {
+        if (!isAnimating(elementHandle)) {
+            return true;
         }
 
-        Animation animation = elementAnimations.get(propertyName);
-        return animation != null && !animation.isCompleted() && !animation.isCancelled();
+        int[] slots = slotsByElement[elementHandle];
+        for (int property = 0; property < slots.length; property++) {
+            int slot = slots[property];
+            if (slot >= 0 && !isCancelled(slot) && !ElementTransform.appliesToCachedGeometry(property)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if an element has any animation registered, including ones that
+     * completed but were not read yet.
+     */
+    public boolean hasAnimations(String elementId) {
+        return isAnimating(elementHandles.getInt(elementId));
     }
 
     /**
      * Cancels all animations for an element.
      */
     public void cancelAll(String elementId) {
-        Map<String, Animation> elementAnimations = activeAnimations.remove(elementId);
-        if (elementAnimations != null) {
-            elementAnimations.values().forEach(Animation::cancel);
+        finishSample();
+        int elementHandle = elementHandles.getInt(elementId);
+        if (!isAnimating(elementHandle)) {
+            return;
+        }
+
+        int[] slots = slotsByElement[elementHandle];
+        for (int property = 0; property < slots.length; property++) {
+            int slot = slots[property];
+            if (slot >= 0) {
+                cancelSlot(slot);
+            }
         }
     }
 
@@ -92,50 +794,202 @@ public class AnimationManager {
      * Cancels a specific animation.
      */
     public void cancel(String elementId, String propertyName) {
-        Map<String, Animation> elementAnimations = activeAnimations.get(elementId);
-        if (elementAnimations != null) {
-            Animation animation = elementAnimations.remove(propertyName);
-            if (animation != null) {
-                animation.cancel();
-            }
-            if (elementAnimations.isEmpty()) {
-                activeAnimations.remove(elementId);
-            }
+        int slot = getSlot(elementHandles.getInt(elementId), AnimationProperties.findHandle(propertyName));
+        if (slot >= 0) {
+            cancelSlot(slot);
         }
     }
 
     /**
-     * Updates all animations and removes completed ones.
+     * Advances the clock by one client tick.
+     * Animations are only evaluated, and completed ones removed, by the sample of each frame.
      */
     public void tick() {
-        activeAnimations.forEach((elementId, animations) -> {
-            animations.values().removeIf(animation -> {
-                animation.update();
-                return animation.isCompleted() || animation.isCancelled();
-            });
-        });
-
-        // Remove empty element entries
-        activeAnimations.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+        clock.tick();
     }
 
     /**
      * Clears all animations.
      */
     public void clear() {
-        activeAnimations.values().forEach(animations ->
-            animations.values().forEach(Animation::cancel)
-        );
-        activeAnimations.clear();
+        finishSample();
+        for (int i = slotCount - 1; i >= 0; i--) {
+            cancelSlot(i);
+        }
+        activePlaybacks.forEach(TimelinePlayback::cancel);
+        activePlaybacks.clear();
     }
 
     /**
      * Gets the number of active animations.
      */
     public int getActiveAnimationCount() {
-        return activeAnimations.values().stream()
-            .mapToInt(Map::size)
-            .sum();
+        return slotCount;
     }
-}
 
+    /**
+     * Gets the number of timelines being played.
+     */
+    public int getActiveTimelineCount() {
+        return activePlaybacks.size();
+    }
+
+    private boolean isCancelled(int slot) {
+        Animation animation = animations[slot];
+        return animation != null ? animation.isCancelled() : playbacks[slot].isCancelled();
+    }
+
+    /**
+     * Removes a slot and cancels its animation. A timeline track only loses this property,
+     * the rest of its playback keeps running.
+     */
+    private void cancelSlot(int slot) {
+        finishSample();
+        Animation animation = removeSlot(slot);
+        if (animation != null) {
+            animation.cancel();
+        }
+    }
+
+    private int getSlot(int elementHandle, int propertyHandle) {
+        if (elementHandle < 0 || propertyHandle < 0 || elementHandle >= slotsByElement.length) {
+            return -1;
+        }
+        int[] slots = slotsByElement[elementHandle];
+        if (slots == null || propertyHandle >= slots.length) {
+            return -1;
+        }
+        return slots[propertyHandle];
+    }
+
+    private int allocateSlot(int elementHandle, int propertyHandle) {
+        if (slotCount == slotElements.length) {
+            growSlots(slotCount * 2);
+        }
+
+        int[] slots = slotsByElement[elementHandle];
+        if (slots == null || propertyHandle >= slots.length) {
+            int oldLength = slots == null ? 0 : slots.length;
+            int length = Math.max(AnimationProperties.getHandleCount(), propertyHandle + 1);
+            slots = Arrays.copyOf(slots == null ? NO_SLOTS : slots, length);
+            Arrays.fill(slots, oldLength, length, -1);
+            slotsByElement[elementHandle] = slots;
+        }
+
+        int slot = slotCount++;
+        slots[propertyHandle] = slot;
+        slotCountByElement[elementHandle]++;
+        slotElements[slot] = elementHandle;
+        slotProperties[slot] = propertyHandle;
+        slotTypes[slot] = AnimationProperties.getChannelType(propertyHandle);
+        return slot;
+    }
+
+    /**
+     * Removes a slot by moving the last slot into it.
+     *
+     * @return The animation that was in the slot, null for a timeline track
+     */
+    private Animation removeSlot(int slot) {
+        Animation animation = animations[slot];
+        int element = slotElements[slot];
+        slotsByElement[element][slotProperties[slot]] = -1;
+        slotCountByElement[element]--;
+
+        int last = --slotCount;
+        if (slot != last) {
+            slotElements[slot] = slotElements[last];
+            slotProperties[slot] = slotProperties[last];
+            slotTypes[slot] = slotTypes[last];
+            System.arraycopy(startValues, last * STRIDE, startValues, slot * STRIDE, STRIDE);
+            System.arraycopy(endValues, last * STRIDE, endValues, slot * STRIDE, STRIDE);
+            System.arraycopy(values, last * STRIDE, values, slot * STRIDE, STRIDE);
+            startColors[slot] = startColors[last];
+            endColors[slot] = endColors[last];
+            colorValues[slot] = colorValues[last];
+            startTimes[slot] = startTimes[last];
+            delays[slot] = delays[last];
+            durations[slot] = durations[last];
+            easings[slot] = easings[last];
+            animations[slot] = animations[last];
+            playbacks[slot] = playbacks[last];
+            finished[slot] = finished[last];
+            completing[slot] = completing[last];
+            scheduledTracks[slot] = scheduledTracks[last];
+            slotsByElement[slotElements[slot]][slotProperties[slot]] = slot;
+        }
+
+        completing[last] = false;
+        scheduledTracks[last] = false;
+        easings[last] = null;
+        animations[last] = null;
+        playbacks[last] = null;
+        return animation;
+    }
+
+    private void growSlots(int capacity) {
+        slotElements = Arrays.copyOf(slotElements, capacity);
+        slotProperties = Arrays.copyOf(slotProperties, capacity);
+        slotTypes = Arrays.copyOf(slotTypes, capacity);
+        startValues = Arrays.copyOf(startValues, capacity * STRIDE);
+        endValues = Arrays.copyOf(endValues, capacity * STRIDE);
+        startColors = Arrays.copyOf(startColors, capacity);
+        endColors = Arrays.copyOf(endColors, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        delays = Arrays.copyOf(delays, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        easings = Arrays.copyOf(easings, capacity);
+        animations = Arrays.copyOf(animations, capacity);
+        playbacks = Arrays.copyOf(playbacks, capacity);
+        values = Arrays.copyOf(values, capacity * STRIDE);
+        colorValues = Arrays.copyOf(colorValues, capacity);
+        finished = Arrays.copyOf(finished, capacity);
+        completing = Arrays.copyOf(completing, capacity);
+        scheduledTracks = Arrays.copyOf(scheduledTracks, capacity);
+        scheduled = Arrays.copyOf(scheduled, capacity);
+        visibleQueue = Arrays.copyOf(visibleQueue, capacity);
+        distantQueue = Arrays.copyOf(distantQueue, capacity);
+        backValues = Arrays.copyOf(backValues, capacity * STRIDE);
+        backColorValues = Arrays.copyOf(backColorValues, capacity);
+    }
+
+    private static int[] newElementGroups(int capacity) {
+        int[] groups = new int[capacity];
+        Arrays.fill(groups, -1);
+        return groups;
+    }
+
+    /**
+     * Evaluates a range of the scheduled slots on the fork-join pool, splitting it until it is small enough.
+     */
+    private static final class EvaluateTask extends RecursiveAction {
+        private final AnimationManager manager;
+        private final int from;
+        private final int to;
+        private final long frameTime;
+        private final float[] out;
+        private final int[] colorOut;
+
+        private EvaluateTask(AnimationManager manager, int from, int to, long frameTime, float[] out, int[] colorOut) {
+            this.manager = manager;
+            this.from = from;
+            this.to = to;
+            this.frameTime = frameTime;
+            this.out = out;
+            this.colorOut = colorOut;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                manager.evaluate(from, to, frameTime, out, colorOut);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new EvaluateTask(manager, from, middle, frameTime, out, colorOut),
+                new EvaluateTask(manager, middle, to, frameTime, out, colorOut)
+            );
+        }
+    }
+}
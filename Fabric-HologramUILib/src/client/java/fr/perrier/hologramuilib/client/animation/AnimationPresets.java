@@ -1,5 +1,7 @@
 package fr.perrier.hologramuilib.client.animation;
 
+import java.util.List;
+
 /**
  * Pre-built animation presets for common use cases.
  */
@@ -171,6 +173,28 @@ public class AnimationPresets {
             .build();
     }
 
+    // === COLOR ANIMATIONS ===
+
+    public static Animation colorFade(String elementId, int fromColor, int toColor, long durationMs) {
+        return Animation.builder(AnimationProperties.COLOR)
+            .fromColor(fromColor)
+            .toColor(toColor)
+            .duration(durationMs)
+            .easing(Easing::easeInOutQuad)
+            .build();
+    }
+
+    // === MOVE ANIMATIONS ===
+
+    public static Animation slide(String elementId, float fromX, float fromY, float toX, float toY, long durationMs) {
+        return Animation.builder(AnimationProperties.TRANSLATE)
+            .from(fromX, fromY)
+            .to(toX, toY)
+            .duration(durationMs)
+            .easing(Easing::easeOutCubic)
+            .build();
+    }
+
     // === ROTATION ANIMATIONS ===
 
     public static Animation rotate360(String elementId, long durationMs) {
@@ -217,6 +241,36 @@ public class AnimationPresets {
         manager.addAnimation(elementId, slideInFromLeft(elementId, distance, durationMs));
     }
 
+    // === TIMELINES (played as one entry) ===
+
+    /**
+     * Creates a pop in of several elements: scale up, fade in and slide up, one element after the other.
+     * Play it with {@link AnimationManager#play(AnimationTimeline)}.
+     *
+     * @param elementIds Elements, in the order they appear
+     * @param staggerMs Delay between two consecutive elements
+     */
+    public static AnimationTimeline popIn(List<String> elementIds, long staggerMs) {
+        return AnimationTimeline.builder()
+            .stagger(elementIds, staggerMs,
+                Animation.builder(AnimationProperties.SCALE)
+                    .from(0.8f).to(1)
+                    .duration(250)
+                    .easing(Easing::easeOutBack)
+                    .build(),
+                Animation.builder(AnimationProperties.OPACITY)
+                    .from(0).to(1)
+                    .duration(200)
+                    .easing(Easing::easeOutQuad)
+                    .build(),
+                Animation.builder(AnimationProperties.TRANSLATE_Y)
+                    .from(6).to(0)
+                    .duration(250)
+                    .easing(Easing::easeOutQuad)
+                    .build())
+            .build();
+    }
+
     private AnimationPresets() {
         // Utility class
     }
@@ -1,10 +1,26 @@
 package fr.perrier.hologramuilib.client.animation;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.Arrays;
+
 /**
  * Pre-defined animation properties that can be animated on menu elements.
+ *
+ * Property names are interned into small integer handles (see {@link #handle(String)}),
+ * which the {@link AnimationManager} uses to index its arrays without string hashing.
+ * Each property has a {@link ChannelType}, scalar unless registered with {@link #channel(String, ChannelType)}.
  */
 public class AnimationProperties {
 
+    private static final Object2IntOpenHashMap<String> HANDLES = new Object2IntOpenHashMap<>();
+    // Property handle -> channel type
+    private static ChannelType[] channels = new ChannelType[32];
+
+    static {
+        HANDLES.defaultReturnValue(-1);
+    }
+
     // Visual properties
     public static final String OPACITY = "opacity";
     public static final String SCALE = "scale";
@@ -23,6 +39,12 @@ public class AnimationProperties {
     public static final String COLOR_BLUE = "colorB";
     public static final String COLOR_ALPHA = "colorA";
 
+    // Typed channels, evaluated once for all their components
+    public static final String COLOR = "color"; // Packed ARGB, replaces the element color
+    public static final String TRANSLATE = "translate"; // X, Y, Z
+    public static final String SCALE_XY = "scaleXY"; // X, Y
+    public static final String TRANSFORM = "transform"; // See ChannelType.TRANSFORM
+
     // Hover effects
     public static final String HOVER_SCALE = "hoverScale";
     public static final String HOVER_GLOW = "hoverGlow";
@@ -31,8 +53,103 @@ public class AnimationProperties {
     public static final String PROGRESS = "progress"; // For progress bars
     public static final String SLIDER_VALUE = "sliderValue"; // For sliders
 
+    static {
+        channel(COLOR, ChannelType.COLOR);
+        channel(TRANSLATE, ChannelType.VEC3);
+        channel(SCALE_XY, ChannelType.VEC2);
+        channel(TRANSFORM, ChannelType.TRANSFORM);
+    }
+
     private AnimationProperties() {
         // Utility class
     }
+
+    /**
+     * Gets the handle of a property, registering it as a scalar on first use.
+     * Handles are dense, starting at 0, and never change for the lifetime of the game.
+     */
+    public static synchronized int handle(String property) {
+        int handle = HANDLES.getInt(property);
+        if (handle < 0) {
+            handle = register(property, ChannelType.SCALAR);
+        }
+        return handle;
+    }
+
+    /**
+     * Registers a property with a channel type other than scalar.
+     * Must be called before the property is first used.
+     *
+     * @return The handle of the property
+     * @throws IllegalStateException If the property is already registered with another type
+     */
+    public static synchronized int channel(String property, ChannelType type) {
+        int handle = HANDLES.getInt(property);
+        if (handle < 0) {
+            return register(property, type);
+        }
+        if (channels[handle] != type) {
+            throw new IllegalStateException("Property " + property + " is already a " + channels[handle] + " channel");
+        }
+        return handle;
+    }
+
+    /**
+     * Gets the channel type of a property, by handle.
+     */
+    public static synchronized ChannelType getChannelType(int handle) {
+        return channels[handle];
+    }
+
+    private static int register(String property, ChannelType type) {
+        int handle = HANDLES.size();
+        HANDLES.put(property, handle);
+        if (handle == channels.length) {
+            channels = Arrays.copyOf(channels, handle * 2);
+        }
+        channels[handle] = type;
+        return handle;
+    }
+
+    /**
+     * Gets the handle of a property without registering it.
+     *
+     * @return The handle, or -1 if the property was never used
+     */
+    public static synchronized int findHandle(String property) {
+        return HANDLES.getInt(property);
+    }
+
+    /**
+     * Gets the number of registered properties.
+     */
+    public static synchronized int getHandleCount() {
+        return HANDLES.size();
+    }
+
+    /**
+     * Handles of the pre-defined properties, for per-frame lookups.
+     */
+    public static final class Handles {
+        public static final int OPACITY = handle(AnimationProperties.OPACITY);
+        public static final int SCALE = handle(AnimationProperties.SCALE);
+        public static final int SCALE_X = handle(AnimationProperties.SCALE_X);
+        public static final int SCALE_Y = handle(AnimationProperties.SCALE_Y);
+        public static final int ROTATION = handle(AnimationProperties.ROTATION);
+        public static final int TRANSLATE_X = handle(AnimationProperties.TRANSLATE_X);
+        public static final int TRANSLATE_Y = handle(AnimationProperties.TRANSLATE_Y);
+        public static final int TRANSLATE_Z = handle(AnimationProperties.TRANSLATE_Z);
+        public static final int COLOR_ALPHA = handle(AnimationProperties.COLOR_ALPHA);
+        public static final int HOVER_SCALE = handle(AnimationProperties.HOVER_SCALE);
+        public static final int PROGRESS = handle(AnimationProperties.PROGRESS);
+        public static final int SLIDER_VALUE = handle(AnimationProperties.SLIDER_VALUE);
+        public static final int COLOR = handle(AnimationProperties.COLOR);
+        public static final int TRANSLATE = handle(AnimationProperties.TRANSLATE);
+        public static final int SCALE_XY = handle(AnimationProperties.SCALE_XY);
+        public static final int TRANSFORM = handle(AnimationProperties.TRANSFORM);
+
+        private Handles() {
+        }
+    }
 }
 
@@ -0,0 +1,24 @@
+package fr.perrier.hologramuilib.client.animation;
+
+/**
+ * How often the animations of a group of elements (usually a menu) are evaluated.
+ * See {@link AnimationManager#setGroupTier(int, AnimationTier)}.
+ */
+public enum AnimationTier {
+    /**
+     * Looked at by the player, evaluated every frame and never throttled by the frame budget.
+     */
+    HOVERED,
+    /**
+     * On screen, evaluated every frame within the frame budget.
+     */
+    VISIBLE,
+    /**
+     * Far away, evaluated every few frames within what the visible ones left of the budget.
+     */
+    DISTANT,
+    /**
+     * Culled or hidden, not evaluated. Animations still complete on time.
+     */
+    HIDDEN
+}
@@ -0,0 +1,272 @@
+package fr.perrier.hologramuilib.client.animation;
+
+import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
+import fr.perrier.hologramuilib.util.ColorHelper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A group of animations on one or more elements, played as a single unit.
+ *
+ * Each {@link Animation} added becomes a track, with its start offset on the timeline.
+ * Tracks added at the same point run in parallel, {@link Builder#then()} starts a sequence,
+ * {@link Builder#stagger} offsets the same tracks across several elements. The whole
+ * timeline can repeat and play back and forth.
+ *
+ * A timeline is immutable and can be played any number of times with
+ * {@link AnimationManager#play(AnimationTimeline)}, which schedules it as one entry
+ * and evaluates all its tracks in one pass.
+ */
+public class AnimationTimeline {
+
+    /**
+     * Repeat count that never ends.
+     */
+    public static final int INFINITE = -1;
+
+    // Tracks, sorted by start offset
+    private final String[] trackElements;
+    private final int[] trackProperties;
+    private final ChannelType[] trackTypes;
+    private final float[][] trackFrom;
+    private final float[][] trackTo;
+    private final int[] trackFromColor;
+    private final int[] trackToColor;
+    private final long[] trackStarts;
+    private final long[] trackDurations;
+    private final EasingFunction[] trackEasings;
+    // First track of its element and property, holds the value before any track started
+    private final boolean[] trackPrimary;
+
+    private final long durationNanos;
+    private final int repeatCount;
+    private final boolean yoyo;
+    private final Runnable onComplete;
+
+    private AnimationTimeline(Builder builder) {
+        List<Track> tracks = new ArrayList<>(builder.tracks);
+        tracks.sort(Comparator.comparingLong(track -> track.startMs));
+
+        int count = tracks.size();
+        this.trackElements = new String[count];
+        this.trackProperties = new int[count];
+        this.trackTypes = new ChannelType[count];
+        this.trackFrom = new float[count][];
+        this.trackTo = new float[count][];
+        this.trackFromColor = new int[count];
+        this.trackToColor = new int[count];
+        this.trackStarts = new long[count];
+        this.trackDurations = new long[count];
+        this.trackEasings = new EasingFunction[count];
+        this.trackPrimary = new boolean[count];
+
+        Set<String> seen = new HashSet<>();
+        long end = 0;
+        for (int i = 0; i < count; i++) {
+            Track track = tracks.get(i);
+            trackElements[i] = track.elementId;
+            trackProperties[i] = AnimationProperties.handle(track.animation.getPropertyName());
+            trackTypes[i] = track.animation.getChannelType();
+            trackFrom[i] = track.animation.getStartValues();
+            trackTo[i] = track.animation.getEndValues();
+            trackFromColor[i] = track.animation.getStartColor();
+            trackToColor[i] = track.animation.getEndColor();
+            trackStarts[i] = track.startMs * FrameClock.NANOS_PER_MILLI;
+            trackDurations[i] = track.animation.getDurationMs() * FrameClock.NANOS_PER_MILLI;
+            trackEasings[i] = track.animation.getEasingFunction();
+            trackPrimary[i] = seen.add(track.elementId + '\0' + track.animation.getPropertyName());
+            end = Math.max(end, trackStarts[i] + trackDurations[i]);
+        }
+
+        // A trailing delay keeps the timeline running after its last track
+        this.durationNanos = Math.max(end, builder.endMs * FrameClock.NANOS_PER_MILLI);
+        this.repeatCount = builder.repeatCount;
+        this.yoyo = builder.yoyo;
+        this.onComplete = builder.onComplete;
+    }
+
+    public int getTrackCount() {
+        return trackElements.length;
+    }
+
+    String getTrackElement(int track) {
+        return trackElements[track];
+    }
+
+    int getTrackProperty(int track) {
+        return trackProperties[track];
+    }
+
+    boolean isTrackPrimary(int track) {
+        return trackPrimary[track];
+    }
+
+    /**
+     * Writes the start value of a track into a slot of the manager.
+     *
+     * @param out Float values, the slot starts at {@code offset}
+     * @param colors Color values, indexed by {@code slot}
+     */
+    void writeStart(int track, float[] out, int offset, int[] colors, int slot) {
+        if (trackTypes[track] == ChannelType.COLOR) {
+            colors[slot] = trackFromColor[track];
+        } else {
+            trackTypes[track].copy(trackFrom[track], 0, out, offset);
+        }
+    }
+
+    /**
+     * Evaluates a track at a time of the timeline and writes its value into a slot of the manager.
+     *
+     * @param time Time since the start of the current iteration, in nanoseconds
+     * @return false if the track has not started yet, nothing is written then
+     */
+    boolean evaluate(int track, long time, float[] out, int offset, int[] colors, int slot) {
+        long elapsed = time - trackStarts[track];
+        if (elapsed < 0) {
+            return false;
+        }
+
+        ChannelType type = trackTypes[track];
+        if (elapsed >= trackDurations[track]) {
+            if (type == ChannelType.COLOR) {
+                colors[slot] = trackToColor[track];
+            } else {
+                type.copy(trackTo[track], 0, out, offset);
+            }
+            return true;
+        }
+
+        float eased = trackEasings[track].apply((float) elapsed / trackDurations[track]);
+        if (type == ChannelType.COLOR) {
+            colors[slot] = ColorHelper.lerp(trackFromColor[track], trackToColor[track], eased);
+        } else {
+            type.interpolate(trackFrom[track], 0, trackTo[track], 0, eased, out, offset);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the length of one iteration, in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getRepeatCount() {
+        return repeatCount;
+    }
+
+    public boolean isYoyo() {
+        return yoyo;
+    }
+
+    Runnable getOnComplete() {
+        return onComplete;
+    }
+
+    /**
+     * Creates a new timeline builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private record Track(String elementId, Animation animation, long startMs) {
+    }
+
+    /**
+     * Builder for creating timelines.
+     * The builder keeps a cursor: tracks are added at the cursor, {@link #then()} moves it to the end.
+     */
+    public static class Builder {
+        private final List<Track> tracks = new ArrayList<>();
+        private long cursorMs = 0;
+        private long endMs = 0;
+        private int repeatCount = 1;
+        private boolean yoyo = false;
+        private Runnable onComplete;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds animations on an element, in parallel, starting at the cursor plus their own delay.
+         * Completion callbacks of the animations are not run, use {@link #onComplete(Runnable)}.
+         */
+        public Builder add(String elementId, Animation... animations) {
+            return addAt(elementId, cursorMs, animations);
+        }
+
+        /**
+         * Adds the same animations on several elements, each one starting a bit after the previous.
+         *
+         * @param elementIds Elements, in the order they start
+         * @param staggerMs Delay between two consecutive elements
+         */
+        public Builder stagger(List<String> elementIds, long staggerMs, Animation... animations) {
+            for (int i = 0; i < elementIds.size(); i++) {
+                addAt(elementIds.get(i), cursorMs + i * staggerMs, animations);
+            }
+            return this;
+        }
+
+        /**
+         * Moves the cursor to the end of everything added so far, what follows plays after it.
+         */
+        public Builder then() {
+            cursorMs = endMs;
+            return this;
+        }
+
+        /**
+         * Moves the cursor forward, leaving a gap before what follows.
+         */
+        public Builder delay(long milliseconds) {
+            cursorMs += milliseconds;
+            endMs = Math.max(endMs, cursorMs);
+            return this;
+        }
+
+        /**
+         * Sets how many times the timeline plays, {@link #INFINITE} to loop until cancelled.
+         */
+        public Builder repeat(int times) {
+            if (times < 1 && times != INFINITE) {
+                throw new IllegalArgumentException("Repeat count must be at least 1");
+            }
+            this.repeatCount = times;
+            return this;
+        }
+
+        /**
+         * Plays every other iteration backwards.
+         */
+        public Builder yoyo(boolean yoyo) {
+            this.yoyo = yoyo;
+            return this;
+        }
+
+        public Builder onComplete(Runnable callback) {
+            this.onComplete = callback;
+            return this;
+        }
+
+        public AnimationTimeline build() {
+            return new AnimationTimeline(this);
+        }
+
+        private Builder addAt(String elementId, long startMs, Animation... animations) {
+            for (Animation animation : animations) {
+                long trackStart = startMs + animation.getDelayMs();
+                tracks.add(new Track(elementId, animation, trackStart));
+                endMs = Math.max(endMs, trackStart + animation.getDurationMs());
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fr.perrier.hologramuilib.client.animation;
+
+/**
+ * Type of the value an animated property holds.
+ *
+ * Every slot of the {@link AnimationManager} has room for {@link #MAX_COMPONENTS} floats,
+ * a channel uses as many as it has components. Colors are packed ARGB integers instead,
+ * interpolated per component with {@link fr.perrier.hologramuilib.util.ColorHelper#lerp}.
+ */
+public enum ChannelType {
+    SCALAR(0),
+    VEC2(0, 0),
+    VEC3(0, 0, 0),
+    /**
+     * Translate X, Y, Z, scale X, Y and rotation in degrees.
+     */
+    TRANSFORM(0, 0, 0, 1, 1, 0),
+    COLOR();
+
+    public static final int MAX_COMPONENTS = 6;
+
+    private final float[] defaults;
+
+    ChannelType(float... defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * Gets the number of float components, 0 for colors.
+     */
+    public int getComponents() {
+        return defaults.length;
+    }
+
+    /**
+     * Gets a copy of the identity value of each component.
+     */
+    public float[] getDefaults() {
+        return defaults.clone();
+    }
+
+    /**
+     * Interpolates every component between two values.
+     */
+    void interpolate(float[] from, int fromOffset, float[] to, int toOffset, float t, float[] out, int outOffset) {
+        for (int c = 0; c < defaults.length; c++) {
+            float start = from[fromOffset + c];
+            out[outOffset + c] = start + (to[toOffset + c] - start) * t;
+        }
+    }
+
+    /**
+     * Copies every component of a value.
+     */
+    void copy(float[] from, int fromOffset, float[] out, int outOffset) {
+        System.arraycopy(from, fromOffset, out, outOffset, defaults.length);
+    }
+}
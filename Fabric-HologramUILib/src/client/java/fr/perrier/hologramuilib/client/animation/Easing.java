@@ -1,11 +1,56 @@
 package fr.perrier.hologramuilib.client.animation;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Easing functions for smooth animations.
  * Based on standard easing equations.
  */
 public class Easing {
 
+    private static final EasingFunction LINEAR = Easing::linear;
+    private static final Map<String, EasingFunction> NAMED = new LinkedHashMap<>();
+
+    // Animations sample the eased curve through an EasingTable, see Animation.Builder#build()
+    private static volatile boolean useLookupTables = true;
+
+    static {
+        NAMED.put("linear", LINEAR);
+        NAMED.put("easeinquad", Easing::easeInQuad);
+        NAMED.put("easeincubic", Easing::easeInCubic);
+        NAMED.put("easeinquart", Easing::easeInQuart);
+        NAMED.put("easeinquint", Easing::easeInQuint);
+        NAMED.put("easeinsine", Easing::easeInSine);
+        NAMED.put("easeinexpo", Easing::easeInExpo);
+        NAMED.put("easeincirc", Easing::easeInCirc);
+        NAMED.put("easeoutquad", Easing::easeOutQuad);
+        NAMED.put("easeoutcubic", Easing::easeOutCubic);
+        NAMED.put("easeoutquart", Easing::easeOutQuart);
+        NAMED.put("easeoutquint", Easing::easeOutQuint);
+        NAMED.put("easeoutsine", Easing::easeOutSine);
+        NAMED.put("easeoutexpo", Easing::easeOutExpo);
+        NAMED.put("easeoutcirc", Easing::easeOutCirc);
+        NAMED.put("easeinoutquad", Easing::easeInOutQuad);
+        NAMED.put("easeinoutcubic", Easing::easeInOutCubic);
+        NAMED.put("easeinoutquart", Easing::easeInOutQuart);
+        NAMED.put("easeinoutquint", Easing::easeInOutQuint);
+        NAMED.put("easeinoutsine", Easing::easeInOutSine);
+        NAMED.put("easeinoutexpo", Easing::easeInOutExpo);
+        NAMED.put("easeinoutcirc", Easing::easeInOutCirc);
+        NAMED.put("easeinback", Easing::easeInBack);
+        NAMED.put("easeoutback", Easing::easeOutBack);
+        NAMED.put("easeinoutback", Easing::easeInOutBack);
+        NAMED.put("easeinelastic", Easing::easeInElastic);
+        NAMED.put("easeoutelastic", Easing::easeOutElastic);
+        NAMED.put("easeinoutelastic", Easing::easeInOutElastic);
+        NAMED.put("easeinbounce", Easing::easeInBounce);
+        NAMED.put("easeoutbounce", Easing::easeOutBounce);
+        NAMED.put("easeinoutbounce", Easing::easeInOutBounce);
+    }
+
     /**
      * Linear interpolation (no easing).
      */
@@ -193,42 +238,37 @@ public class Easing {
 
     /**
      * Gets an easing function by name.
+     * Names are resolved once from a table, so call this when building the animation,
+     * not per sample. Returns the lookup table version when {@link #isUsingLookupTables()}.
      */
     public static EasingFunction getEasingFunction(String name) {
-        return switch (name.toLowerCase()) {
-            case "linear" -> Easing::linear;
-            case "easeinquad" -> Easing::easeInQuad;
-            case "easeincubic" -> Easing::easeInCubic;
-            case "easeinquart" -> Easing::easeInQuart;
-            case "easeinquint" -> Easing::easeInQuint;
-            case "easeinsine" -> Easing::easeInSine;
-            case "easeinexpo" -> Easing::easeInExpo;
-            case "easeincirc" -> Easing::easeInCirc;
-            case "easeoutquad" -> Easing::easeOutQuad;
-            case "easeoutcubic" -> Easing::easeOutCubic;
-            case "easeoutquart" -> Easing::easeOutQuart;
-            case "easeoutquint" -> Easing::easeOutQuint;
-            case "easeoutsine" -> Easing::easeOutSine;
-            case "easeoutexpo" -> Easing::easeOutExpo;
-            case "easeoutcirc" -> Easing::easeOutCirc;
-            case "easeinoutquad" -> Easing::easeInOutQuad;
-            case "easeinoutcubic" -> Easing::easeInOutCubic;
-            case "easeinoutquart" -> Easing::easeInOutQuart;
-            case "easeinoutquint" -> Easing::easeInOutQuint;
-            case "easeinoutsine" -> Easing::easeInOutSine;
-            case "easeinoutexpo" -> Easing::easeInOutExpo;
-            case "easeinoutcirc" -> Easing::easeInOutCirc;
-            case "easeinback" -> Easing::easeInBack;
-            case "easeoutback" -> Easing::easeOutBack;
-            case "easeinoutback" -> Easing::easeInOutBack;
-            case "easeinelastic" -> Easing::easeInElastic;
-            case "easeoutelastic" -> Easing::easeOutElastic;
-            case "easeinoutelastic" -> Easing::easeInOutElastic;
-            case "easeinbounce" -> Easing::easeInBounce;
-            case "easeoutbounce" -> Easing::easeOutBounce;
-            case "easeinoutbounce" -> Easing::easeInOutBounce;
-            default -> Easing::linear;
-        };
+        EasingFunction function = getAnalyticFunction(name);
+        return useLookupTables ? EasingTable.of(function) : function;
+    }
+
+    /**
+     * Gets the exact version of an easing function by name, linear if the name is unknown.
+     */
+    public static EasingFunction getAnalyticFunction(String name) {
+        return NAMED.getOrDefault(name.toLowerCase(), LINEAR);
+    }
+
+    /**
+     * Gets the names of every easing function, lowercase.
+     */
+    public static Set<String> getNames() {
+        return Collections.unmodifiableSet(NAMED.keySet());
+    }
+
+    public static boolean isUsingLookupTables() {
+        return useLookupTables;
+    }
+
+    /**
+     * Enables or disables lookup table easing for animations built from now on.
+     */
+    public static void setUseLookupTables(boolean useLookupTables) {
+        Easing.useLookupTables = useLookupTables;
     }
 
     @FunctionalInterface
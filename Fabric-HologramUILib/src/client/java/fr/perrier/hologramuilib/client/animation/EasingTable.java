@@ -0,0 +1,105 @@
+package fr.perrier.hologramuilib.client.animation;
+
+import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Easing function sampled into a lookup table, evaluated with linear interpolation.
+ *
+ * Trades the {@code Math.pow}/{@code Math.sin} calls of the elastic, bounce, back and expo
+ * easings for two array reads. With {@value #SEGMENTS} segments most curves stay far under
+ * {@link #MAX_ERROR}. Curves with a vertical tangent, like the circ easings at their steep
+ * end, do not, and {@link #of} keeps them analytic.
+ */
+public final class EasingTable implements EasingFunction {
+
+    public static final int SEGMENTS = 1024;
+
+    /**
+     * Largest error of a shared table, in eased units (the curve goes from 0 to 1).
+     */
+    public static final float MAX_ERROR = 0.005f;
+
+    // Probes between and on the samples, enough to find the error in the middle of each segment
+    private static final int ERROR_PROBES = 4 * SEGMENTS + 1;
+
+    // Tables are shared per function instance, capped so capturing lambdas cannot grow it forever
+    private static final int MAX_CACHED_TABLES = 64;
+    private static final Map<EasingFunction, EasingFunction> CACHE = new IdentityHashMap<>();
+
+    private final EasingFunction source;
+    private final float[] samples = new float[SEGMENTS + 1];
+
+    /**
+     * Samples a function over [0, 1].
+     */
+    public EasingTable(EasingFunction source) {
+        this.source = source;
+        for (int i = 0; i <= SEGMENTS; i++) {
+            samples[i] = source.apply((float) i / SEGMENTS);
+        }
+    }
+
+    /**
+     * Gets the shared table of a function, building it on first use.
+     *
+     * @return The table, or the function itself if it already is a table, if its table would
+     *         be off by more than {@link #MAX_ERROR} or if the cache is full
+     */
+    public static EasingFunction of(EasingFunction function) {
+        if (function instanceof EasingTable) {
+            return function;
+        }
+
+        synchronized (CACHE) {
+            EasingFunction table = CACHE.get(function);
+            if (table == null) {
+                if (CACHE.size() >= MAX_CACHED_TABLES) {
+                    return function;
+                }
+                EasingTable sampled = new EasingTable(function);
+                table = sampled.getMaxError(ERROR_PROBES) <= MAX_ERROR ? sampled : function;
+                CACHE.put(function, table);
+            }
+            return table;
+        }
+    }
+
+    @Override
+    public float apply(float t) {
+        if (t <= 0) {
+            return samples[0];
+        }
+        if (t >= 1) {
+            return samples[SEGMENTS];
+        }
+
+        float position = t * SEGMENTS;
+        int index = (int) position;
+        float start = samples[index];
+        return start + (samples[index + 1] - start) * (position - index);
+    }
+
+    /**
+     * Gets the analytic function this table was sampled from.
+     */
+    public EasingFunction getSource() {
+        return source;
+    }
+
+    /**
+     * Measures the largest difference with the analytic function.
+     *
+     * @param probes Number of evenly spaced points to compare, including both ends
+     */
+    public float getMaxError(int probes) {
+        float maxError = 0;
+        for (int i = 0; i < probes; i++) {
+            float t = (float) i / (probes - 1);
+            maxError = Math.max(maxError, Math.abs(apply(t) - source.apply(t)));
+        }
+        return maxError;
+    }
+}
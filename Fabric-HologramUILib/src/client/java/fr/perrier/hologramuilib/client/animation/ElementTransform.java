@@ -0,0 +1,188 @@
+package fr.perrier.hologramuilib.client.animation;
+
+import fr.perrier.hologramuilib.client.animation.AnimationProperties.Handles;
+import org.joml.Matrix4f;
+
+/**
+ * Animated visual state of an element for one frame, filled by
+ * {@link AnimationManager#readTransform(int, ElementTransform)}.
+ *
+ * Channels that drive the same field are combined: translations and rotations add up,
+ * the transform scale multiplies the per-axis scale, and per-axis scales override the
+ * uniform one. Without any animation every field is at its identity value.
+ *
+ * Mutable so each element can reuse one instance every frame.
+ */
+public class ElementTransform {
+
+    private float translateX;
+    private float translateY;
+    private float translateZ;
+    private float scale;
+    private float axisScaleX;
+    private float axisScaleY;
+    private float transformScaleX;
+    private float transformScaleY;
+    private float hoverScale;
+    private float rotation;
+    private float opacity;
+    private float colorAlpha;
+    private int color;
+    private boolean hasColor;
+
+    public ElementTransform() {
+        reset();
+    }
+
+    /**
+     * Puts every field back to its identity value.
+     */
+    public void reset() {
+        translateX = 0;
+        translateY = 0;
+        translateZ = 0;
+        scale = 1.0f;
+        axisScaleX = Float.NaN;
+        axisScaleY = Float.NaN;
+        transformScaleX = 1.0f;
+        transformScaleY = 1.0f;
+        hoverScale = 1.0f;
+        rotation = 0;
+        opacity = 1.0f;
+        colorAlpha = 1.0f;
+        color = 0xFFFFFFFF;
+        hasColor = false;
+    }
+
+    /**
+     * Checks if a property only moves, scales, rotates or fades the element as a whole.
+     * Such animations can be applied on top of cached geometry, at draw time.
+     */
+    public static boolean appliesToCachedGeometry(int property) {
+        return property == Handles.TRANSLATE_X || property == Handles.TRANSLATE_Y || property == Handles.TRANSLATE_Z
+            || property == Handles.SCALE || property == Handles.SCALE_X || property == Handles.SCALE_Y
+            || property == Handles.HOVER_SCALE || property == Handles.ROTATION
+            || property == Handles.OPACITY || property == Handles.COLOR_ALPHA
+            || property == Handles.TRANSLATE || property == Handles.SCALE_XY || property == Handles.TRANSFORM;
+    }
+
+    /**
+     * Applies the sampled value of one property.
+     *
+     * @param property The property handle
+     * @param values Sampled float values, the property starts at {@code offset}
+     * @param color Sampled color, for color channels
+     */
+    void apply(int property, float[] values, int offset, int color) {
+        float value = values[offset];
+        if (property == Handles.TRANSLATE_X) {
+            translateX += value;
+        } else if (property == Handles.TRANSLATE_Y) {
+            translateY += value;
+        } else if (property == Handles.TRANSLATE_Z) {
+            translateZ += value;
+        } else if (property == Handles.SCALE) {
+            scale = value;
+        } else if (property == Handles.SCALE_X) {
+            axisScaleX = value;
+        } else if (property == Handles.SCALE_Y) {
+            axisScaleY = value;
+        } else if (property == Handles.HOVER_SCALE) {
+            hoverScale = value;
+        } else if (property == Handles.ROTATION) {
+            rotation += value;
+        } else if (property == Handles.OPACITY) {
+            opacity = value;
+        } else if (property == Handles.COLOR_ALPHA) {
+            colorAlpha = value;
+        } else if (property == Handles.COLOR) {
+            this.color = color;
+            this.hasColor = true;
+        } else if (property == Handles.TRANSLATE) {
+            translateX += value;
+            translateY += values[offset + 1];
+            translateZ += values[offset + 2];
+        } else if (property == Handles.SCALE_XY) {
+            axisScaleX = value;
+            axisScaleY = values[offset + 1];
+        } else if (property == Handles.TRANSFORM) {
+            translateX += value;
+            translateY += values[offset + 1];
+            translateZ += values[offset + 2];
+            transformScaleX = values[offset + 3];
+            transformScaleY = values[offset + 4];
+            rotation += values[offset + 5];
+        }
+        // Element-specific properties (progress, slider value...) are read on their own
+    }
+
+    public float getTranslateX() {
+        return translateX;
+    }
+
+    public float getTranslateY() {
+        return translateY;
+    }
+
+    public float getTranslateZ() {
+        return translateZ;
+    }
+
+    public float getScaleX() {
+        return (Float.isNaN(axisScaleX) ? scale : axisScaleX) * transformScaleX;
+    }
+
+    public float getScaleY() {
+        return (Float.isNaN(axisScaleY) ? scale : axisScaleY) * transformScaleY;
+    }
+
+    public float getHoverScale() {
+        return hoverScale;
+    }
+
+    /**
+     * Gets the rotation around Z, in degrees.
+     */
+    public float getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Gets the combined opacity and color alpha multiplier.
+     */
+    public float getAlpha() {
+        return opacity * colorAlpha;
+    }
+
+    /**
+     * Checks if a color channel is animated.
+     */
+    public boolean hasColor() {
+        return hasColor;
+    }
+
+    /**
+     * Builds the matrix moving an element from its rest pose to its animated pose:
+     * translation, then scale and rotation around a pivot, as elements apply them when rendering.
+     *
+     * @param out Matrix to overwrite
+     * @param pivotX Center of scale and rotation, in the space the element is rendered in
+     * @param hoverScaled If the element also scales by {@link #getHoverScale()}
+     * @return out
+     */
+    public Matrix4f toMatrix(Matrix4f out, float pivotX, float pivotY, boolean hoverScaled) {
+        float hover = hoverScaled ? hoverScale : 1.0f;
+        return out.translation(translateX, translateY, 0)
+            .translate(pivotX, pivotY, 0)
+            .scale(getScaleX() * hover, getScaleY() * hover, 1)
+            .rotateZ((float) Math.toRadians(rotation))
+            .translate(-pivotX, -pivotY, 0);
+    }
+
+    /**
+     * Gets the animated color, or the given one if no color channel is animated.
+     */
+    public int getColor(int defaultColor) {
+        return hasColor ? color : defaultColor;
+    }
+}
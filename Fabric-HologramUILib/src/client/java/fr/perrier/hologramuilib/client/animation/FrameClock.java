@@ -0,0 +1,96 @@
+package fr.perrier.hologramuilib.client.animation;
+
+/**
+ * Clock animations are sampled against, captured once per frame.
+ *
+ * Time is derived from client ticks and the partial tick of the frame being rendered, so
+ * every element of a frame sees the exact same time and the clock is only read once.
+ * The clock only moves when it is told to ({@link #tick()}, {@link #captureFrame(float)}
+ * or {@link #setTime(long)}), which makes animations deterministic and easy to drive by hand.
+ *
+ * Supports pausing and slow or fast motion through a time scale.
+ */
+public class FrameClock {
+
+    public static final long NANOS_PER_TICK = 50_000_000L;
+    public static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private long ticks = 0;
+
+    // Source time of the last capture, before pause and time scale
+    private long lastSourceNanos = 0;
+
+    // Time seen by animations
+    private long timeNanos = 0;
+
+    private boolean paused = false;
+    private float timeScale = 1.0f;
+
+    /**
+     * Advances the tick counter, called once per client tick.
+     */
+    public void tick() {
+        ticks++;
+    }
+
+    /**
+     * Captures the time of the frame being rendered.
+     *
+     * @param tickDelta Partial tick of the frame, between 0 and 1
+     * @return The captured time, in nanoseconds
+     */
+    public long captureFrame(float tickDelta) {
+        long sourceNanos = ticks * NANOS_PER_TICK + (long) (tickDelta * NANOS_PER_TICK);
+
+        // The partial tick may lag behind the tick counter for a frame, never go backwards
+        long elapsed = Math.max(0, sourceNanos - lastSourceNanos);
+        lastSourceNanos = Math.max(lastSourceNanos, sourceNanos);
+
+        if (!paused) {
+            timeNanos += timeScale == 1.0f ? elapsed : (long) (elapsed * (double) timeScale);
+        }
+        return timeNanos;
+    }
+
+    /**
+     * Gets the time of the last captured frame, in nanoseconds.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Sets the time seen by animations, ignoring pause and time scale.
+     * Meant for tests and tools driving animations by hand.
+     */
+    public void setTime(long timeNanos) {
+        this.timeNanos = timeNanos;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Pauses or resumes time. While paused, every animation holds its current value.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public float getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Sets how fast animation time runs compared to game time (0.5 = half speed).
+     *
+     * @param timeScale Speed factor, must not be negative
+     */
+    public void setTimeScale(float timeScale) {
+        if (timeScale < 0) {
+            throw new IllegalArgumentException("Time scale must not be negative");
+        }
+        this.timeScale = timeScale;
+    }
+}
@@ -0,0 +1,52 @@
+package fr.perrier.hologramuilib.client.animation;
+
+/**
+ * One playback of an {@link AnimationTimeline}, returned by {@link AnimationManager#play(AnimationTimeline)}.
+ * Holds the element and property handles of every track, resolved once when the playback starts.
+ */
+public class TimelinePlayback {
+
+    final AnimationTimeline timeline;
+    final int[] elementHandles;
+    final int[] propertyHandles;
+    final long startTime;
+
+    private boolean completed = false;
+    private boolean cancelled = false;
+
+    TimelinePlayback(AnimationTimeline timeline, long startTime) {
+        this.timeline = timeline;
+        this.startTime = startTime;
+        this.elementHandles = new int[timeline.getTrackCount()];
+        this.propertyHandles = new int[timeline.getTrackCount()];
+    }
+
+    public AnimationTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Stops the playback. Every property it drives goes back to its default value.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    void complete() {
+        if (!completed) {
+            completed = true;
+            Runnable onComplete = timeline.getOnComplete();
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package fr.perrier.hologramuilib.client.benchmark;
+
+import com.sun.management.ThreadMXBean;
+import fr.perrier.hologramuilib.client.animation.Animation;
+import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.AnimationProperties;
+import fr.perrier.hologramuilib.client.animation.AnimationTier;
+import fr.perrier.hologramuilib.client.animation.Easing;
+import fr.perrier.hologramuilib.client.animation.FrameClock;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-game benchmark and regression checks of the animation system.
+ *
+ * Every run uses its own {@link AnimationManager} driven by a {@link FrameClock} set by hand,
+ * so the results do not depend on the frame rate and the menus on screen are left alone.
+ * The checks compare sampled values against the easing curves at known times, and must all
+ * pass before the timings of an optimization to the animation path can be trusted.
+ */
+public final class AnimationBenchmark {
+
+    private static final int WARMUP_FRAMES = 100;
+    private static final int MEASURED_FRAMES = 300;
+    private static final long FRAME_NANOS = 16_666_667L;
+
+    // Long enough that no animation ends while measuring
+    private static final long BENCH_DURATION_MS = 60L * 60L * 1000L;
+
+    // Largest difference accepted between a sampled and an expected value
+    private static final float TOLERANCE = 0.001f;
+
+    // Keeps the JIT from discarding the reads
+    private static float sink;
+
+    private AnimationBenchmark() {
+    }
+
+    /**
+     * Result for one animation count, times are per frame except reads.
+     *
+     * @param allocatedBytes Bytes allocated per frame by sampling and reading, -1 if unavailable
+     */
+    public record Result(int animationCount, double sampleMicros, double parallelSampleMicros,
+                         double readNanos, double allocatedBytes) {
+    }
+
+    /**
+     * Outcome of one correctness check.
+     */
+    public record Check(String name, boolean passed, String detail) {
+    }
+
+    /**
+     * Times sampling and reading with the given number of concurrent animations.
+     */
+    public static Result run(int animationCount) {
+        FrameClock clock = new FrameClock();
+        AnimationManager manager = new AnimationManager(clock);
+        int[] elements = new int[animationCount];
+        for (int i = 0; i < animationCount; i++) {
+            elements[i] = manager.getElementHandle("__bench_" + i);
+            manager.addAnimation(elements[i], Animation.builder(AnimationProperties.OPACITY)
+                .from(0).to(1)
+                .duration(BENCH_DURATION_MS)
+                .delay(i % 100)
+                .easing("easeInOutCubic")
+                .build());
+        }
+
+        ThreadMXBean threadMXBean = getThreadMXBean();
+        long time = 0;
+
+        manager.setParallelEvaluation(false);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            time = frame(manager, clock, time, elements);
+        }
+        long startAllocatedBytes = threadMXBean != null ? threadMXBean.getCurrentThreadAllocatedBytes() : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            time = frame(manager, clock, time, elements);
+        }
+        long frameNanos = System.nanoTime() - start;
+        double allocatedBytes = threadMXBean != null
+            ? (double) (threadMXBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes) / MEASURED_FRAMES
+            : -1;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            read(manager, elements);
+        }
+        long readNanos = System.nanoTime() - start;
+
+        manager.setParallelEvaluation(true);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            time = sample(manager, clock, time);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            time = sample(manager, clock, time);
+        }
+        long parallelNanos = System.nanoTime() - start;
+
+        // Sampling alone, the reads were timed on their own
+        double sampleMicros = Math.max(0, frameNanos - readNanos) / 1000.0 / MEASURED_FRAMES;
+        return new Result(
+            animationCount,
+            sampleMicros,
+            parallelNanos / 1000.0 / MEASURED_FRAMES,
+            (double) readNanos / MEASURED_FRAMES / animationCount,
+            allocatedBytes
+        );
+    }
+
+    /**
+     * Runs the correctness checks, each on a fresh manager.
+     */
+    public static List<Check> check() {
+        List<Check> checks = new ArrayList<>();
+        checks.add(checkInterpolation());
+        checks.add(checkDelay());
+        checks.add(checkCompletion());
+        checks.add(checkParallel());
+        checks.add(checkHiddenGroup());
+        return checks;
+    }
+
+    /**
+     * Values follow the easing curve between the start and end values.
+     */
+    private static Check checkInterpolation() {
+        FrameClock clock = new FrameClock();
+        AnimationManager manager = new AnimationManager(clock);
+        manager.addAnimation("element", Animation.builder(AnimationProperties.SCALE)
+            .from(2).to(4)
+            .duration(1000)
+            .easing("easeInQuad")
+            .build());
+
+        float maxError = 0;
+        for (int ms = 0; ms < 1000; ms += 50) {
+            clock.setTime(ms * FrameClock.NANOS_PER_MILLI);
+            manager.sample();
+            float expected = 2 + 2 * Easing.easeInQuad(ms / 1000f);
+            maxError = Math.max(maxError, Math.abs(manager.getValue("element", AnimationProperties.SCALE, -1) - expected));
+        }
+        // Lookup tables, when enabled, are only accurate to the error the easing benchmark accepts
+        float tolerance = Easing.isUsingLookupTables() ? 2 * EasingBenchmark.MAX_ALLOWED_ERROR : TOLERANCE;
+        return new Check("interpolation", maxError <= tolerance, String.format("max error %.5f", maxError));
+    }
+
+    /**
+     * A delayed animation holds its start value until the delay is over.
+     */
+    private static Check checkDelay() {
+        FrameClock clock = new FrameClock();
+        AnimationManager manager = new AnimationManager(clock);
+        manager.addAnimation("element", Animation.builder(AnimationProperties.OPACITY)
+            .from(0.25f).to(1)
+            .duration(100)
+            .delay(200)
+            .easing("linear")
+            .build());
+
+        clock.setTime(150 * FrameClock.NANOS_PER_MILLI);
+        manager.sample();
+        float held = manager.getValue("element", AnimationProperties.OPACITY, -1);
+        clock.setTime(250 * FrameClock.NANOS_PER_MILLI);
+        manager.sample();
+        float halfway = manager.getValue("element", AnimationProperties.OPACITY, -1);
+
+        boolean passed = Math.abs(held - 0.25f) <= TOLERANCE && Math.abs(halfway - 0.625f) <= TOLERANCE;
+        return new Check("delay", passed, String.format("%.3f before, %.3f halfway", held, halfway));
+    }
+
+    /**
+     * Completion callbacks run once, on the first frame at or past the end.
+     */
+    private static Check checkCompletion() {
+        FrameClock clock = new FrameClock();
+        AnimationManager manager = new AnimationManager(clock);
+        long[] completedAt = {-1};
+        int[] completions = {0};
+        manager.addAnimation("element", Animation.builder(AnimationProperties.OPACITY)
+            .from(0).to(1)
+            .duration(100)
+            .onComplete(() -> {
+                completions[0]++;
+                completedAt[0] = clock.getTimeNanos();
+            })
+            .build());
+
+        for (long ms = 0; ms <= 200; ms += 16) {
+            clock.setTime(ms * FrameClock.NANOS_PER_MILLI);
+            manager.sample();
+        }
+
+        long expectedAt = 112 * FrameClock.NANOS_PER_MILLI;
+        boolean passed = completions[0] == 1 && completedAt[0] == expectedAt && manager.getActiveAnimationCount() == 0;
+        return new Check("completion", passed, completions[0] + " callback(s), at "
+            + (completedAt[0] < 0 ? "never" : completedAt[0] / FrameClock.NANOS_PER_MILLI + "ms"));
+    }
+
+    /**
+     * Evaluating on the fork-join pool gives the exact same values as on the client thread.
+     */
+    private static Check checkParallel() {
+        int animationCount = 4096;
+        FrameClock clock = new FrameClock();
+        AnimationManager sequential = new AnimationManager(clock);
+        AnimationManager parallel = new AnimationManager(clock);
+        sequential.setParallelEvaluation(false);
+        parallel.setParallelEvaluation(true);
+        for (int i = 0; i < animationCount; i++) {
+            Animation.Builder builder = Animation.builder(AnimationProperties.ROTATION)
+                .from(0).to(360)
+                .duration(200 + i % 300)
+                .easing("easeOutBack");
+            sequential.addAnimation("element_" + i, builder.build());
+            parallel.addAnimation("element_" + i, builder.build());
+        }
+
+        int mismatches = 0;
+        for (long ms = 0; ms <= 600; ms += 16) {
+            clock.setTime(ms * FrameClock.NANOS_PER_MILLI);
+            sequential.sample();
+            parallel.sample();
+            for (int i = 0; i < animationCount; i++) {
+                String id = "element_" + i;
+                if (sequential.getValue(id, AnimationProperties.ROTATION, -1) != parallel.getValue(id, AnimationProperties.ROTATION, -1)) {
+                    mismatches++;
+                }
+            }
+        }
+        boolean passed = mismatches == 0 && parallel.getActiveAnimationCount() == 0;
+        return new Check("parallel", passed, mismatches + " mismatch(es)");
+    }
+
+    /**
+     * A hidden group is skipped, and is exactly where it should be once visible again.
+     */
+    private static Check checkHiddenGroup() {
+        FrameClock clock = new FrameClock();
+        AnimationManager manager = new AnimationManager(clock);
+        int group = manager.getGroupHandle("menu");
+        int element = manager.getElementHandle("element");
+        manager.assignGroup(element, group);
+        manager.setGroupTier(group, AnimationTier.VISIBLE);
+        manager.addAnimation(element, Animation.builder(AnimationProperties.OPACITY)
+            .from(0).to(1)
+            .duration(1000)
+            .easing("linear")
+            .build());
+
+        clock.setTime(100 * FrameClock.NANOS_PER_MILLI);
+        manager.sample();
+        manager.setGroupTier(group, AnimationTier.HIDDEN);
+        clock.setTime(400 * FrameClock.NANOS_PER_MILLI);
+        manager.sample();
+        float hidden = manager.getValue(element, AnimationProperties.Handles.OPACITY, -1);
+        manager.setGroupTier(group, AnimationTier.VISIBLE);
+        float shown = manager.getValue(element, AnimationProperties.Handles.OPACITY, -1);
+
+        boolean passed = Math.abs(hidden - 0.1f) <= TOLERANCE && Math.abs(shown - 0.4f) <= TOLERANCE;
+        return new Check("hidden group", passed, String.format("%.3f hidden, %.3f shown", hidden, shown));
+    }
+
+    private static long frame(AnimationManager manager, FrameClock clock, long time, int[] elements) {
+        time = sample(manager, clock, time);
+        read(manager, elements);
+        return time;
+    }
+
+    private static long sample(AnimationManager manager, FrameClock clock, long time) {
+        time += FRAME_NANOS;
+        clock.setTime(time);
+        manager.sample();
+        return time;
+    }
+
+    private static void read(AnimationManager manager, int[] elements) {
+        float sum = 0;
+        for (int i = 0; i < elements.length; i++) {
+            sum += manager.getValue(elements[i], AnimationProperties.Handles.OPACITY, 1.0f);
+        }
+        sink += sum;
+    }
+
+    private static ThreadMXBean getThreadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof ThreadMXBean allocationBean && allocationBean.isThreadAllocatedMemorySupported()
+            ? allocationBean
+            : null;
+    }
+}
@@ -0,0 +1,86 @@
+package fr.perrier.hologramuilib.client.benchmark;
+
+import fr.perrier.hologramuilib.client.animation.Easing;
+import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
+import fr.perrier.hologramuilib.client.animation.EasingTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-game benchmark of the easing functions, analytic against lookup tables.
+ *
+ * Times both versions of every named easing over the same inputs, and checks the
+ * largest difference between them so the tables can be trusted.
+ */
+public final class EasingBenchmark {
+
+    private static final int SAMPLES = 4096;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+    private static final int ERROR_PROBES = 100_000;
+
+    // Largest error accepted for a table, beyond it animations keep the analytic function
+    public static final float MAX_ALLOWED_ERROR = EasingTable.MAX_ERROR;
+
+    // Keeps the JIT from discarding the evaluations
+    private static float sink;
+
+    private EasingBenchmark() {
+    }
+
+    /**
+     * Result for one easing function, times are per sample.
+     */
+    public record Result(String name, double analyticNanos, double tableNanos, float maxError) {
+        public boolean isAccurate() {
+            return maxError <= MAX_ALLOWED_ERROR;
+        }
+    }
+
+    /**
+     * Runs the benchmark over every named easing function.
+     */
+    public static List<Result> run() {
+        float[] inputs = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Irregular spacing so table lookups do not walk memory in order
+            inputs[i] = (i * 0.618034f) % 1f;
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (String name : Easing.getNames()) {
+            EasingFunction analytic = Easing.getAnalyticFunction(name);
+            EasingTable table = new EasingTable(analytic);
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                evaluate(analytic, inputs);
+                evaluate(table, inputs);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                evaluate(analytic, inputs);
+            }
+            long analyticNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                evaluate(table, inputs);
+            }
+            long tableNanos = System.nanoTime() - start;
+
+            double samples = (double) SAMPLES * MEASURED_ROUNDS;
+            results.add(new Result(name, analyticNanos / samples, tableNanos / samples, table.getMaxError(ERROR_PROBES)));
+        }
+        return results;
+    }
+
+    private static void evaluate(EasingFunction function, float[] inputs) {
+        float sum = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            sum += function.apply(inputs[i]);
+        }
+        sink += sum;
+    }
+}
@@ -0,0 +1,112 @@
+package fr.perrier.hologramuilib.client.benchmark;
+
+import fr.perrier.hologramuilib.client.interaction.RaycastHelper;
+import fr.perrier.hologramuilib.client.menu.HologramMenu;
+import fr.perrier.hologramuilib.client.menu.MenuSpatialIndex;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-game benchmark of hover detection.
+ *
+ * Spreads detached menus around the camera (they are never registered in the
+ * {@link fr.perrier.hologramuilib.client.menu.MenuManager}, so nothing is rendered) and times
+ * one hover resolution, both as a full scan over every menu and through the spatial index.
+ */
+public final class HoverBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+
+    // Menus are spread in a cube of this half-size around the camera
+    private static final double SPREAD = 64.0;
+    private static final double MAX_DISTANCE = 50.0;
+
+    // Keeps the JIT from discarding the raycasts
+    private static int hitSink;
+
+    private HoverBenchmark() {
+    }
+
+    /**
+     * Result of a run, times are per hover resolution.
+     */
+    public record Result(int menuCount, double fullScanMicros, double indexedMicros, double averageCandidates) {
+    }
+
+    /**
+     * Runs the benchmark with the given number of menus, looking from the camera entity.
+     */
+    public static Result run(Entity camera, int menuCount) {
+        RaycastHelper.Ray ray = new RaycastHelper.Ray().setFromEntity(camera);
+        Random random = new Random(menuCount);
+
+        MenuSpatialIndex index = new MenuSpatialIndex();
+        List<HologramMenu> menus = new ArrayList<>(menuCount);
+        for (int i = 0; i < menuCount; i++) {
+            HologramMenu menu = new HologramMenu("__bench_" + i);
+            menu.setPosition(new Vec3d(
+                ray.originX + (random.nextDouble() * 2 - 1) * SPREAD,
+                ray.originY + (random.nextDouble() * 2 - 1) * SPREAD / 4,
+                ray.originZ + (random.nextDouble() * 2 - 1) * SPREAD
+            ));
+            menu.setYaw(random.nextFloat() * 360f);
+            menu.setMaxRenderDistance(MAX_DISTANCE);
+            menus.add(menu);
+            index.add(menu);
+        }
+
+        List<HologramMenu> candidates = new ArrayList<>();
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                fullScan(menus, ray);
+                indexed(index, ray, candidates);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                fullScan(menus, ray);
+            }
+            long fullScanNanos = System.nanoTime() - start;
+
+            long candidateCount = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                candidateCount += indexed(index, ray, candidates);
+            }
+            long indexedNanos = System.nanoTime() - start;
+
+            return new Result(
+                menuCount,
+                fullScanNanos / 1000.0 / MEASURED_ITERATIONS,
+                indexedNanos / 1000.0 / MEASURED_ITERATIONS,
+                (double) candidateCount / MEASURED_ITERATIONS
+            );
+        } finally {
+            index.clear();
+        }
+    }
+
+    private static void fullScan(List<HologramMenu> menus, RaycastHelper.Ray ray) {
+        for (int i = 0; i < menus.size(); i++) {
+            if (RaycastHelper.raycastMenu(menus.get(i), ray, MAX_DISTANCE) != null) {
+                hitSink++;
+            }
+        }
+    }
+
+    private static int indexed(MenuSpatialIndex index, RaycastHelper.Ray ray, List<HologramMenu> candidates) {
+        candidates.clear();
+        index.queryRay(ray.originX, ray.originY, ray.originZ, ray.dirX, ray.dirY, ray.dirZ, MAX_DISTANCE, candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (RaycastHelper.raycastMenu(candidates.get(i), ray, MAX_DISTANCE) != null) {
+                hitSink++;
+            }
+        }
+        return candidates.size();
+    }
+}
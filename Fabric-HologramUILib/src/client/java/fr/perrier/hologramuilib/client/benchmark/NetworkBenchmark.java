@@ -0,0 +1,236 @@
+package fr.perrier.hologramuilib.client.benchmark;
+
+import fr.perrier.hologramuilib.client.menu.HologramMenu;
+import fr.perrier.hologramuilib.client.menu.MenuElement;
+import fr.perrier.hologramuilib.client.menu.elements.ButtonElement;
+import fr.perrier.hologramuilib.client.menu.elements.ContainerElement;
+import fr.perrier.hologramuilib.client.menu.elements.ProgressBarElement;
+import fr.perrier.hologramuilib.client.menu.elements.SeparatorElement;
+import fr.perrier.hologramuilib.client.menu.elements.SliderElement;
+import fr.perrier.hologramuilib.client.menu.elements.TextElement;
+import fr.perrier.hologramuilib.protocol.ElementData;
+import fr.perrier.hologramuilib.protocol.MenuData;
+import fr.perrier.hologramuilib.protocol.MenuEncoder;
+import fr.perrier.hologramuilib.protocol.MenuWireFormat;
+import fr.perrier.hologramuilib.protocol.MessageCompression;
+import fr.perrier.hologramuilib.protocol.PatchData;
+import fr.perrier.hologramuilib.protocol.PatchOperation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * In-game benchmark of the channel compression.
+ *
+ * Encodes each loaded menu (open the {@link fr.perrier.hologramuilib.client.menu.TestMenus} first
+ * for realistic content) with {@link MenuEncoder}, as the plugin does for mods that compress:
+ * the "menu_data_bin" message, and a "menu_patch" message updating every element once. Then
+ * compares their sizes as is, with plain deflate and with the {@link MessageCompression}
+ * dictionary, and times compressing and decompressing them.
+ */
+public final class NetworkBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 100;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    // Keeps the JIT from discarding the work
+    private static int sizeSink;
+
+    private NetworkBenchmark() {
+    }
+
+    /**
+     * Result for one message, times are per message.
+     *
+     * @param deflateBytes Size with plain deflate, without the dictionary
+     * @param compressedBytes Size of the body sent with the dictionary, -1 if it would not be smaller
+     * @param roundTrip If decompressing gave back the original message
+     */
+    public record Result(String name, int rawBytes, int deflateBytes, int compressedBytes,
+                         double compressMicros, double decompressMicros, boolean roundTrip) {
+
+        /**
+         * Checks if the plugin would send this message compressed.
+         */
+        public boolean isCompressed() {
+            return rawBytes >= MessageCompression.THRESHOLD && compressedBytes >= 0 && compressedBytes < rawBytes;
+        }
+
+        /**
+         * Gets the size actually sent.
+         */
+        public int sentBytes() {
+            return isCompressed() ? compressedBytes : rawBytes;
+        }
+    }
+
+    /**
+     * Runs the benchmark over the given menus, two messages per menu.
+     */
+    public static List<Result> run(Collection<HologramMenu> menus) {
+        List<Result> results = new ArrayList<>(menus.size() * 2);
+        for (HologramMenu menu : menus) {
+            results.add(run(menu.getId(), frame(MenuWireFormat.MENU_ACTION, MenuEncoder.encode(toMenuData(menu)))));
+            results.add(run(menu.getId() + " patch", frame(MenuWireFormat.PATCH_ACTION, MenuEncoder.encodePatch(toUpdatePatch(menu)))));
+        }
+        return results;
+    }
+
+    private static Result run(String name, byte[] message) {
+        byte[] body = MessageCompression.compress(message);
+        boolean roundTrip = body == null || Arrays.equals(MessageCompression.decompress(body), message);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            compressAndDecompress(message);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            byte[] compressed = MessageCompression.compress(message);
+            sizeSink += compressed != null ? compressed.length : 0;
+        }
+        long compressNanos = System.nanoTime() - start;
+
+        long decompressNanos = 0;
+        if (body != null) {
+            start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sizeSink += MessageCompression.decompress(body).length;
+            }
+            decompressNanos = System.nanoTime() - start;
+        }
+
+        return new Result(
+            name,
+            message.length,
+            plainDeflateSize(message),
+            body != null ? body.length : -1,
+            compressNanos / 1000.0 / MEASURED_ITERATIONS,
+            decompressNanos / 1000.0 / MEASURED_ITERATIONS,
+            roundTrip
+        );
+    }
+
+    private static void compressAndDecompress(byte[] message) {
+        byte[] body = MessageCompression.compress(message);
+        if (body != null) {
+            sizeSink += MessageCompression.decompress(body).length;
+        }
+    }
+
+    private static int plainDeflateSize(byte[] message) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(message);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            int size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(buffer);
+            }
+            return size;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Builds a binary message as the plugin's NetworkManager frames it: the action as a
+     * {@link java.io.DataOutputStream#writeUTF} string, then the body.
+     */
+    private static byte[] frame(String action, byte[] body) {
+        byte[] actionBytes = action.getBytes(StandardCharsets.UTF_8);
+        byte[] message = new byte[2 + actionBytes.length + body.length];
+        message[0] = (byte) (actionBytes.length >>> 8);
+        message[1] = (byte) actionBytes.length;
+        System.arraycopy(actionBytes, 0, message, 2, actionBytes.length);
+        System.arraycopy(body, 0, message, 2 + actionBytes.length, body.length);
+        return message;
+    }
+
+    /**
+     * Gets the records the plugin would encode for a menu like this one.
+     */
+    static MenuData toMenuData(HologramMenu menu) {
+        // The plugin sends the title apart, the client turns it into the first element
+        List<MenuElement> elements = menu.getElements();
+        String title = null;
+        if (!elements.isEmpty() && HologramMenu.TITLE_ELEMENT_ID.equals(elements.get(0).getId())
+                && elements.get(0) instanceof TextElement titleElement) {
+            title = titleElement.getContent();
+            elements = elements.subList(1, elements.size());
+        }
+
+        return new MenuData(menu.getId(),
+            new double[] {menu.getPosition().x, menu.getPosition().y, menu.getPosition().z}, title,
+            (int) menu.getWidth(), (int) menu.getHeight(), menu.getScale(), (float) menu.getMaxRenderDistance(),
+            menu.getBackgroundColor(), menu.getBorderColor(), (int) menu.getPadding(), (int) menu.getSpacing(),
+            menu.hasBackground(), menu.isLodEnabled(),
+            (float) menu.getLodReducedDistance(), (float) menu.getLodImpostorDistance(),
+            menu.getLodFullMinScreenHeight(), menu.getLodReducedMinScreenHeight(),
+            toElementData(elements));
+    }
+
+    /**
+     * Gets a patch setting the content or value of every element, like a live scoreboard refresh.
+     */
+    static PatchData toUpdatePatch(HologramMenu menu) {
+        List<PatchOperation> operations = new ArrayList<>();
+        for (ElementData element : toMenuData(menu).elements()) {
+            if (!Float.isNaN(element.value())) {
+                operations.add(new PatchOperation(MenuWireFormat.OP_SET_VALUE, element.id(), null, element.value(), -1, null));
+            } else if (!element.content().isEmpty()) {
+                operations.add(new PatchOperation(MenuWireFormat.OP_SET_CONTENT, element.id(), element.content(), Float.NaN, -1, null));
+            }
+        }
+        return new PatchData(menu.getId(), operations);
+    }
+
+    private static List<ElementData> toElementData(List<MenuElement> elements) {
+        List<ElementData> data = new ArrayList<>(elements.size());
+        for (MenuElement element : elements) {
+            String type;
+            String content = "";
+            float min = Float.NaN;
+            float max = Float.NaN;
+            float value = Float.NaN;
+            List<ElementData> children = List.of();
+
+            if (element instanceof TextElement text) {
+                type = "text";
+                content = text.getContent();
+            } else if (element instanceof ButtonElement button) {
+                type = "button";
+                content = button.getText();
+            } else if (element instanceof SliderElement slider) {
+                type = "slider";
+                content = slider.getLabel() != null ? slider.getLabel() : "";
+                min = slider.getMinValue();
+                max = slider.getMaxValue();
+                value = slider.getActualValue();
+            } else if (element instanceof ProgressBarElement progressBar) {
+                type = "progress_bar";
+                max = 100f;
+                value = progressBar.getProgress() * 100f;
+            } else if (element instanceof SeparatorElement separator) {
+                type = separator.getColor() == 0 ? "spacing" : "separator";
+            } else if (element instanceof ContainerElement container) {
+                type = "container";
+                children = toElementData(container.getChildren());
+            } else {
+                type = element.getClass().getSimpleName();
+            }
+
+            // Unset fields are not sent, like the plugin does
+            data.add(new ElementData(type, element.getId(), content != null ? content : "",
+                Math.max(0, (int) element.getWidth()), Math.max(0, (int) element.getHeight()),
+                min > 0 ? min : Float.NaN, max > 0 ? max : Float.NaN, value > 0 ? value : Float.NaN,
+                children));
+        }
+        return data;
+    }
+}
@@ -1,5 +1,6 @@
 package fr.perrier.hologramuilib.client.config;
 
+import fr.perrier.hologramuilib.protocol.LodDefaults;
 import fr.perrier.hologramuilib.util.ColorHelper;
 
 /**
@@ -14,10 +15,12 @@ public class StyleConfig {
     private double maxRenderDistance = 10.0;
     private BackgroundConfig background;
     private BorderConfig border;
+    private LodConfig lod;
 
     public StyleConfig() {
         this.background = new BackgroundConfig();
         this.border = new BorderConfig();
+        this.lod = new LodConfig();
     }
 
     public float getWidth() {
@@ -76,6 +79,14 @@ public class StyleConfig {
         this.border = border;
     }
 
+    public LodConfig getLod() {
+        return lod;
+    }
+
+    public void setLod(LodConfig lod) {
+        this.lod = lod;
+    }
+
     /**
      * Background configuration for menus.
      */
@@ -158,5 +169,66 @@ public class StyleConfig {
             this.width = width;
         }
     }
-}
 
+    /**
+     * Level-of-detail configuration for menus.
+     * A menu drops to a coarser level when it is either farther than the distance threshold
+     * or smaller on screen than the projected height threshold.
+     */
+    public static class LodConfig {
+        private boolean enabled = LodDefaults.ENABLED;
+        private double reducedDistance = LodDefaults.REDUCED_DISTANCE;
+        private double impostorDistance = LodDefaults.IMPOSTOR_DISTANCE;
+        private float fullMinScreenHeight = LodDefaults.FULL_MIN_SCREEN_HEIGHT; // In screen pixels
+        private float reducedMinScreenHeight = LodDefaults.REDUCED_MIN_SCREEN_HEIGHT; // In screen pixels
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getReducedDistance() {
+            return reducedDistance;
+        }
+
+        public void setReducedDistance(double reducedDistance) {
+            this.reducedDistance = reducedDistance;
+        }
+
+        public double getImpostorDistance() {
+            return impostorDistance;
+        }
+
+        public void setImpostorDistance(double impostorDistance) {
+            this.impostorDistance = impostorDistance;
+        }
+
+        public float getFullMinScreenHeight() {
+            return fullMinScreenHeight;
+        }
+
+        public void setFullMinScreenHeight(float fullMinScreenHeight) {
+            this.fullMinScreenHeight = fullMinScreenHeight;
+        }
+
+        public float getReducedMinScreenHeight() {
+            return reducedMinScreenHeight;
+        }
+
+        public void setReducedMinScreenHeight(float reducedMinScreenHeight) {
+            this.reducedMinScreenHeight = reducedMinScreenHeight;
+        }
+    }
+
+    /**
+     * Level of detail a menu is rendered with.
+     */
+    public enum LodLevel {
+        FULL,     // Every element
+        REDUCED,  // Background, border and title only
+        IMPOSTOR  // A single flat quad
+    }
+}
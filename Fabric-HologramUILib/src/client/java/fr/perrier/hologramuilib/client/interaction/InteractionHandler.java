@@ -1,5 +1,6 @@
 package fr.perrier.hologramuilib.client.interaction;
 
+import fr.perrier.hologramuilib.client.config.StyleConfig;
 import fr.perrier.hologramuilib.client.menu.HologramMenu;
 import fr.perrier.hologramuilib.client.menu.MenuElement;
 import fr.perrier.hologramuilib.client.menu.MenuManager;
@@ -14,9 +15,16 @@ import org.lwjgl.glfw.GLFW;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Handles player interaction with hologram menus.
  * Manages hover detection, click handling, and cooldowns.
+ *
+ * Once per tick it moves the {@link MenuInteractionState} of the menu looked at, and of the
+ * one left if it changed. Those states fire the hover callbacks, so each transition fires
+ * them, and plays the hover sound, exactly once.
  */
 public class InteractionHandler {
 
@@ -40,10 +48,16 @@ public class InteractionHandler {
 
     // Slider dragging state
     private SliderElement draggingSlider = null;
+    private HologramMenu draggingMenu = null;
+    private float dragOriginX; // Left edge of the dragged slider, in menu space
 
     // Maximum raycast distance
     private static final double MAX_RAYCAST_DISTANCE = 50.0;
 
+    // Reused every tick for the hover raycast
+    private final RaycastHelper.Ray viewRay = new RaycastHelper.Ray();
+    private final List<HologramMenu> rayCandidates = new ArrayList<>();
+
     private InteractionHandler() {
         this.client = MinecraftClient.getInstance();
     }
@@ -76,22 +90,28 @@ public class InteractionHandler {
             cooldownTimer--;
         }
 
+        // Read the mouse once, both the hover state and the clicks depend on it
+        long windowHandle = client.getWindow().getHandle();
+        boolean leftMouseDown = GLFW.glfwGetMouseButton(windowHandle, GLFW.GLFW_MOUSE_BUTTON_LEFT) == GLFW.GLFW_PRESS;
+        boolean rightMouseDown = GLFW.glfwGetMouseButton(windowHandle, GLFW.GLFW_MOUSE_BUTTON_RIGHT) == GLFW.GLFW_PRESS;
+
         // Update hover state
-        updateHoverState();
+        updateHoverState(leftMouseDown || rightMouseDown);
 
         // Handle mouse clicks
-        handleMouseInput();
+        handleMouseInput(leftMouseDown, rightMouseDown);
     }
 
     /**
      * Updates which menu and element the player is currently hovering over.
+     *
+     * @param buttonDown If a mouse button is held, keeping a press or drag going
      */
-    private void updateHoverState() {
+    private void updateHoverState(boolean buttonDown) {
         MenuManager manager = MenuManager.getInstance();
         MenuInteractionTracker tracker = MenuInteractionTracker.getInstance();
 
         HologramMenu previousHoveredMenu = hoveredMenu;
-        MenuElement previousHoveredElement = hoveredElement;
 
         hoveredMenu = null;
         hoveredElement = null;
@@ -101,8 +121,25 @@ public class InteractionHandler {
         double closestDistance = Double.MAX_VALUE;
         RaycastHelper.RaycastResult closestResult = null;
 
-        for (HologramMenu menu : manager.getActiveMenus()) {
-            RaycastHelper.RaycastResult result = RaycastHelper.raycastMenu(menu, MAX_RAYCAST_DISTANCE);
+        // Only test the menus whose bounds the view ray crosses
+        rayCandidates.clear();
+        if (client.cameraEntity != null) {
+            viewRay.setFromEntity(client.cameraEntity);
+            manager.getSpatialIndex().queryRay(
+                viewRay.originX, viewRay.originY, viewRay.originZ,
+                viewRay.dirX, viewRay.dirY, viewRay.dirZ,
+                MAX_RAYCAST_DISTANCE, rayCandidates
+            );
+        }
+
+        for (int i = 0; i < rayCandidates.size(); i++) {
+            HologramMenu menu = rayCandidates.get(i);
+            // Menus that were not rendered, or rendered without their elements, cannot be looked at
+            if (menu.isCulled() || menu.getLodLevel() != StyleConfig.LodLevel.FULL) {
+                continue;
+            }
+
+            RaycastHelper.RaycastResult result = RaycastHelper.raycastMenu(menu, viewRay, MAX_RAYCAST_DISTANCE);
 
             if (result != null) {
                 double distance = client.player.getPos().distanceTo(result.getHitPos());
@@ -133,15 +170,14 @@ public class InteractionHandler {
             }
         }
 
-        // Trigger hover events if element changed
-        if (hoveredElement != previousHoveredElement) {
-            if (previousHoveredElement != null) {
-                previousHoveredElement.onHoverEnd();
-            }
-            if (hoveredElement != null) {
-                hoveredElement.onHoverStart();
-                if(hoveredElement instanceof ButtonElement)
-                    playHoverSound();
+        // Move the menu left first, so its hover ends before the new one starts
+        if (previousHoveredMenu != null && previousHoveredMenu != hoveredMenu) {
+            previousHoveredMenu.getInteractionState().update(null, buttonDown);
+        }
+        if (hoveredMenu != null) {
+            MenuInteractionState state = hoveredMenu.getInteractionState();
+            if (state.update(hoveredElement, buttonDown) && state.getHoveredElement() instanceof ButtonElement) {
+                playHoverSound();
             }
         }
     }
@@ -149,32 +185,26 @@ public class InteractionHandler {
     /**
      * Handles mouse button input for clicking elements.
      */
-    private void handleMouseInput() {
-        long windowHandle = client.getWindow().getHandle();
-
-        // Check left mouse button
-        boolean leftMouseDown = GLFW.glfwGetMouseButton(windowHandle, GLFW.GLFW_MOUSE_BUTTON_LEFT) == GLFW.GLFW_PRESS;
-        boolean rightMouseDown = GLFW.glfwGetMouseButton(windowHandle, GLFW.GLFW_MOUSE_BUTTON_RIGHT) == GLFW.GLFW_PRESS;
-
+    private void handleMouseInput(boolean leftMouseDown, boolean rightMouseDown) {
         // Handle slider dragging
         if (draggingSlider != null) {
-            if (leftMouseDown && lastRaycastResult != null && hoveredMenu != null) {
+            if (leftMouseDown) {
                 // Update slider value based on current mouse position
-                // menuX is in menu-space (0 = left edge of menu)
-                // We need to convert to element-space
-                float menuX = lastRaycastResult.getLocalX();
-                float padding = hoveredMenu.getPadding();
-
-                // Subtract padding to get position in element area
-                // Then subtract element's X position to get position within element
-                float elementAreaX = menuX - padding;
-                float elementX = elementAreaX - draggingSlider.getBounds().x();
-
-                draggingSlider.updateValueFromMouse(elementX);
+                // menuX is in menu-space (0 = left edge of menu), the slider may have moved
+                // out from under the cursor so its origin from the click is used.
+                // Off the menu, the view ray is projected on its plane and the slider clamps the value
+                float menuX = lastRaycastResult != null && hoveredMenu == draggingMenu
+                    ? lastRaycastResult.getLocalX()
+                    : RaycastHelper.projectMenuX(draggingMenu, viewRay);
+                if (!Float.isNaN(menuX)) {
+                    draggingSlider.updateValueFromMouse(menuX - dragOriginX);
+                }
             } else {
-                // Release slider
+                // Release slider, the element under the crosshair gets the hover back
                 draggingSlider.onRelease();
+                draggingMenu.getInteractionState().release(hoveredMenu == draggingMenu ? hoveredElement : null);
                 draggingSlider = null;
+                draggingMenu = null;
             }
         }
 
@@ -222,20 +252,22 @@ public class InteractionHandler {
             playClickSound();
 
             // Check if element is a slider and start dragging
-            if (button == GLFW.GLFW_MOUSE_BUTTON_LEFT && hoveredElement instanceof SliderElement slider) {
+            boolean drag = button == GLFW.GLFW_MOUSE_BUTTON_LEFT && hoveredElement instanceof SliderElement;
+            if (drag) {
+                SliderElement slider = (SliderElement) hoveredElement;
                 draggingSlider = slider;
+                draggingMenu = hoveredMenu;
                 if (lastRaycastResult != null && hoveredMenu != null) {
-                    // Convert from menu-space coordinates to element-space coordinates
-                    float menuX = lastRaycastResult.getLocalX();
-                    float padding = hoveredMenu.getPadding();
-                    // Account for padding and element position
-                    float elementX = (menuX - padding) - slider.getBounds().x();
+                    // The raycast resolved the point within the slider, even inside containers
+                    float elementX = lastRaycastResult.getElementX();
+                    dragOriginX = lastRaycastResult.getLocalX() - elementX;
                     slider.updateValueFromMouse(elementX);
                 }
             }
 
             // Trigger element click
             hoveredElement.onClick(button);
+            hoveredMenu.getInteractionState().press(hoveredElement, drag);
 
             // Set cooldown
             cooldownTimer = CLICK_COOLDOWN_TICKS;
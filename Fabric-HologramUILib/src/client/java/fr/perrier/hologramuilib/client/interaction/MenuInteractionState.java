@@ -0,0 +1,123 @@
+package fr.perrier.hologramuilib.client.interaction;
+
+import fr.perrier.hologramuilib.client.menu.HologramMenu;
+import fr.perrier.hologramuilib.client.menu.MenuElement;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interaction state of one menu: idle, hovered, pressed or dragged.
+ *
+ * Only the {@link InteractionHandler} moves it, once per client tick, and it is the single
+ * place hover callbacks are fired from. Transitions are coalesced: whatever happened during
+ * the tick, an element gets at most one {@link MenuElement#onHoverEnd()} and one
+ * {@link MenuElement#onHoverStart()}. Everything else, the renderer included, only reads it.
+ */
+public class MenuInteractionState {
+
+    public enum State {
+        /**
+         * No element under the crosshair.
+         */
+        IDLE,
+        /**
+         * An element under the crosshair, no button held on it.
+         */
+        HOVER,
+        /**
+         * A button held since it was pressed on the hovered element.
+         */
+        PRESSED,
+        /**
+         * A slider dragged, it keeps the hover until released even if the crosshair leaves it.
+         */
+        DRAGGING
+    }
+
+    private final HologramMenu menu;
+    private State state = State.IDLE;
+    private MenuElement hoveredElement = null;
+    private MenuElement pressedElement = null; // Element the button was pressed on, while pressed or dragging
+
+    public MenuInteractionState(HologramMenu menu) {
+        this.menu = menu;
+    }
+
+    /**
+     * Moves to the state of this tick.
+     *
+     * @param hovered Element under the crosshair, null if the menu is not looked at
+     * @param buttonDown If a mouse button is held
+     * @return True if the hovered element changed, hover callbacks were fired
+     */
+    boolean update(@Nullable MenuElement hovered, boolean buttonDown) {
+        if (state == State.DRAGGING && buttonDown) {
+            return setHoveredElement(pressedElement);
+        }
+
+        if (state == State.PRESSED && buttonDown && hovered == pressedElement) {
+            return setHoveredElement(hovered);
+        }
+
+        pressedElement = null;
+        state = hovered != null ? State.HOVER : State.IDLE;
+        return setHoveredElement(hovered);
+    }
+
+    /**
+     * Presses the hovered element, called right after its click.
+     *
+     * @param drag If the element is dragged while the button is held
+     */
+    void press(MenuElement element, boolean drag) {
+        pressedElement = element;
+        state = drag ? State.DRAGGING : State.PRESSED;
+        setHoveredElement(element);
+    }
+
+    /**
+     * Ends a press or drag before the button is released, the element under the crosshair takes the hover.
+     *
+     * @return True if the hovered element changed
+     */
+    boolean release(@Nullable MenuElement hovered) {
+        pressedElement = null;
+        state = hovered != null ? State.HOVER : State.IDLE;
+        return setHoveredElement(hovered);
+    }
+
+    private boolean setHoveredElement(@Nullable MenuElement element) {
+        if (hoveredElement == element) {
+            return false;
+        }
+
+        if (hoveredElement != null) {
+            hoveredElement.onHoverEnd();
+        }
+        hoveredElement = element;
+        if (element != null) {
+            element.onHoverStart();
+        }
+        menu.markDirty();
+        return true;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the element shown as hovered, the dragged one while dragging.
+     */
+    @Nullable
+    public MenuElement getHoveredElement() {
+        return hoveredElement;
+    }
+
+    /**
+     * Gets the element held pressed or dragged, null when idle or hovering.
+     */
+    @Nullable
+    public MenuElement getPressedElement() {
+        return pressedElement;
+    }
+}
@@ -1,18 +1,24 @@
 package fr.perrier.hologramuilib.client.interaction;
 
+import fr.perrier.hologramuilib.client.menu.ElementHit;
 import fr.perrier.hologramuilib.client.menu.HologramMenu;
 import fr.perrier.hologramuilib.client.menu.MenuElement;
+import fr.perrier.hologramuilib.client.menu.MenuGeometry;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.math.Vec3d;
 import org.jetbrains.annotations.Nullable;
 
+
 /**
  * Helper class for raycasting against hologram menus in 3D space.
  * Performs ray-plane intersection tests to determine if the player is looking at a menu.
  */
 public class RaycastHelper {
 
+    // Reused by every raycast, menus are only ever raycast from the client thread
+    private static final ElementHit ELEMENT_HIT = new ElementHit();
+
     /**
      * Result of a raycast test against a menu.
      */
@@ -22,13 +28,22 @@ public class RaycastHelper {
         private final float localX;
         private final float localY;
         private final MenuElement hoveredElement;
+        private final float elementX;
+        private final float elementY;
 
         public RaycastResult(HologramMenu menu, Vec3d hitPos, float localX, float localY, MenuElement hoveredElement) {
+            this(menu, hitPos, localX, localY, hoveredElement, 0, 0);
+        }
+
+        public RaycastResult(HologramMenu menu, Vec3d hitPos, float localX, float localY, MenuElement hoveredElement,
+                             float elementX, float elementY) {
             this.menu = menu;
             this.hitPos = hitPos;
             this.localX = localX;
             this.localY = localY;
             this.hoveredElement = hoveredElement;
+            this.elementX = elementX;
+            this.elementY = elementY;
         }
 
         public HologramMenu getMenu() {
@@ -55,6 +70,52 @@ public class RaycastHelper {
         public boolean hasElement() {
             return hoveredElement != null;
         }
+
+        /**
+         * Gets the hit X relative to the left edge of the hovered element, even when it is nested in containers.
+         */
+        public float getElementX() {
+            return elementX;
+        }
+
+        /**
+         * Gets the hit Y relative to the top edge of the hovered element, even when it is nested in containers.
+         */
+        public float getElementY() {
+            return elementY;
+        }
+    }
+
+    /**
+     * Mutable view ray, reused between ticks so raycasting does not allocate.
+     */
+    public static class Ray {
+        public double originX;
+        public double originY;
+        public double originZ;
+        public double dirX;
+        public double dirY;
+        public double dirZ;
+
+        /**
+         * Sets this ray to the eye position and look direction of an entity.
+         * Same as getCameraPosVec(1.0f) and getRotationVec(1.0f), without the Vec3d.
+         *
+         * @return This ray
+         */
+        public Ray setFromEntity(Entity entity) {
+            originX = entity.getX();
+            originY = entity.getEyeY();
+            originZ = entity.getZ();
+
+            double pitchRad = Math.toRadians(entity.getPitch());
+            double yawRad = Math.toRadians(-entity.getYaw());
+            double cosPitch = Math.cos(pitchRad);
+            dirX = Math.sin(yawRad) * cosPitch;
+            dirY = -Math.sin(pitchRad);
+            dirZ = Math.cos(yawRad) * cosPitch;
+            return this;
+        }
     }
 
     /**
@@ -71,32 +132,50 @@ public class RaycastHelper {
             return null;
         }
 
-        Entity camera = client.cameraEntity;
-        Vec3d cameraPos = camera.getCameraPosVec(1.0f);
-        Vec3d lookVec = camera.getRotationVec(1.0f);
+        return raycastMenu(menu, new Ray().setFromEntity(client.cameraEntity), maxDistance);
+    }
+
+    /**
+     * Performs a raycast along a ray to check if it hits a menu.
+     * Works on primitive doubles only, objects are allocated for hits alone.
+     *
+     * @param menu The menu to test against
+     * @param ray The view ray
+     * @param maxDistance Maximum raycast distance
+     * @return RaycastResult if hit, null otherwise
+     */
+    @Nullable
+    public static RaycastResult raycastMenu(HologramMenu menu, Ray ray, double maxDistance) {
+        double rayX = ray.originX;
+        double rayY = ray.originY;
+        double rayZ = ray.originZ;
+        double dirX = ray.dirX;
+        double dirY = ray.dirY;
+        double dirZ = ray.dirZ;
+
+        MenuGeometry geometry = menu.getGeometry();
 
         // Check if menu is within range first
-        Vec3d menuPos = menu.getPosition();
-        double distanceToMenu = cameraPos.distanceTo(menuPos);
-        if (distanceToMenu > maxDistance || distanceToMenu > menu.getMaxRenderDistance()) {
+        double toMenuX = geometry.getCenterX() - rayX;
+        double toMenuY = geometry.getCenterY() - rayY;
+        double toMenuZ = geometry.getCenterZ() - rayZ;
+        double distanceSquared = toMenuX * toMenuX + toMenuY * toMenuY + toMenuZ * toMenuZ;
+        double maxMenuDistance = Math.min(maxDistance, menu.getMaxRenderDistance());
+        if (distanceSquared > maxMenuDistance * maxMenuDistance) {
             return null;
         }
 
-        // Calculate menu's orientation
-        float menuYaw = menu.getYaw();
-
-        // Menu plane normal (the direction the menu faces)
-        // The menu faces in the direction of its yaw
-        double yawRad = Math.toRadians(menuYaw);
-        Vec3d planeNormal = new Vec3d(-Math.sin(yawRad), 0, Math.cos(yawRad)).normalize();
-
-        // Ray-plane intersection
-        Vec3d rayStart = cameraPos;
-        Vec3d rayDir = lookVec.normalize();
+        // Broad phase: reject rays missing the bounding sphere before the exact plane test
+        double radius = geometry.getBoundingRadius();
+        double alongRay = toMenuX * dirX + toMenuY * dirY + toMenuZ * dirZ;
+        if (alongRay < -radius || distanceSquared - alongRay * alongRay > radius * radius) {
+            return null;
+        }
 
-        // Calculate intersection
-        Vec3d planePoint = menuPos;
-        double denominator = rayDir.dotProduct(planeNormal);
+        // Ray-plane intersection against the cached plane normal
+        double normalX = geometry.getNormalX();
+        double normalZ = geometry.getNormalZ();
+        double denominator = dirX * normalX + dirZ * normalZ;
 
         // Check if ray is parallel to plane (or facing away)
         if (Math.abs(denominator) < 0.0001) {
@@ -104,25 +183,27 @@ public class RaycastHelper {
         }
 
         // Calculate distance along ray to intersection point
-        double t = planePoint.subtract(rayStart).dotProduct(planeNormal) / denominator;
+        double t = (toMenuX * normalX + toMenuZ * normalZ) / denominator;
 
         // Check if intersection is behind camera or too far
         if (t < 0 || t > maxDistance) {
             return null;
         }
 
-        // Calculate intersection point in world space
-        Vec3d hitPos = rayStart.add(rayDir.multiply(t));
+        // Intersection point relative to the menu origin
+        double hitX = dirX * t - toMenuX;
+        double hitY = dirY * t - toMenuY;
+        double hitZ = dirZ * t - toMenuZ;
 
-        // Transform hit position to menu's local space
-        Vec3d localPos = worldToMenuLocal(hitPos, menu);
-
-        float localX = (float) localPos.x;
-        float localY = (float) localPos.y;
+        // Transform to menu local space (centered at origin)
+        // The menu is rendered with rotation (180 - menuYaw), the cached basis holds its inverse
+        double invScale = geometry.getInverseScale();
+        float localX = (float) ((hitX * geometry.getLocalCos() - hitZ * geometry.getLocalSin()) * invScale);
+        float localY = (float) (-hitY * invScale); // Invert Y because menu rendering uses negative Y scale
 
         // Check if hit is within menu bounds (centered at origin)
-        float halfWidth = menu.getWidth() / 2f;
-        float halfHeight = menu.getHeight() / 2f;
+        float halfWidth = (float) geometry.getHalfWidth();
+        float halfHeight = (float) geometry.getHalfHeight();
 
         if (localX < -halfWidth || localX > halfWidth ||
             localY < -halfHeight || localY > halfHeight) {
@@ -133,86 +214,41 @@ public class RaycastHelper {
         float menuX = localX + halfWidth;
         float menuY = localY + halfHeight;
 
-        // Find which element is hovered
-        MenuElement hoveredElement = findElementAt(menu, menuX, menuY);
+        // Find which element is hovered, down to the children of containers
+        menu.hitTest(menuX, menuY, ELEMENT_HIT);
 
-        return new RaycastResult(menu, hitPos, menuX, menuY, hoveredElement);
+        Vec3d hitPos = new Vec3d(geometry.getCenterX() + hitX, geometry.getCenterY() + hitY, geometry.getCenterZ() + hitZ);
+        return new RaycastResult(menu, hitPos, menuX, menuY, ELEMENT_HIT.getElement(),
+            ELEMENT_HIT.getLocalX(), ELEMENT_HIT.getLocalY());
     }
 
     /**
-     * Transforms a world position to menu local space.
+     * Intersects a ray with the plane of a menu, without checking the menu bounds or distance.
+     * Used to follow a drag once the crosshair left the menu.
      *
-     * @param worldPos Position in world space
-     * @param menu The menu
-     * @return Position in menu local space (centered at origin)
+     * @return X of the hit in menu coordinates (top-left origin), possibly outside the menu,
+     *         or NaN if the ray is parallel to the plane or points away from it
      */
-    private static Vec3d worldToMenuLocal(Vec3d worldPos, HologramMenu menu) {
-        Vec3d menuPos = menu.getPosition();
-        float menuYaw = menu.getYaw();
-
-        // Translate to menu origin
-        Vec3d translated = worldPos.subtract(menuPos);
-
-        // Rotate by inverse of menu yaw
-        // The menu is rendered with rotation (180 - menuYaw), so the inverse is -(180 - menuYaw) = menuYaw - 180
-        // BUT, we need to negate the rotation to get the proper inverse transformation
-        double yawRad = Math.toRadians(180 - menuYaw);
-        double cos = Math.cos(yawRad);
-        double sin = Math.sin(yawRad);
-
-        double rotatedX = translated.x * cos - translated.z * sin;
-        double rotatedZ = translated.x * sin + translated.z * cos;
-
-        // Scale by inverse of menu scale
-        float invScale = 1.0f / menu.getScale();
-
-        return new Vec3d(
-            rotatedX * invScale,
-            -translated.y * invScale, // Invert Y because menu rendering uses negative Y scale
-            rotatedZ * invScale
-        );
-    }
-
-    /**
-     * Finds the menu element at the given menu coordinates.
-     *
-     * @param menu The menu
-     * @param menuX X coordinate in menu space (0 = left edge)
-     * @param menuY Y coordinate in menu space (0 = top edge)
-     * @return The element at the position, or null if none
-     */
-    @Nullable
-    private static MenuElement findElementAt(HologramMenu menu, float menuX, float menuY) {
-        float padding = menu.getPadding();
-        float spacing = menu.getSpacing();
-
-        // Adjust for padding
-        float elementAreaX = menuX - padding;
-        float elementAreaY = menuY - padding;
-
-        // Check if within element area
-        if (elementAreaX < 0 || elementAreaY < 0) {
-            return null;
+    public static float projectMenuX(HologramMenu menu, Ray ray) {
+        MenuGeometry geometry = menu.getGeometry();
+
+        double toMenuX = geometry.getCenterX() - ray.originX;
+        double toMenuZ = geometry.getCenterZ() - ray.originZ;
+        double normalX = geometry.getNormalX();
+        double normalZ = geometry.getNormalZ();
+        double denominator = ray.dirX * normalX + ray.dirZ * normalZ;
+        if (Math.abs(denominator) < 0.0001) {
+            return Float.NaN;
         }
 
-        float currentY = 0;
-
-        for (MenuElement element : menu.getElements()) {
-            float elementHeight = element.getHeight();
-
-            // Check if Y is within this element
-            if (elementAreaY >= currentY && elementAreaY < currentY + elementHeight) {
-                // Check X bounds
-                float elementWidth = element.getWidth();
-                if (elementAreaX >= 0 && elementAreaX < elementWidth) {
-                    return element;
-                }
-            }
-
-            currentY += elementHeight + spacing;
+        double t = (toMenuX * normalX + toMenuZ * normalZ) / denominator;
+        if (t < 0) {
+            return Float.NaN;
         }
 
-        return null;
+        double hitX = ray.dirX * t - toMenuX;
+        double hitZ = ray.dirZ * t - toMenuZ;
+        double localX = (hitX * geometry.getLocalCos() - hitZ * geometry.getLocalSin()) * geometry.getInverseScale();
+        return (float) (localX + geometry.getHalfWidth());
     }
 }
-
@@ -0,0 +1,46 @@
+package fr.perrier.hologramuilib.client.menu;
+
+/**
+ * Result of a hit test into the element tree of a menu: the innermost element under
+ * the point, and the point relative to the top-left of that element.
+ *
+ * Mutable so the same instance can be reused by every hit test.
+ */
+public class ElementHit {
+
+    private MenuElement element;
+    private float localX;
+    private float localY;
+
+    /**
+     * Records the element that was hit.
+     *
+     * @param element The innermost element under the point
+     * @param localX X relative to the left edge of the element
+     * @param localY Y relative to the top edge of the element
+     */
+    public void set(MenuElement element, float localX, float localY) {
+        this.element = element;
+        this.localX = localX;
+        this.localY = localY;
+    }
+
+    /**
+     * Forgets the previous hit.
+     */
+    public void clear() {
+        set(null, 0, 0);
+    }
+
+    public MenuElement getElement() {
+        return element;
+    }
+
+    public float getLocalX() {
+        return localX;
+    }
+
+    public float getLocalY() {
+        return localY;
+    }
+}
@@ -0,0 +1,197 @@
+package fr.perrier.hologramuilib.client.menu;
+
+import fr.perrier.hologramuilib.client.config.LayoutConfig;
+
+import java.util.List;
+
+/**
+ * Resolved positions of the elements of a menu, relative to the content area (inside the padding).
+ *
+ * Rendering, raycasting and the debug overlay all read from the same layout, so they
+ * always agree on where an element is. It is rebuilt by {@link HologramMenu#getLayout()}
+ * only after elements, sizes or layout settings changed.
+ *
+ * In a vertical layout the Y offsets are a prefix sum of the element heights and spacing,
+ * so hit testing is a binary search. Horizontal flows (see {@link #rebuildHorizontal}) do the
+ * same along X. Other layout types draw every element at the top of the content area and are
+ * hit tested front to back.
+ *
+ * Menus and {@link fr.perrier.hologramuilib.client.menu.elements.ContainerElement containers}
+ * both keep one, so a hit test only descends into the one child under the point.
+ */
+public class ElementLayout {
+
+    private MenuElement[] elements = new MenuElement[0];
+    private float[] offsetsX = new float[0];
+    private float[] offsetsY = new float[0];
+    private int count;
+    private boolean vertical;
+    private boolean horizontal;
+    private float contentHeight;
+
+    /**
+     * Lays out elements stacked from the top, or all at the top for non-vertical layout types.
+     *
+     * @param availableWidth Width of the content area, used for alignment
+     */
+    public void rebuild(List<MenuElement> source, LayoutConfig.LayoutType layoutType, LayoutConfig.Alignment alignment,
+                 float availableWidth, float spacing) {
+        ensureCapacity(source.size());
+        vertical = layoutType == LayoutConfig.LayoutType.VERTICAL;
+        horizontal = false;
+
+        float currentY = 0;
+        float maxHeight = 0;
+        for (int i = 0; i < count; i++) {
+            MenuElement element = source.get(i);
+            elements[i] = element;
+            offsetsX[i] = switch (alignment) {
+                case CENTER -> (availableWidth - element.getWidth()) / 2;
+                case RIGHT -> availableWidth - element.getWidth();
+                default -> 0; // LEFT
+            };
+            offsetsY[i] = vertical ? currentY : 0;
+
+            currentY += element.getHeight();
+            if (i < count - 1) {
+                currentY += spacing;
+            }
+            maxHeight = Math.max(maxHeight, element.getHeight());
+        }
+
+        releaseRemoved();
+        contentHeight = vertical ? currentY : maxHeight;
+    }
+
+    /**
+     * Lays out elements left to right, all aligned on the top of the content area.
+     */
+    public void rebuildHorizontal(List<MenuElement> source, float spacing) {
+        ensureCapacity(source.size());
+        vertical = false;
+        horizontal = true;
+
+        float currentX = 0;
+        float maxHeight = 0;
+        for (int i = 0; i < count; i++) {
+            MenuElement element = source.get(i);
+            elements[i] = element;
+            offsetsX[i] = currentX;
+            offsetsY[i] = 0;
+
+            currentX += element.getWidth();
+            if (i < count - 1) {
+                currentX += spacing;
+            }
+            maxHeight = Math.max(maxHeight, element.getHeight());
+        }
+
+        releaseRemoved();
+        contentHeight = maxHeight;
+    }
+
+    private void ensureCapacity(int size) {
+        count = size;
+        if (elements.length < count) {
+            elements = new MenuElement[count];
+            offsetsX = new float[count];
+            offsetsY = new float[count];
+        }
+    }
+
+    // Drop references to elements that were removed
+    private void releaseRemoved() {
+        for (int i = count; i < elements.length && elements[i] != null; i++) {
+            elements[i] = null;
+        }
+    }
+
+    /**
+     * Gets the number of laid out elements.
+     */
+    public int size() {
+        return count;
+    }
+
+    public MenuElement getElement(int index) {
+        return elements[index];
+    }
+
+    public float getX(int index) {
+        return offsetsX[index];
+    }
+
+    public float getY(int index) {
+        return offsetsY[index];
+    }
+
+    /**
+     * Gets the height taken by the elements, without padding.
+     */
+    public float getContentHeight() {
+        return contentHeight;
+    }
+
+    /**
+     * Finds the index of the element at a point of the content area.
+     *
+     * @param x X relative to the content area
+     * @param y Y relative to the content area
+     * @return The element index, or -1 if the point is in a gap or outside every element
+     */
+    public int indexAt(float x, float y) {
+        if (count == 0 || y < 0) {
+            return -1;
+        }
+
+        if (vertical) {
+            // Last element starting at or above y
+            int index = lastStartingBefore(offsetsY, y);
+            return contains(index, x, y) ? index : -1;
+        }
+
+        if (horizontal) {
+            // Last element starting at or left of x
+            int index = lastStartingBefore(offsetsX, x);
+            return contains(index, x, y) ? index : -1;
+        }
+
+        // Elements overlap, the last drawn one is on top
+        for (int i = count - 1; i >= 0; i--) {
+            if (contains(i, x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the element at a point of the content area.
+     *
+     * @return The element, or null if there is none
+     */
+    public MenuElement elementAt(float x, float y) {
+        int index = indexAt(x, y);
+        return index >= 0 ? elements[index] : null;
+    }
+
+    private int lastStartingBefore(float[] offsets, float position) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private boolean contains(int index, float x, float y) {
+        MenuElement element = elements[index];
+        return x >= offsetsX[index] && x < offsetsX[index] + element.getWidth()
+            && y >= offsetsY[index] && y < offsetsY[index] + element.getHeight();
+    }
+}
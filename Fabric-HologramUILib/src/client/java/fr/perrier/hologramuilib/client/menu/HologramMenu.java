@@ -5,13 +5,18 @@ import fr.perrier.hologramuilib.client.animation.Animatable;
 import fr.perrier.hologramuilib.client.config.LayoutConfig;
 import fr.perrier.hologramuilib.client.config.MenuConfig;
 import fr.perrier.hologramuilib.client.config.StyleConfig;
+import fr.perrier.hologramuilib.client.interaction.MenuInteractionState;
+import fr.perrier.hologramuilib.client.menu.elements.AbstractMenuElement;
+import fr.perrier.hologramuilib.protocol.LodDefaults;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,11 +27,17 @@ import java.util.List;
  */
 public class HologramMenu {
 
+    /**
+     * ID of the element holding the menu title, kept at reduced level of detail.
+     */
+    public static final String TITLE_ELEMENT_ID = "__title__";
+
     private final String id;
     private Vec3d position;
     private float yaw; // Rotation around Y axis
     private final List<MenuElement> elements;
     private AnimationManager animationManager;
+    private int animationGroup = -1; // Budget group of the elements in the animation manager
 
     // Style properties
     private float width;
@@ -49,10 +60,26 @@ public class HologramMenu {
     private float spacing;
     private LayoutConfig.Alignment alignment;
 
+    // Level of detail
+    private boolean lodEnabled;
+    private double lodReducedDistance;
+    private double lodImpostorDistance;
+    private float lodFullMinScreenHeight;
+    private float lodReducedMinScreenHeight;
+    private StyleConfig.LodLevel lodLevel;
+
     // State
     private boolean visible;
-    private MenuElement hoveredElement;
+    private final MenuInteractionState interactionState = new MenuInteractionState(this);
     private boolean autoHeight; // Track if height should be auto-calculated
+    private boolean dirty = true; // Cached mesh must be rebuilt
+    private boolean culled = false; // Not rendered during the last frame
+    private final MenuGeometry geometry = new MenuGeometry();
+    private boolean geometryValid = false; // Geometry must be recomputed before use
+    private final ElementLayout elementLayout = new ElementLayout();
+    private boolean layoutValid = false; // Layout must be rebuilt before use
+    private int layoutVersion = 0; // Bumped on every invalidation, checked by nested container layouts
+    private MenuSpatialIndex spatialIndex; // Index this menu is registered in, if any
 
     // Auto-update system
     private boolean autoUpdate = false;
@@ -89,6 +116,13 @@ public class HologramMenu {
         this.spacing = 4;
         this.alignment = LayoutConfig.Alignment.CENTER;
 
+        this.lodEnabled = LodDefaults.ENABLED;
+        this.lodReducedDistance = LodDefaults.REDUCED_DISTANCE;
+        this.lodImpostorDistance = LodDefaults.IMPOSTOR_DISTANCE;
+        this.lodFullMinScreenHeight = LodDefaults.FULL_MIN_SCREEN_HEIGHT;
+        this.lodReducedMinScreenHeight = LodDefaults.REDUCED_MIN_SCREEN_HEIGHT;
+        this.lodLevel = StyleConfig.LodLevel.FULL;
+
         this.visible = true;
         this.autoHeight = false;
     }
@@ -129,6 +163,15 @@ public class HologramMenu {
                 this.borderColor = border.getColorInt();
                 this.borderWidth = border.getWidth();
             }
+
+            StyleConfig.LodConfig lod = style.getLod();
+            if (lod != null) {
+                this.lodEnabled = lod.isEnabled();
+                this.lodReducedDistance = lod.getReducedDistance();
+                this.lodImpostorDistance = lod.getImpostorDistance();
+                this.lodFullMinScreenHeight = lod.getFullMinScreenHeight();
+                this.lodReducedMinScreenHeight = lod.getReducedMinScreenHeight();
+            }
         }
 
         LayoutConfig layout = config.getLayout();
@@ -138,6 +181,8 @@ public class HologramMenu {
             this.spacing = layout.getSpacing();
             this.alignment = layout.getAlignment();
         }
+        invalidateGeometry();
+        invalidateLayout();
     }
 
     /**
@@ -152,51 +197,107 @@ public class HologramMenu {
         matrices.push();
         matrices.translate(padding, padding, 0.1f); // 0.1 Z offset to prevent z-fighting
 
-        float currentY = 0;
-
-        for (MenuElement element : elements) {
-            float elementX = calculateElementX(element);
+        ElementLayout layout = getLayout();
+        MenuElement hoveredElement = interactionState.getHoveredElement();
+        for (int i = 0; i < layout.size(); i++) {
+            MenuElement element = layout.getElement(i);
             boolean hovered = element == hoveredElement;
 
-            element.render(matrices, textRenderer, vertexConsumers, elementX, currentY, hovered, tickDelta);
-
-            if (layoutType == LayoutConfig.LayoutType.VERTICAL) {
-                currentY += element.getHeight() + spacing;
-            }
+            element.render(matrices, textRenderer, vertexConsumers, layout.getX(i), layout.getY(i), hovered, tickDelta);
         }
 
         matrices.pop();
     }
 
     /**
-     * Calculates the X position for an element based on alignment.
+     * Renders only the title element, used at reduced level of detail.
      */
-    private float calculateElementX(MenuElement element) {
-        float availableWidth = width - (padding * 2);
+    public void renderTitle(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers, float tickDelta) {
+        if (!visible) {
+            return;
+        }
 
-        return switch (alignment) {
-            case CENTER -> (availableWidth - element.getWidth()) / 2;
-            case RIGHT -> availableWidth - element.getWidth();
-            default -> 0; // LEFT
-        };
+        ElementLayout layout = getLayout();
+        for (int i = 0; i < layout.size(); i++) {
+            MenuElement element = layout.getElement(i);
+            if (TITLE_ELEMENT_ID.equals(element.getId())) {
+                matrices.push();
+                matrices.translate(padding, padding, 0.1f);
+                element.render(matrices, textRenderer, vertexConsumers, layout.getX(i), layout.getY(i), false, tickDelta);
+                matrices.pop();
+                return;
+            }
+        }
     }
 
     /**
-     * Calculates the total content height including padding and spacing.
+     * Gets the resolved element positions, shared by rendering, raycasting and debug overlays.
+     * Only rebuilt after elements, sizes or layout settings changed.
      */
-    public float calculateContentHeight() {
-        if (elements.isEmpty()) {
-            return padding * 2;
+    public ElementLayout getLayout() {
+        if (!layoutValid) {
+            elementLayout.rebuild(elements, layoutType, alignment, width - (padding * 2), spacing);
+            layoutValid = true;
         }
+        return elementLayout;
+    }
 
-        float totalHeight = padding * 2;
-        for (int i = 0; i < elements.size(); i++) {
-            totalHeight += elements.get(i).getHeight();
-            if (i < elements.size() - 1) {
-                totalHeight += spacing;
-            }
+    /**
+     * Drops the element layout, to be called whenever an element changes size.
+     */
+    public void invalidateLayout() {
+        this.layoutValid = false;
+        this.layoutVersion++;
+        markDirty();
+    }
+
+    /**
+     * Gets a counter bumped every time the layout is invalidated.
+     * Containers compare it to know when the layout of their children must be rebuilt too.
+     */
+    public int getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    /**
+     * Finds the element at a point of the menu.
+     *
+     * @param menuX X in menu space (0 = left edge)
+     * @param menuY Y in menu space (0 = top edge)
+     * @return The element at the position, or null if none
+     */
+    @Nullable
+    public MenuElement getElementAt(float menuX, float menuY) {
+        return getLayout().elementAt(menuX - padding, menuY - padding);
+    }
+
+    /**
+     * Finds the innermost element at a point of the menu, descending into containers.
+     *
+     * @param menuX X in menu space (0 = left edge)
+     * @param menuY Y in menu space (0 = top edge)
+     * @param hit Receives the element and the point relative to it, cleared if there is none
+     * @return true if an element was hit
+     */
+    public boolean hitTest(float menuX, float menuY, ElementHit hit) {
+        ElementLayout layout = getLayout();
+        float x = menuX - padding;
+        float y = menuY - padding;
+        int index = layout.indexAt(x, y);
+        if (index < 0) {
+            hit.clear();
+            return false;
         }
-        return totalHeight;
+
+        layout.getElement(index).hitTest(x - layout.getX(index), y - layout.getY(index), hit);
+        return true;
+    }
+
+    /**
+     * Calculates the total content height including padding and spacing.
+     */
+    public float calculateContentHeight() {
+        return padding * 2 + getLayout().getContentHeight();
     }
 
     /**
@@ -204,31 +305,135 @@ public class HologramMenu {
      * Also adjusts the position to prevent clipping through blocks.
      */
     public void recalculateAutoHeight() {
+        layoutValid = false;
+        layoutVersion++;
         if (autoHeight) {
             this.height = calculateContentHeight();
             // Recalculate position to account for new height
             this.position = adjustPositionForCollision(this.position);
+            invalidateGeometry();
+        }
+        markDirty();
+    }
+
+    /**
+     * Marks the menu content as changed so its cached mesh gets rebuilt on the next frame.
+     * Position, rotation and scale are applied at draw time and do not need this.
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    /**
+     * Checks if the menu content changed since the last {@link #clearDirty()}.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Clears the dirty flag once the cached mesh has been rebuilt.
+     */
+    public void clearDirty() {
+        this.dirty = false;
+    }
+
+    /**
+     * Checks if the menu currently looks the same from one frame to the next,
+     * meaning it can be drawn from a cached mesh.
+     * This is false while any element is animated or changes on its own.
+     */
+    public boolean isCacheable() {
+        return isCacheable(false);
+    }
+
+    /**
+     * Checks if the menu can be drawn from a cached mesh.
+     *
+     * @param deferredTransforms If the cache can apply the translation, scale, rotation and opacity
+     *                           animations of elements itself (see {@link AbstractMenuElement#canDeferTransform()}),
+     *                           in which case such animations do not prevent caching
+     */
+    public boolean isCacheable(boolean deferredTransforms) {
+        if (lodLevel == StyleConfig.LodLevel.IMPOSTOR) {
+            return true;
+        }
+
+        boolean titleOnly = lodLevel == StyleConfig.LodLevel.REDUCED;
+        for (int i = 0; i < elements.size(); i++) {
+            MenuElement element = elements.get(i);
+            if (titleOnly && !TITLE_ELEMENT_ID.equals(element.getId())) {
+                continue;
+            }
+            if (!element.isCacheable()) {
+                return false;
+            }
+            if (element instanceof AbstractMenuElement animated && animated.isAnimating()) {
+                boolean deferred = deferredTransforms && animated.canDeferTransform()
+                    && animated.getAnimationManager().isTransformOnly(animated.getAnimationHandle());
+                if (!deferred) {
+                    return false;
+                }
+            }
         }
+        return true;
     }
 
     // Element management
 
     public void addElement(MenuElement element) {
         elements.add(element);
+        element.setParentMenu(this);
         // Set animation manager if element supports animations
         if (element instanceof Animatable animatable && animationManager != null) {
             animatable.setAnimationManager(animationManager);
         }
+        assignAnimationGroup(element);
         recalculateAutoHeight();
     }
 
+    /**
+     * Inserts an element at a position, like {@link #addElement(MenuElement)} otherwise.
+     *
+     * @param index Position in {@link #getElements()}, clamped to the element count
+     */
+    public void insertElement(int index, MenuElement element) {
+        elements.add(Math.max(0, Math.min(index, elements.size())), element);
+        element.setParentMenu(this);
+        if (element instanceof Animatable animatable && animationManager != null) {
+            animatable.setAnimationManager(animationManager);
+        }
+        assignAnimationGroup(element);
+        recalculateAutoHeight();
+    }
+
+    /**
+     * Moves an element to another position, keeping its state.
+     *
+     * @param index New position in {@link #getElements()}, clamped to the valid range
+     */
+    public void moveElement(MenuElement element, int index) {
+        if (elements.remove(element)) {
+            elements.add(Math.max(0, Math.min(index, elements.size())), element);
+            invalidateLayout();
+        }
+    }
+
     public void removeElement(MenuElement element) {
-        elements.remove(element);
+        if (elements.remove(element)) {
+            // Same cleanup as MenuManager.destroyMenu, animations would outlive the element
+            if (animationManager != null && element.getId() != null) {
+                animationManager.cancelAll(element.getId());
+            }
+            element.setParentMenu(null);
+        }
         recalculateAutoHeight();
     }
 
     public void clearElements() {
+        elements.forEach(element -> element.setParentMenu(null));
         elements.clear();
+        invalidateLayout();
     }
 
     public List<MenuElement> getElements() {
@@ -262,6 +467,46 @@ public class HologramMenu {
 
     public void setPosition(Vec3d position) {
         this.position = adjustPositionForCollision(position);
+        invalidateGeometry();
+    }
+
+    /**
+     * Gets the world-space box enclosing the menu quad.
+     * The box follows position, yaw, size and scale and is only recomputed after one of them changes.
+     *
+     * @return The axis-aligned bounds of the menu in world space
+     */
+    public Box getWorldBounds() {
+        return getGeometry().getBounds();
+    }
+
+    /**
+     * Gets the world-space geometry of the menu (plane basis, bounding sphere and box).
+     * Only recomputed after the position, yaw, size or scale changed.
+     */
+    public MenuGeometry getGeometry() {
+        if (!geometryValid) {
+            geometry.update(position, yaw, width, height, scale);
+            geometryValid = true;
+        }
+        return geometry;
+    }
+
+    /**
+     * Drops the cached geometry and moves the menu in the spatial index it belongs to.
+     */
+    private void invalidateGeometry() {
+        this.geometryValid = false;
+        if (spatialIndex != null) {
+            spatialIndex.update(this);
+        }
+    }
+
+    /**
+     * Sets the spatial index this menu reports its moves to. Managed by {@link MenuSpatialIndex}.
+     */
+    void setSpatialIndex(MenuSpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
     }
 
     /**
@@ -303,6 +548,7 @@ public class HologramMenu {
 
     public void setYaw(float yaw) {
         this.yaw = yaw;
+        invalidateGeometry();
     }
 
     public float getWidth() {
@@ -311,6 +557,8 @@ public class HologramMenu {
 
     public void setWidth(float width) {
         this.width = width;
+        invalidateGeometry();
+        invalidateLayout();
     }
 
     public float getHeight() {
@@ -325,6 +573,8 @@ public class HologramMenu {
             this.autoHeight = false;
             this.height = height;
         }
+        invalidateGeometry();
+        markDirty();
     }
 
     public float getScale() {
@@ -333,6 +583,7 @@ public class HologramMenu {
 
     public void setScale(float scale) {
         this.scale = scale;
+        invalidateGeometry();
     }
 
     public double getMaxRenderDistance() {
@@ -341,6 +592,9 @@ public class HologramMenu {
 
     public void setMaxRenderDistance(double maxRenderDistance) {
         this.maxRenderDistance = maxRenderDistance;
+        if (spatialIndex != null) {
+            spatialIndex.update(this);
+        }
     }
 
     public boolean hasBackground() {
@@ -349,6 +603,7 @@ public class HologramMenu {
 
     public void setHasBackground(boolean hasBackground) {
         this.hasBackground = hasBackground;
+        markDirty();
     }
 
     public int getBackgroundColor() {
@@ -357,6 +612,7 @@ public class HologramMenu {
 
     public void setBackgroundColor(int backgroundColor) {
         this.backgroundColor = backgroundColor;
+        markDirty();
     }
 
     public boolean hasBorder() {
@@ -365,6 +621,7 @@ public class HologramMenu {
 
     public void setHasBorder(boolean hasBorder) {
         this.hasBorder = hasBorder;
+        markDirty();
     }
 
     public int getBorderColor() {
@@ -373,6 +630,7 @@ public class HologramMenu {
 
     public void setBorderColor(int borderColor) {
         this.borderColor = borderColor;
+        markDirty();
     }
 
     public float getBorderWidth() {
@@ -381,6 +639,7 @@ public class HologramMenu {
 
     public void setBorderWidth(float borderWidth) {
         this.borderWidth = borderWidth;
+        markDirty();
     }
 
     public float getPadding() {
@@ -389,6 +648,7 @@ public class HologramMenu {
 
     public void setPadding(float padding) {
         this.padding = padding;
+        invalidateLayout();
     }
 
     public float getSpacing() {
@@ -397,6 +657,7 @@ public class HologramMenu {
 
     public void setSpacing(float spacing) {
         this.spacing = spacing;
+        invalidateLayout();
     }
 
     public boolean isVisible() {
@@ -405,35 +666,135 @@ public class HologramMenu {
 
     public void setVisible(boolean visible) {
         this.visible = visible;
+        markDirty();
     }
 
-    public MenuElement getHoveredElement() {
-        return hoveredElement;
+    /**
+     * Chooses the level of detail for the given viewing conditions.
+     * The coarsest level required by either the distance or the projected size wins.
+     *
+     * @param distance Distance from the camera in blocks
+     * @param screenHeight Projected height of the menu on screen, in pixels
+     * @return The level of detail to render with
+     */
+    public StyleConfig.LodLevel computeLodLevel(double distance, float screenHeight) {
+        if (!lodEnabled) {
+            return StyleConfig.LodLevel.FULL;
+        }
+
+        if (distance > lodImpostorDistance || screenHeight < lodReducedMinScreenHeight) {
+            return StyleConfig.LodLevel.IMPOSTOR;
+        }
+        if (distance > lodReducedDistance || screenHeight < lodFullMinScreenHeight) {
+            return StyleConfig.LodLevel.REDUCED;
+        }
+        return StyleConfig.LodLevel.FULL;
     }
 
-    public void setHoveredElement(MenuElement hoveredElement) {
-        if (this.hoveredElement != hoveredElement) {
-            if (this.hoveredElement != null) {
-                this.hoveredElement.onHoverEnd();
-            }
-            this.hoveredElement = hoveredElement;
-            if (hoveredElement != null) {
-                hoveredElement.onHoverStart();
-            }
+    public StyleConfig.LodLevel getLodLevel() {
+        return lodLevel;
+    }
+
+    public void setLodLevel(StyleConfig.LodLevel lodLevel) {
+        if (this.lodLevel != lodLevel) {
+            this.lodLevel = lodLevel;
+            markDirty();
         }
     }
 
+    public boolean isLodEnabled() {
+        return lodEnabled;
+    }
+
+    public void setLodEnabled(boolean lodEnabled) {
+        this.lodEnabled = lodEnabled;
+    }
+
+    public double getLodReducedDistance() {
+        return lodReducedDistance;
+    }
+
+    public double getLodImpostorDistance() {
+        return lodImpostorDistance;
+    }
+
+    /**
+     * Sets the distances at which the menu drops to reduced and impostor level of detail.
+     */
+    public void setLodDistances(double reducedDistance, double impostorDistance) {
+        this.lodReducedDistance = reducedDistance;
+        this.lodImpostorDistance = impostorDistance;
+    }
+
+    public float getLodFullMinScreenHeight() {
+        return lodFullMinScreenHeight;
+    }
+
+    public float getLodReducedMinScreenHeight() {
+        return lodReducedMinScreenHeight;
+    }
+
+    /**
+     * Sets the minimum projected heights (in screen pixels) for full and reduced level of detail.
+     */
+    public void setLodScreenHeights(float fullMinScreenHeight, float reducedMinScreenHeight) {
+        this.lodFullMinScreenHeight = fullMinScreenHeight;
+        this.lodReducedMinScreenHeight = reducedMinScreenHeight;
+    }
+
+    /**
+     * Checks if the menu was culled (out of range, outside the view or occluded) during the last frame.
+     * Culled menus are skipped by hover detection.
+     */
+    public boolean isCulled() {
+        return culled;
+    }
+
+    public void setCulled(boolean culled) {
+        this.culled = culled;
+    }
+
+    /**
+     * Gets the element shown as hovered, see {@link #getInteractionState()}.
+     */
+    public MenuElement getHoveredElement() {
+        return interactionState.getHoveredElement();
+    }
+
+    /**
+     * Gets the interaction state of the menu, moved by the
+     * {@link fr.perrier.hologramuilib.client.interaction.InteractionHandler} once per tick.
+     */
+    public MenuInteractionState getInteractionState() {
+        return interactionState;
+    }
+
     public AnimationManager getAnimationManager() {
         return animationManager;
     }
 
     public void setAnimationManager(AnimationManager animationManager) {
         this.animationManager = animationManager;
+        this.animationGroup = animationManager != null ? animationManager.getGroupHandle(id) : -1;
         // Update all existing elements
         for (MenuElement element : elements) {
             if (element instanceof Animatable animatable) {
                 animatable.setAnimationManager(animationManager);
             }
+            assignAnimationGroup(element);
+        }
+    }
+
+    /**
+     * Gets the budget group of this menu's elements in the animation manager, -1 without a manager.
+     */
+    public int getAnimationGroup() {
+        return animationGroup;
+    }
+
+    private void assignAnimationGroup(MenuElement element) {
+        if (animationManager != null && element.getId() != null) {
+            animationManager.assignGroup(animationManager.getElementHandle(element.getId()), animationGroup);
         }
     }
 
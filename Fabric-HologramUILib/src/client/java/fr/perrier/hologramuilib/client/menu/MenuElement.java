@@ -85,6 +85,39 @@ public interface MenuElement {
      */
     float getHeight();
 
+    /**
+     * Sets the menu this element belongs to.
+     * Elements use it to notify the menu when their content changes.
+     *
+     * @param menu The parent menu, or null when the element is removed
+     */
+    default void setParentMenu(HologramMenu menu) {
+        // Default: do nothing
+    }
+
+    /**
+     * Checks if the current look of this element can be kept in a cached mesh.
+     * Elements whose appearance changes on their own (animated images, loading states...)
+     * should return false while that is the case.
+     *
+     * @return true if the element can be cached
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * Finds the innermost element at a point of this element.
+     * Containers descend into the child under the point, other elements are the hit themselves.
+     *
+     * @param localX X relative to the left edge of this element
+     * @param localY Y relative to the top edge of this element
+     * @param hit Receives the innermost element and the point relative to it
+     */
+    default void hitTest(float localX, float localY, ElementHit hit) {
+        hit.set(this, localX, localY);
+    }
+
     /**
      * Record representing the bounds of a menu element.
      */
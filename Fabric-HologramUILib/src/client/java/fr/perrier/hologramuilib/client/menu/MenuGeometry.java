@@ -0,0 +1,126 @@
+package fr.perrier.hologramuilib.client.menu;
+
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * World-space geometry of a menu, derived from its position, yaw, size and scale.
+ *
+ * Holds everything raycasting and culling need so they do not redo trigonometry per test:
+ * the plane basis, a bounding sphere and an axis-aligned box. Owned by its menu and only
+ * refreshed after one of the inputs changed (see {@link HologramMenu#getGeometry()}).
+ */
+public class MenuGeometry {
+
+    // Extra margin around the quad, covers Z offsets and small element animations
+    private static final double BOUNDS_MARGIN = 0.1;
+
+    private double centerX;
+    private double centerY;
+    private double centerZ;
+
+    // Plane normal, the direction the menu faces (always horizontal)
+    private double normalX;
+    private double normalZ;
+
+    // Rotation from world to menu-local X (the menu is rendered rotated by 180 - yaw)
+    private double localCos;
+    private double localSin;
+
+    private double inverseScale;
+    private double halfWidth;
+    private double halfHeight;
+    private double boundingRadius;
+    private Box bounds;
+
+    void update(Vec3d position, float yaw, float width, float height, float scale) {
+        centerX = position.x;
+        centerY = position.y;
+        centerZ = position.z;
+
+        double yawRad = Math.toRadians(yaw);
+        normalX = -Math.sin(yawRad);
+        normalZ = Math.cos(yawRad);
+
+        double localYawRad = Math.toRadians(180 - yaw);
+        localCos = Math.cos(localYawRad);
+        localSin = Math.sin(localYawRad);
+
+        inverseScale = 1.0 / scale;
+        halfWidth = width / 2.0;
+        halfHeight = height / 2.0;
+
+        double worldHalfWidth = halfWidth * scale;
+        double worldHalfHeight = halfHeight * scale;
+        boundingRadius = Math.sqrt(worldHalfWidth * worldHalfWidth + worldHalfHeight * worldHalfHeight) + BOUNDS_MARGIN;
+
+        // The local X axis spreads over both world X and Z
+        double extentX = worldHalfWidth * Math.abs(localCos) + BOUNDS_MARGIN;
+        double extentY = worldHalfHeight + BOUNDS_MARGIN;
+        double extentZ = worldHalfWidth * Math.abs(localSin) + BOUNDS_MARGIN;
+        bounds = new Box(
+            centerX - extentX, centerY - extentY, centerZ - extentZ,
+            centerX + extentX, centerY + extentY, centerZ + extentZ
+        );
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+
+    public double getCenterZ() {
+        return centerZ;
+    }
+
+    public double getNormalX() {
+        return normalX;
+    }
+
+    public double getNormalZ() {
+        return normalZ;
+    }
+
+    public double getLocalCos() {
+        return localCos;
+    }
+
+    public double getLocalSin() {
+        return localSin;
+    }
+
+    public double getInverseScale() {
+        return inverseScale;
+    }
+
+    /**
+     * Gets half the menu width, in menu units.
+     */
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * Gets half the menu height, in menu units.
+     */
+    public double getHalfHeight() {
+        return halfHeight;
+    }
+
+    /**
+     * Gets the radius of a sphere around the center enclosing the whole quad, in blocks.
+     */
+    public double getBoundingRadius() {
+        return boundingRadius;
+    }
+
+    /**
+     * Gets the axis-aligned box enclosing the quad, in world space.
+     */
+    public Box getBounds() {
+        return bounds;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Display conditions (distance, line of sight, etc.)
  * - Lifecycle management (create, update, destroy)
  * - Multi-menu support
+ * - Spatial index for radius and ray queries
  */
 public class MenuManager {
 
@@ -31,6 +32,7 @@ public class MenuManager {
     private final Map<String, MenuConditions> menuConditions;
     private final AnimationManager animationManager;
     private final MenuCache menuCache;
+    private final MenuSpatialIndex spatialIndex;
 
     // Statistics
     private long menusCreated = 0;
@@ -41,6 +43,7 @@ public class MenuManager {
         this.menuConditions = new ConcurrentHashMap<>();
         this.animationManager = new AnimationManager();
         this.menuCache = new MenuCache();
+        this.spatialIndex = new MenuSpatialIndex();
     }
 
     public static MenuManager getInstance() {
@@ -65,7 +68,15 @@ public class MenuManager {
     }
 
     /**
-     * Ticks the menu manager, updating animations and cleaning up expired cache.
+     * Gets the spatial index of the active menus.
+     * Prefer its radius and ray queries over scanning {@link #getActiveMenus()}.
+     */
+    public MenuSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Ticks the menu manager, advancing the animation clock and cleaning up expired cache.
      */
     public void tick() {
         animationManager.tick();
@@ -99,7 +110,7 @@ public class MenuManager {
     public HologramMenu createMenu(String id) {
         HologramMenu menu = new HologramMenu(id);
         menu.setAnimationManager(animationManager);
-        menus.put(id, menu);
+        track(menu);
         menusCreated++;
         LOGGER.debug("Created menu: {}", id);
         return menu;
@@ -167,11 +178,22 @@ public class MenuManager {
      */
     public void registerMenu(HologramMenu menu) {
         menu.setAnimationManager(animationManager);
-        menus.put(menu.getId(), menu);
+        track(menu);
         menusCreated++;
         LOGGER.debug("Registered menu: {}", menu.getId());
     }
 
+    /**
+     * Adds a menu to the active menus and the spatial index, replacing any menu with the same ID.
+     */
+    private void track(HologramMenu menu) {
+        HologramMenu previous = menus.put(menu.getId(), menu);
+        if (previous != null && previous != menu) {
+            spatialIndex.remove(previous);
+        }
+        spatialIndex.add(menu);
+    }
+
     /**
      * Gets a menu by its ID.
      *
@@ -202,6 +224,7 @@ public class MenuManager {
         MenuConditions conditions = menuConditions.remove(id);
         HologramMenu menu = menus.remove(id);
         if (menu != null) {
+            spatialIndex.remove(menu);
             menusDestroyed++;
             LOGGER.debug("Removed menu: {}", id);
         }
@@ -257,6 +280,7 @@ public class MenuManager {
     public void clearAllMenus() {
         menus.keySet().forEach(this::destroyMenu);
         menus.clear();
+        spatialIndex.clear();
         menuConditions.clear();
         animationManager.clear();
         LOGGER.info("Cleared all menus");
@@ -0,0 +1,370 @@
+package fr.perrier.hologramuilib.client.menu;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index of menus, bucketed by chunk section (16x16x16 blocks).
+ *
+ * A menu is registered in every section its world bounds overlap, so radius and ray
+ * queries only have to look at the sections they cross. Menus keep the index up to date
+ * themselves whenever their bounds or render distance change.
+ * Like the rest of the menu system, it must only be used from the client thread.
+ */
+public class MenuSpatialIndex {
+
+    private final Long2ObjectOpenHashMap<List<Entry>> sections = new Long2ObjectOpenHashMap<>();
+    private final Map<HologramMenu, Entry> entries = new IdentityHashMap<>();
+
+    // Only recomputed when the menu holding it lowers its render distance or is removed
+    private double maxRenderDistance = 0;
+    private boolean maxRenderDistanceDirty = false;
+
+    // Incremented for every query, used to report each menu only once
+    private int queryStamp = 0;
+
+    /**
+     * Adds a menu to the index. The menu will notify the index when it moves.
+     */
+    public void add(HologramMenu menu) {
+        if (entries.containsKey(menu)) {
+            update(menu);
+            return;
+        }
+
+        Entry entry = new Entry(menu);
+        entries.put(menu, entry);
+        entry.setSections(menu.getWorldBounds());
+        entry.renderDistance = menu.getMaxRenderDistance();
+        link(entry);
+        menu.setSpatialIndex(this);
+        maxRenderDistance = Math.max(maxRenderDistance, entry.renderDistance);
+    }
+
+    /**
+     * Removes a menu from the index.
+     */
+    public void remove(HologramMenu menu) {
+        Entry entry = entries.remove(menu);
+        if (entry != null) {
+            unlink(entry);
+            menu.setSpatialIndex(null);
+            if (entry.renderDistance >= maxRenderDistance) {
+                maxRenderDistanceDirty = true;
+            }
+        }
+    }
+
+    /**
+     * Updates the sections of a menu after its bounds or render distance changed.
+     */
+    public void update(HologramMenu menu) {
+        Entry entry = entries.get(menu);
+        if (entry == null) {
+            return;
+        }
+
+        Box bounds = menu.getWorldBounds();
+        if (!entry.hasSameSections(bounds)) {
+            unlink(entry);
+            entry.setSections(bounds);
+            link(entry);
+        }
+
+        double renderDistance = menu.getMaxRenderDistance();
+        if (renderDistance != entry.renderDistance) {
+            if (renderDistance >= maxRenderDistance) {
+                maxRenderDistance = renderDistance;
+            } else if (entry.renderDistance >= maxRenderDistance) {
+                maxRenderDistanceDirty = true;
+            }
+            entry.renderDistance = renderDistance;
+        }
+    }
+
+    /**
+     * Removes every menu from the index.
+     */
+    public void clear() {
+        entries.keySet().forEach(menu -> menu.setSpatialIndex(null));
+        entries.clear();
+        sections.clear();
+        maxRenderDistance = 0;
+        maxRenderDistanceDirty = false;
+    }
+
+    /**
+     * Gets the number of indexed menus.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of non-empty sections.
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Gets the largest render distance among indexed menus.
+     * Querying this radius around the camera returns every menu that may be rendered.
+     */
+    public double getMaxRenderDistance() {
+        if (maxRenderDistanceDirty) {
+            double max = 0;
+            for (HologramMenu menu : entries.keySet()) {
+                max = Math.max(max, menu.getMaxRenderDistance());
+            }
+            maxRenderDistance = max;
+            maxRenderDistanceDirty = false;
+        }
+        return maxRenderDistance;
+    }
+
+    /**
+     * Collects the menus whose world bounds are within a radius of a point.
+     *
+     * @param x Center X
+     * @param y Center Y
+     * @param z Center Z
+     * @param radius Radius in blocks
+     * @param out List the menus are appended to
+     */
+    public void queryRadius(double x, double y, double z, double radius, List<HologramMenu> out) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        int stamp = ++queryStamp;
+        double radiusSquared = radius * radius;
+
+        int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(x - radius));
+        int minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(y - radius));
+        int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(z - radius));
+        int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(x + radius));
+        int maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(y + radius));
+        int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(z + radius));
+
+        long queriedSections = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (queriedSections > sections.size()) {
+            // Large radius, walking the occupied sections is cheaper than probing empty ones
+            for (List<Entry> bucket : sections.values()) {
+                collectInRadius(bucket, x, y, z, radiusSquared, stamp, out);
+            }
+            return;
+        }
+
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sy = minY; sy <= maxY; sy++) {
+                for (int sz = minZ; sz <= maxZ; sz++) {
+                    List<Entry> bucket = sections.get(ChunkSectionPos.asLong(sx, sy, sz));
+                    if (bucket != null) {
+                        collectInRadius(bucket, x, y, z, radiusSquared, stamp, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the menus whose world bounds intersect a ray, walking the sections it crosses.
+     * Menus are appended in no particular order.
+     *
+     * @param originX Ray origin X
+     * @param originY Ray origin Y
+     * @param originZ Ray origin Z
+     * @param dirX Normalized ray direction X
+     * @param dirY Normalized ray direction Y
+     * @param dirZ Normalized ray direction Z
+     * @param maxDistance Length of the ray in blocks
+     * @param out List the menus are appended to
+     */
+    public void queryRay(double originX, double originY, double originZ,
+                         double dirX, double dirY, double dirZ,
+                         double maxDistance, List<HologramMenu> out) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        int stamp = ++queryStamp;
+
+        int sectionX = ChunkSectionPos.getSectionCoord(MathHelper.floor(originX));
+        int sectionY = ChunkSectionPos.getSectionCoord(MathHelper.floor(originY));
+        int sectionZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(originZ));
+
+        // Grid traversal (Amanatides & Woo) over 16-block sections
+        int stepX = dirX > 0 ? 1 : (dirX < 0 ? -1 : 0);
+        int stepY = dirY > 0 ? 1 : (dirY < 0 ? -1 : 0);
+        int stepZ = dirZ > 0 ? 1 : (dirZ < 0 ? -1 : 0);
+
+        double deltaX = stepX != 0 ? 16.0 / Math.abs(dirX) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? 16.0 / Math.abs(dirY) : Double.POSITIVE_INFINITY;
+        double deltaZ = stepZ != 0 ? 16.0 / Math.abs(dirZ) : Double.POSITIVE_INFINITY;
+
+        double nextX = stepX != 0 ? (((sectionX + (stepX > 0 ? 1 : 0)) << 4) - originX) / dirX : Double.POSITIVE_INFINITY;
+        double nextY = stepY != 0 ? (((sectionY + (stepY > 0 ? 1 : 0)) << 4) - originY) / dirY : Double.POSITIVE_INFINITY;
+        double nextZ = stepZ != 0 ? (((sectionZ + (stepZ > 0 ? 1 : 0)) << 4) - originZ) / dirZ : Double.POSITIVE_INFINITY;
+
+        while (true) {
+            List<Entry> bucket = sections.get(ChunkSectionPos.asLong(sectionX, sectionY, sectionZ));
+            if (bucket != null) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    Entry entry = bucket.get(i);
+                    if (entry.queryStamp != stamp) {
+                        entry.queryStamp = stamp;
+                        if (intersectsRay(entry.menu.getWorldBounds(), originX, originY, originZ, dirX, dirY, dirZ, maxDistance)) {
+                            out.add(entry.menu);
+                        }
+                    }
+                }
+            }
+
+            if (nextX <= nextY && nextX <= nextZ) {
+                if (nextX > maxDistance) {
+                    break;
+                }
+                sectionX += stepX;
+                nextX += deltaX;
+            } else if (nextY <= nextZ) {
+                if (nextY > maxDistance) {
+                    break;
+                }
+                sectionY += stepY;
+                nextY += deltaY;
+            } else {
+                if (nextZ > maxDistance) {
+                    break;
+                }
+                sectionZ += stepZ;
+                nextZ += deltaZ;
+            }
+        }
+    }
+
+    private void collectInRadius(List<Entry> bucket, double x, double y, double z, double radiusSquared,
+                                 int stamp, List<HologramMenu> out) {
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry entry = bucket.get(i);
+            if (entry.queryStamp == stamp) {
+                continue;
+            }
+            entry.queryStamp = stamp;
+
+            Box bounds = entry.menu.getWorldBounds();
+            double dx = Math.max(0, Math.max(bounds.minX - x, x - bounds.maxX));
+            double dy = Math.max(0, Math.max(bounds.minY - y, y - bounds.maxY));
+            double dz = Math.max(0, Math.max(bounds.minZ - z, z - bounds.maxZ));
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                out.add(entry.menu);
+            }
+        }
+    }
+
+    /**
+     * Slab test of a ray segment against a box.
+     */
+    private static boolean intersectsRay(Box box, double originX, double originY, double originZ,
+                                         double dirX, double dirY, double dirZ, double maxDistance) {
+        double tMin = 0;
+        double tMax = maxDistance;
+
+        double t1, t2;
+
+        if (dirX != 0) {
+            t1 = (box.minX - originX) / dirX;
+            t2 = (box.maxX - originX) / dirX;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (originX < box.minX || originX > box.maxX) {
+            return false;
+        }
+
+        if (dirY != 0) {
+            t1 = (box.minY - originY) / dirY;
+            t2 = (box.maxY - originY) / dirY;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (originY < box.minY || originY > box.maxY) {
+            return false;
+        }
+
+        if (dirZ != 0) {
+            t1 = (box.minZ - originZ) / dirZ;
+            t2 = (box.maxZ - originZ) / dirZ;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (originZ < box.minZ || originZ > box.maxZ) {
+            return false;
+        }
+
+        return tMin <= tMax;
+    }
+
+    private void link(Entry entry) {
+        for (int sx = entry.minX; sx <= entry.maxX; sx++) {
+            for (int sy = entry.minY; sy <= entry.maxY; sy++) {
+                for (int sz = entry.minZ; sz <= entry.maxZ; sz++) {
+                    sections.computeIfAbsent(ChunkSectionPos.asLong(sx, sy, sz), key -> new ArrayList<>(2)).add(entry);
+                }
+            }
+        }
+    }
+
+    private void unlink(Entry entry) {
+        for (int sx = entry.minX; sx <= entry.maxX; sx++) {
+            for (int sy = entry.minY; sy <= entry.maxY; sy++) {
+                for (int sz = entry.minZ; sz <= entry.maxZ; sz++) {
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    List<Entry> bucket = sections.get(key);
+                    if (bucket != null) {
+                        bucket.remove(entry);
+                        if (bucket.isEmpty()) {
+                            sections.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Index bookkeeping for one menu: the range of sections it is linked into.
+     */
+    private static final class Entry {
+        private final HologramMenu menu;
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private double renderDistance;
+        private int queryStamp;
+
+        private Entry(HologramMenu menu) {
+            this.menu = menu;
+        }
+
+        private void setSections(Box bounds) {
+            minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minX));
+            minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minY));
+            minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minZ));
+            maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxX));
+            maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxY));
+            maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxZ));
+        }
+
+        private boolean hasSameSections(Box bounds) {
+            return minX == ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minX))
+                && minY == ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minY))
+                && minZ == ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.minZ))
+                && maxX == ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxX))
+                && maxY == ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxY))
+                && maxZ == ChunkSectionPos.getSectionCoord(MathHelper.floor(bounds.maxZ));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package fr.perrier.hologramuilib.client.menu;
 import fr.perrier.hologramuilib.api.HologramMenuAPI;
 import fr.perrier.hologramuilib.client.animation.Animation;
 import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.AnimationPresets;
 import fr.perrier.hologramuilib.client.animation.AnimationProperties;
 import fr.perrier.hologramuilib.client.animation.Easing;
 import fr.perrier.hologramuilib.client.menu.elements.*;
@@ -12,6 +13,9 @@ import net.minecraft.util.math.Vec3d;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Contains all test and showcase menus for HologramUILib.
  * Separated from MainClient to keep the main initialization clean.
@@ -327,17 +331,12 @@ public class TestMenus {
         btnClose.setHoverColor(0x40FF0000);
         menu.addElement(btnClose);
 
-        // Staggered entrance animation for elements
+        // Staggered entrance animation for elements, played as a single timeline
+        List<String> elementIds = new ArrayList<>();
         for (int i = 0; i < menu.getElements().size(); i++) {
-            MenuElement element = menu.getElements().get(i);
-            Animation fadeIn = Animation.builder(AnimationProperties.OPACITY)
-                .from(0).to(1)
-                .duration(300)
-                .delay(i * 50L)
-                .easing(Easing::easeOutQuad)
-                .buildAndStart();
-            animManager.addAnimation(element.getId(), fadeIn);
+            elementIds.add(menu.getElements().get(i).getId());
         }
+        animManager.play(AnimationPresets.popIn(elementIds, 50L));
 
         menu.recalculateAutoHeight();
 
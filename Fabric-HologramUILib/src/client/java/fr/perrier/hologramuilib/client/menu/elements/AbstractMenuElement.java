@@ -2,7 +2,12 @@ package fr.perrier.hologramuilib.client.menu.elements;
 
 import fr.perrier.hologramuilib.client.animation.Animatable;
 import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.ElementTransform;
+import fr.perrier.hologramuilib.client.menu.HologramMenu;
 import fr.perrier.hologramuilib.client.menu.MenuElement;
+import fr.perrier.hologramuilib.client.render.DeferredElementTransforms;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.math.MatrixStack;
 
 /**
  * Abstract base class for menu elements.
@@ -15,6 +20,9 @@ public abstract class AbstractMenuElement implements MenuElement, Animatable {
     protected float width;
     protected float height;
     protected AnimationManager animationManager;
+    protected HologramMenu parentMenu;
+    private int animationHandle = -1; // Handle of the id in the animation manager, resolved lazily
+    private final ElementTransform transform = new ElementTransform();
 
     protected AbstractMenuElement(String id) {
         this.id = id;
@@ -36,6 +44,17 @@ public abstract class AbstractMenuElement implements MenuElement, Animatable {
         this.bounds = bounds;
     }
 
+    /**
+     * Updates the bounds of this element for the position it is rendered at.
+     * A new {@link Bounds} is only created when the position or size actually changed,
+     * so rendering a static element does not allocate.
+     */
+    protected void updateBounds(float x, float y) {
+        if (bounds.x() != x || bounds.y() != y || bounds.width() != width || bounds.height() != height) {
+            bounds = new Bounds(x, y, width, height);
+        }
+    }
+
     @Override
     public boolean isPointInside(float x, float y) {
         return bounds.contains(x, y);
@@ -66,6 +85,31 @@ public abstract class AbstractMenuElement implements MenuElement, Animatable {
         // Default: do nothing
     }
 
+    @Override
+    public void setParentMenu(HologramMenu menu) {
+        this.parentMenu = menu;
+    }
+
+    /**
+     * Notifies the parent menu that this element looks different and its cached mesh must be rebuilt.
+     * Should be called by every setter that changes what is rendered.
+     */
+    protected void markDirty() {
+        if (parentMenu != null) {
+            parentMenu.markDirty();
+        }
+    }
+
+    /**
+     * Notifies the parent menu that this element changed size, so element positions are laid out again.
+     * Also marks the menu dirty.
+     */
+    protected void markLayoutDirty() {
+        if (parentMenu != null) {
+            parentMenu.invalidateLayout();
+        }
+    }
+
     @Override
     public AnimationManager getAnimationManager() {
         return animationManager;
@@ -74,6 +118,88 @@ public abstract class AbstractMenuElement implements MenuElement, Animatable {
     @Override
     public void setAnimationManager(AnimationManager manager) {
         this.animationManager = manager;
+        this.animationHandle = -1;
+    }
+
+    /**
+     * Gets the handle of this element in its animation manager, resolved on first use.
+     *
+     * @return The handle, or -1 without an animation manager or ID
+     */
+    public int getAnimationHandle() {
+        if (animationHandle < 0 && animationManager != null && id != null) {
+            animationHandle = animationManager.getElementHandle(id);
+        }
+        return animationHandle;
+    }
+
+    /**
+     * Checks if this element has animations to read this frame.
+     * When false, every animated property is at its default and lookups can be skipped.
+     */
+    public boolean isAnimating() {
+        return animationManager != null && animationManager.isAnimating(getAnimationHandle());
+    }
+
+    /**
+     * Gets the sampled value of an animated property, by handle.
+     * Only valid after {@link #isAnimating()} returned true.
+     *
+     * @param propertyHandle The property handle, see {@link fr.perrier.hologramuilib.client.animation.AnimationProperties.Handles}
+     */
+    protected float animated(int propertyHandle, float defaultValue) {
+        return animationManager.getValue(animationHandle, propertyHandle, defaultValue);
+    }
+
+    /**
+     * Gets the animated transform, opacity and color of this element for this frame,
+     * read in one pass over its animations. At identity when nothing is animating.
+     * The returned instance is reused on the next call.
+     */
+    protected ElementTransform animatedTransform() {
+        if (isAnimating()) {
+            animationManager.readTransform(animationHandle, transform);
+        } else {
+            transform.reset();
+        }
+        return transform;
+    }
+
+    /**
+     * Checks if this element renders through {@link #beginAnimatedTransform}, so its transform
+     * animations can be applied on top of a cached mesh instead of rebuilding it.
+     */
+    public boolean canDeferTransform() {
+        return false;
+    }
+
+    /**
+     * Gets the animated transform to apply while rendering this element, like {@link #animatedTransform()}.
+     * When rendering into a {@link DeferredElementTransforms} provider, the element is registered there
+     * and the transform returned is at identity: the geometry is captured at rest and the provider
+     * animates it at draw time. Must be paired with {@link #endAnimatedTransform}.
+     *
+     * @param pivotX Center of scale and rotation, in the current matrix space
+     * @param hoverScaled If the element scales by the hover scale as well
+     */
+    protected ElementTransform beginAnimatedTransform(MatrixStack matrices, VertexConsumerProvider vertexConsumers,
+                                                      float pivotX, float pivotY, boolean hoverScaled) {
+        if (vertexConsumers instanceof DeferredElementTransforms deferred) {
+            int handle = isAnimating() ? animationHandle : -1;
+            deferred.beginElement(handle, matrices.peek().getPositionMatrix(), pivotX, pivotY, hoverScaled);
+            transform.reset();
+            return transform;
+        }
+        return animatedTransform();
+    }
+
+    /**
+     * Ends the element started by {@link #beginAnimatedTransform}.
+     */
+    protected void endAnimatedTransform(VertexConsumerProvider vertexConsumers) {
+        if (vertexConsumers instanceof DeferredElementTransforms deferred) {
+            deferred.endElement();
+        }
     }
 }
 
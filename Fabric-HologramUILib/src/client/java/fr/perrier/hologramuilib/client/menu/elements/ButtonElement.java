@@ -1,7 +1,7 @@
 package fr.perrier.hologramuilib.client.menu.elements;
 
 import fr.perrier.hologramuilib.client.animation.AnimationPresets;
-import fr.perrier.hologramuilib.client.animation.AnimationProperties;
+import fr.perrier.hologramuilib.client.animation.ElementTransform;
 import fr.perrier.hologramuilib.client.config.ItemConfig;
 import fr.perrier.hologramuilib.client.interaction.ActionRegistry;
 import fr.perrier.hologramuilib.util.ColorHelper;
@@ -78,26 +78,32 @@ public class ButtonElement extends AbstractMenuElement {
         return button;
     }
 
+    @Override
+    public boolean canDeferTransform() {
+        return true;
+    }
+
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
         this.hovered = hovered;
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
 
+        // Animated properties, all at their default when nothing is animating or applied by a cached mesh
+        ElementTransform transform = beginAnimatedTransform(matrices, vertexConsumers,
+            x + width / 2, y + height / 2, true);
+        float translateX = transform.getTranslateX();
+        float translateY = transform.getTranslateY();
+        float scaleX = transform.getScaleX();
+        float scaleY = transform.getScaleY();
+        float hoverScale = transform.getHoverScale();
+        float rotation = transform.getRotation();
+
         // Apply translation animations
-        float translateX = getAnimatedValue(AnimationProperties.TRANSLATE_X, 0);
-        float translateY = getAnimatedValue(AnimationProperties.TRANSLATE_Y, 0);
         matrices.translate(x + translateX, y + translateY, 0);
 
-        // Get animated scale (check both SCALE and HOVER_SCALE)
-        float scaleX = getAnimatedValue(AnimationProperties.SCALE_X,
-                       getAnimatedValue(AnimationProperties.SCALE, 1.0f));
-        float scaleY = getAnimatedValue(AnimationProperties.SCALE_Y,
-                       getAnimatedValue(AnimationProperties.SCALE, 1.0f));
-        float hoverScale = getAnimatedValue(AnimationProperties.HOVER_SCALE, 1.0f);
-
         // Combine scales
         float finalScaleX = scaleX * hoverScale;
         float finalScaleY = scaleY * hoverScale;
@@ -111,7 +117,6 @@ public class ButtonElement extends AbstractMenuElement {
         }
 
         // Apply rotation animation (centered)
-        float rotation = getAnimatedValue(AnimationProperties.ROTATION, 0);
         if (rotation != 0) {
             matrices.push();
             matrices.translate(width / 2, height / 2, 0);
@@ -119,10 +124,7 @@ public class ButtonElement extends AbstractMenuElement {
             matrices.translate(-width / 2, -height / 2, 0);
         }
 
-        // Get opacity animation
-        float opacity = getAnimatedValue(AnimationProperties.OPACITY, 1.0f);
-        float colorAlpha = getAnimatedValue(AnimationProperties.COLOR_ALPHA, 1.0f);
-        float finalAlpha = opacity * colorAlpha;
+        float finalAlpha = transform.getAlpha();
 
         // Draw background if hovered
         if (hovered && finalAlpha > 0.01f) {
@@ -133,7 +135,8 @@ public class ButtonElement extends AbstractMenuElement {
         float textWidth = textRenderer.getWidth(text);
         float textY = (height - 8) / 2; // 8 is approximate text height
         float textX = 4; // 4px padding from left
-        int color = hovered ? brightenColor(textColor) : textColor;
+        int baseColor = transform.getColor(textColor);
+        int color = hovered ? brightenColor(baseColor) : baseColor;
 
         // Apply alpha to text color
         if (finalAlpha < 1.0f) {
@@ -175,6 +178,7 @@ public class ButtonElement extends AbstractMenuElement {
             matrices.pop();
         }
 
+        endAnimatedTransform(vertexConsumers);
         matrices.pop();
     }
 
@@ -308,6 +312,7 @@ public class ButtonElement extends AbstractMenuElement {
 
     public ButtonElement setText(String text) {
         this.text = text;
+        markDirty();
         return this;
     }
 
@@ -317,6 +322,7 @@ public class ButtonElement extends AbstractMenuElement {
 
     public ButtonElement setAction(String action) {
         this.action = action;
+        markDirty();
         return this;
     }
 
@@ -326,6 +332,7 @@ public class ButtonElement extends AbstractMenuElement {
 
     public ButtonElement setTextColor(int textColor) {
         this.textColor = textColor;
+        markDirty();
         return this;
     }
 
@@ -335,16 +342,19 @@ public class ButtonElement extends AbstractMenuElement {
 
     public ButtonElement setHoverColor(int hoverColor) {
         this.hoverColor = hoverColor;
+        markDirty();
         return this;
     }
 
     public ButtonElement setWidth(float width) {
         this.width = width;
+        markLayoutDirty();
         return this;
     }
 
     public ButtonElement setHeight(float height) {
         this.height = height;
+        markLayoutDirty();
         return this;
     }
 }
@@ -2,6 +2,9 @@ package fr.perrier.hologramuilib.client.menu.elements;
 
 import fr.perrier.hologramuilib.client.config.ItemConfig;
 import fr.perrier.hologramuilib.client.config.LayoutConfig;
+import fr.perrier.hologramuilib.client.menu.ElementHit;
+import fr.perrier.hologramuilib.client.menu.ElementLayout;
+import fr.perrier.hologramuilib.client.menu.HologramMenu;
 import fr.perrier.hologramuilib.client.menu.MenuElement;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.render.RenderLayer;
@@ -16,6 +19,9 @@ import java.util.List;
 /**
  * Container element that can hold and layout multiple child elements.
  * Supports vertical and horizontal layouts.
+ *
+ * Child positions are kept in a cached {@link ElementLayout}, shared by rendering and hit
+ * testing, so hovering and clicking reach the children of nested containers.
  */
 public class ContainerElement extends AbstractMenuElement {
 
@@ -30,6 +36,10 @@ public class ContainerElement extends AbstractMenuElement {
     private boolean hasBorder;
     private float borderWidth;
 
+    private final ElementLayout childLayout = new ElementLayout();
+    private boolean childLayoutValid = false;
+    private int childLayoutVersion; // Layout version of the parent menu the child layout was built for
+
     public ContainerElement(String id) {
         super(id);
         this.children = new ArrayList<>();
@@ -63,7 +73,7 @@ public class ContainerElement extends AbstractMenuElement {
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
         matrices.translate(x, y, 0);
@@ -92,49 +102,54 @@ public class ContainerElement extends AbstractMenuElement {
      */
     private void renderChildren(MatrixStack matrices, TextRenderer textRenderer,
                                VertexConsumerProvider vertexConsumers, float tickDelta) {
-        if (children.isEmpty()) {
-            return;
-        }
-
-        float currentX = 0;
-        float currentY = 0;
-
-        for (MenuElement child : children) {
-            // Calculate position based on layout type and alignment
-            float elementX = currentX;
-            float elementY = currentY;
-
-            if (layoutType == LayoutConfig.LayoutType.VERTICAL) {
-                elementX = calculateAlignmentX(child);
-            } else if (layoutType == LayoutConfig.LayoutType.HORIZONTAL) {
-                // For horizontal layout, elements flow left to right
-                // TODO: Implement horizontal alignment (top, center, bottom)
-            }
-
-            // Render the child element
-            // Note: Container children are never individually hovered (container handles that)
-            child.render(matrices, textRenderer, vertexConsumers, elementX, elementY, false, tickDelta);
+        ElementLayout layout = getChildLayout();
+        MenuElement hoveredElement = parentMenu != null ? parentMenu.getHoveredElement() : null;
 
-            // Update position for next element
-            if (layoutType == LayoutConfig.LayoutType.VERTICAL) {
-                currentY += child.getHeight() + spacing;
-            } else if (layoutType == LayoutConfig.LayoutType.HORIZONTAL) {
-                currentX += child.getWidth() + spacing;
-            }
+        for (int i = 0; i < layout.size(); i++) {
+            MenuElement child = layout.getElement(i);
+            child.render(matrices, textRenderer, vertexConsumers, layout.getX(i), layout.getY(i),
+                child == hoveredElement, tickDelta);
         }
     }
 
     /**
-     * Calculates the X position for an element based on alignment.
+     * Gets the resolved child positions, relative to the inside of the padding.
+     * Rebuilt after children, settings or any element size of the menu changed.
      */
-    private float calculateAlignmentX(MenuElement element) {
-        float availableWidth = width - (padding * 2);
+    public ElementLayout getChildLayout() {
+        int menuVersion = parentMenu != null ? parentMenu.getLayoutVersion() : childLayoutVersion;
+        if (!childLayoutValid || menuVersion != childLayoutVersion) {
+            if (layoutType == LayoutConfig.LayoutType.HORIZONTAL) {
+                childLayout.rebuildHorizontal(children, spacing);
+            } else if (layoutType == LayoutConfig.LayoutType.VERTICAL) {
+                childLayout.rebuild(children, layoutType, alignment, width - (padding * 2), spacing);
+            } else {
+                // Other layouts are not implemented, children are drawn on top of each other
+                childLayout.rebuild(children, layoutType, LayoutConfig.Alignment.LEFT, width - (padding * 2), spacing);
+            }
+            childLayoutValid = true;
+            childLayoutVersion = menuVersion;
+        }
+        return childLayout;
+    }
+
+    private void invalidateChildLayout() {
+        childLayoutValid = false;
+    }
 
-        return switch (alignment) {
-            case CENTER -> (availableWidth - element.getWidth()) / 2;
-            case RIGHT -> availableWidth - element.getWidth();
-            default -> 0; // LEFT
-        };
+    @Override
+    public void hitTest(float localX, float localY, ElementHit hit) {
+        ElementLayout layout = getChildLayout();
+        float x = localX - padding;
+        float y = localY - padding;
+        int index = layout.indexAt(x, y);
+        if (index < 0) {
+            // Padding or gap between children, the container itself is hit
+            hit.set(this, localX, localY);
+            return;
+        }
+
+        layout.getElement(index).hitTest(x - layout.getX(index), y - layout.getY(index), hit);
     }
 
     /**
@@ -185,7 +200,10 @@ public class ContainerElement extends AbstractMenuElement {
      */
     public void addChild(MenuElement element) {
         children.add(element);
+        element.setParentMenu(parentMenu);
+        invalidateChildLayout();
         recalculateSize();
+        markDirty();
     }
 
     /**
@@ -193,14 +211,20 @@ public class ContainerElement extends AbstractMenuElement {
      */
     public void removeChild(MenuElement element) {
         children.remove(element);
+        element.setParentMenu(null);
+        invalidateChildLayout();
         recalculateSize();
+        markDirty();
     }
 
     /**
      * Clears all child elements.
      */
     public void clearChildren() {
+        children.forEach(child -> child.setParentMenu(null));
         children.clear();
+        invalidateChildLayout();
+        markDirty();
     }
 
     /**
@@ -210,6 +234,27 @@ public class ContainerElement extends AbstractMenuElement {
         return children;
     }
 
+    @Override
+    public void setParentMenu(HologramMenu menu) {
+        super.setParentMenu(menu);
+        invalidateChildLayout();
+        children.forEach(child -> child.setParentMenu(menu));
+    }
+
+    @Override
+    public boolean isCacheable() {
+        for (int i = 0; i < children.size(); i++) {
+            MenuElement child = children.get(i);
+            if (!child.isCacheable()) {
+                return false;
+            }
+            if (child instanceof AbstractMenuElement animated && animated.isAnimating()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Recalculates container size based on children.
      */
@@ -256,6 +301,8 @@ public class ContainerElement extends AbstractMenuElement {
             // Optionally adjust height too
             // this.height = maxHeight + padding * 2;
         }
+        invalidateChildLayout();
+        markLayoutDirty();
     }
 
     // Getters and setters
@@ -267,6 +314,7 @@ public class ContainerElement extends AbstractMenuElement {
     public void setLayoutType(LayoutConfig.LayoutType layoutType) {
         this.layoutType = layoutType;
         recalculateSize();
+        markDirty();
     }
 
     public float getPadding() {
@@ -276,6 +324,7 @@ public class ContainerElement extends AbstractMenuElement {
     public void setPadding(float padding) {
         this.padding = padding;
         recalculateSize();
+        markDirty();
     }
 
     public float getSpacing() {
@@ -285,6 +334,7 @@ public class ContainerElement extends AbstractMenuElement {
     public void setSpacing(float spacing) {
         this.spacing = spacing;
         recalculateSize();
+        markDirty();
     }
 
     public LayoutConfig.Alignment getAlignment() {
@@ -293,6 +343,8 @@ public class ContainerElement extends AbstractMenuElement {
 
     public void setAlignment(LayoutConfig.Alignment alignment) {
         this.alignment = alignment;
+        invalidateChildLayout();
+        markDirty();
     }
 
     public int getBackgroundColor() {
@@ -301,6 +353,7 @@ public class ContainerElement extends AbstractMenuElement {
 
     public void setBackgroundColor(int backgroundColor) {
         this.backgroundColor = backgroundColor;
+        markDirty();
     }
 
     public boolean isHasBackground() {
@@ -309,6 +362,7 @@ public class ContainerElement extends AbstractMenuElement {
 
     public void setHasBackground(boolean hasBackground) {
         this.hasBackground = hasBackground;
+        markDirty();
     }
 
     public int getBorderColor() {
@@ -317,6 +371,7 @@ public class ContainerElement extends AbstractMenuElement {
 
     public void setBorderColor(int borderColor) {
         this.borderColor = borderColor;
+        markDirty();
     }
 
     public boolean isHasBorder() {
@@ -325,6 +380,7 @@ public class ContainerElement extends AbstractMenuElement {
 
     public void setHasBorder(boolean hasBorder) {
         this.hasBorder = hasBorder;
+        markDirty();
     }
 
     public float getBorderWidth() {
@@ -333,6 +389,7 @@ public class ContainerElement extends AbstractMenuElement {
 
     public void setBorderWidth(float borderWidth) {
         this.borderWidth = borderWidth;
+        markDirty();
     }
 }
 
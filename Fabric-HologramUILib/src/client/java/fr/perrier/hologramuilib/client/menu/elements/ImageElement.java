@@ -51,7 +51,7 @@ public class ImageElement extends AbstractMenuElement {
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
         matrices.translate(x, y, 0);
@@ -114,6 +114,7 @@ public class ImageElement extends AbstractMenuElement {
 
     public void setTexture(Identifier texture) {
         this.texture = texture;
+        markDirty();
     }
 
     public float getImageWidth() {
@@ -125,6 +126,7 @@ public class ImageElement extends AbstractMenuElement {
         if (maintainAspectRatio) {
             updateAspectRatio();
         }
+        markDirty();
     }
 
     public float getImageHeight() {
@@ -136,6 +138,7 @@ public class ImageElement extends AbstractMenuElement {
         if (maintainAspectRatio) {
             updateAspectRatio();
         }
+        markDirty();
     }
 
     public boolean isMaintainAspectRatio() {
@@ -144,6 +147,7 @@ public class ImageElement extends AbstractMenuElement {
 
     public void setMaintainAspectRatio(boolean maintainAspectRatio) {
         this.maintainAspectRatio = maintainAspectRatio;
+        markDirty();
     }
 
     /**
@@ -153,6 +157,7 @@ public class ImageElement extends AbstractMenuElement {
         if (imageWidth > 0 && imageHeight > 0) {
             float ratio = imageHeight / imageWidth;
             this.height = this.width * ratio;
+            markLayoutDirty();
         }
     }
 }
@@ -169,7 +169,7 @@ public class ImageURLElement extends AbstractMenuElement {
     public void render(MatrixStack matrices, TextRenderer textRenderer,
                        VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         // Update animation frame if needed
         if (state == LoadState.LOADED && isAnimated && !textureIds.isEmpty()) {
@@ -310,6 +310,7 @@ public class ImageURLElement extends AbstractMenuElement {
     public void setSize(float width, float height) {
         this.width = width;
         this.height = height;
+        markLayoutDirty();
     }
 
     public String getUrl() {
@@ -328,6 +329,12 @@ public class ImageURLElement extends AbstractMenuElement {
         return textureIds.size();
     }
 
+    @Override
+    public boolean isCacheable() {
+        // GIF frames change on their own and loading may finish at any time
+        return state != LoadState.LOADING && !isAnimated;
+    }
+
     public enum LoadState {
         LOADING,
         LOADED,
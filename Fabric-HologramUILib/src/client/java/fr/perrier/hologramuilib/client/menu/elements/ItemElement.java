@@ -81,7 +81,7 @@ public class ItemElement extends AbstractMenuElement {
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         if (itemStack == null || itemStack.isEmpty()) {
             return;
@@ -166,10 +166,12 @@ public class ItemElement extends AbstractMenuElement {
 
     public void setItemStack(ItemStack itemStack) {
         this.itemStack = itemStack;
+        markDirty();
     }
 
     public void setItem(Item item) {
         this.itemStack = new ItemStack(item);
+        markDirty();
     }
 
     public float getItemScale() {
@@ -178,6 +180,7 @@ public class ItemElement extends AbstractMenuElement {
 
     public void setItemScale(float itemScale) {
         this.itemScale = itemScale;
+        markDirty();
     }
 
     public boolean isShowCount() {
@@ -186,10 +189,12 @@ public class ItemElement extends AbstractMenuElement {
 
     public void setShowCount(boolean showCount) {
         this.showCount = showCount;
+        markDirty();
     }
 
     public void setWidth(float width) {
         this.width = width;
+        markLayoutDirty();
     }
 }
 
@@ -1,5 +1,7 @@
 package fr.perrier.hologramuilib.client.menu.elements;
 
+import fr.perrier.hologramuilib.client.animation.AnimationProperties.Handles;
+import fr.perrier.hologramuilib.client.animation.ElementTransform;
 import fr.perrier.hologramuilib.client.config.ItemConfig;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.render.RenderLayer;
@@ -20,6 +22,10 @@ public class ProgressBarElement extends AbstractMenuElement {
     private boolean showPercentage;
     private String label;
 
+    // Percentage text, rebuilt only when the displayed percentage changes
+    private String cachedText;
+    private int cachedPercentage = -1;
+
     public ProgressBarElement(String id) {
         super(id);
         this.progress = 0.5f; // Default 50%
@@ -49,40 +55,27 @@ public class ProgressBarElement extends AbstractMenuElement {
         return progressBar;
     }
 
+    @Override
+    public boolean canDeferTransform() {
+        return true;
+    }
+
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
 
-        // Apply translation animations
-        float translateX = 0;
-        float translateY = 0;
-        if (animationManager != null) {
-            translateX = animationManager.getValue(id, "translateX", 0);
-            translateY = animationManager.getValue(id, "translateY", 0);
-        }
-        matrices.translate(x + translateX, y + translateY, 0);
-
-        // Get animated scale
-        float scaleX = 1.0f;
-        float scaleY = 1.0f;
-        float scale = 1.0f;
-        float rotation = 0;
-        float opacity = 1.0f;
-        float colorAlpha = 1.0f;
-
-        if (animationManager != null) {
-            scale = animationManager.getValue(id, "scale", 1.0f);
-            scaleX = animationManager.getValue(id, "scaleX", scale);
-            scaleY = animationManager.getValue(id, "scaleY", scale);
-            rotation = animationManager.getValue(id, "rotation", 0);
-            opacity = animationManager.getValue(id, "opacity", 1.0f);
-            colorAlpha = animationManager.getValue(id, "colorA", 1.0f);
-        }
+        // Animated properties, all at their default when nothing is animating or applied by a cached mesh
+        ElementTransform transform = beginAnimatedTransform(matrices, vertexConsumers,
+            x + width / 2, y + height / 2, false);
+        matrices.translate(x + transform.getTranslateX(), y + transform.getTranslateY(), 0);
 
-        float finalAlpha = opacity * colorAlpha;
+        float scaleX = transform.getScaleX();
+        float scaleY = transform.getScaleY();
+        float rotation = transform.getRotation();
+        float finalAlpha = transform.getAlpha();
 
         // Apply scale animation (centered)
         if (scaleX != 1.0f || scaleY != 1.0f) {
@@ -102,8 +95,8 @@ public class ProgressBarElement extends AbstractMenuElement {
 
         // Get animated progress value if available
         float currentProgress = progress;
-        if (animationManager != null) {
-            currentProgress = animationManager.getValue(id, "progress", progress);
+        if (isAnimating()) {
+            currentProgress = animated(Handles.PROGRESS, progress);
         }
 
         float borderThickness = 2.0f;
@@ -122,13 +115,14 @@ public class ProgressBarElement extends AbstractMenuElement {
             // Render progress bar (full height, partial width based on current animated progress)
             float progressWidth = width * Math.max(0, Math.min(1, currentProgress));
             if (progressWidth > 0) {
-                int color = hovered ? brightenColor(foregroundColor) : foregroundColor;
+                int baseColor = transform.getColor(foregroundColor);
+                int color = hovered ? brightenColor(baseColor) : baseColor;
                 renderFilledRect(matrices, vertexConsumers, 0, 0, progressWidth, height, color, 0.07f, finalAlpha);
             }
 
             // Render percentage text if enabled (using animated progress)
             if (showPercentage) {
-                String text = (label.isEmpty() ? "" : label + " ") + String.format("%.0f%%", currentProgress * 100);
+                String text = getPercentageText(Math.round(currentProgress * 100));
                 float textWidth = textRenderer.getWidth(text);
                 float textX = (width - textWidth) / 2;
                 float textY = (height - 8) / 2;
@@ -167,9 +161,21 @@ public class ProgressBarElement extends AbstractMenuElement {
             matrices.pop();
         }
 
+        endAnimatedTransform(vertexConsumers);
         matrices.pop();
     }
 
+    /**
+     * Gets the text shown on the bar for a percentage, building it only when it changed.
+     */
+    private String getPercentageText(int percentage) {
+        if (cachedText == null || cachedPercentage != percentage) {
+            cachedText = (label.isEmpty() ? "" : label + " ") + percentage + "%";
+            cachedPercentage = percentage;
+        }
+        return cachedText;
+    }
+
     /**
      * Renders a filled rectangle as a simple quad (4 vertices).
      */
@@ -238,6 +244,7 @@ public class ProgressBarElement extends AbstractMenuElement {
 
     public void setProgress(float progress) {
         this.progress = Math.max(0, Math.min(1, progress));
+        markDirty();
     }
 
     /**
@@ -245,6 +252,7 @@ public class ProgressBarElement extends AbstractMenuElement {
      */
     public void setValue(float value) {
         setProgress(value);
+        markDirty();
     }
 
     public int getBackgroundColor() {
@@ -253,6 +261,7 @@ public class ProgressBarElement extends AbstractMenuElement {
 
     public void setBackgroundColor(int backgroundColor) {
         this.backgroundColor = backgroundColor;
+        markDirty();
     }
 
     public int getForegroundColor() {
@@ -261,6 +270,7 @@ public class ProgressBarElement extends AbstractMenuElement {
 
     public void setForegroundColor(int foregroundColor) {
         this.foregroundColor = foregroundColor;
+        markDirty();
     }
 
     public int getBorderColor() {
@@ -269,6 +279,7 @@ public class ProgressBarElement extends AbstractMenuElement {
 
     public void setBorderColor(int borderColor) {
         this.borderColor = borderColor;
+        markDirty();
     }
 
     public boolean isShowPercentage() {
@@ -277,6 +288,7 @@ public class ProgressBarElement extends AbstractMenuElement {
 
     public void setShowPercentage(boolean showPercentage) {
         this.showPercentage = showPercentage;
+        markDirty();
     }
 
     public String getLabel() {
@@ -285,10 +297,13 @@ public class ProgressBarElement extends AbstractMenuElement {
 
     public void setLabel(String label) {
         this.label = label != null ? label : "";
+        this.cachedText = null;
+        markDirty();
     }
 
     public void setWidth(float width) {
         this.width = width;
+        markLayoutDirty();
     }
 }
 
@@ -44,7 +44,7 @@ public class SeparatorElement extends AbstractMenuElement {
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
         matrices.translate(x, y, 0);
@@ -75,14 +75,17 @@ public class SeparatorElement extends AbstractMenuElement {
 
     public void setColor(int color) {
         this.color = color;
+        markDirty();
     }
 
     public void setWidth(float width) {
         this.width = width;
+        markLayoutDirty();
     }
 
     public void setHeight(float height) {
         this.height = height;
+        markLayoutDirty();
     }
 }
 
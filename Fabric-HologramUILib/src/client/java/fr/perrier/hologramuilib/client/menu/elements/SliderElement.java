@@ -1,7 +1,7 @@
 package fr.perrier.hologramuilib.client.menu.elements;
 
-import fr.perrier.hologramuilib.client.animation.AnimationManager;
-import fr.perrier.hologramuilib.client.animation.AnimationProperties;
+import fr.perrier.hologramuilib.client.animation.AnimationProperties.Handles;
+import fr.perrier.hologramuilib.client.animation.ElementTransform;
 import fr.perrier.hologramuilib.client.config.ItemConfig;
 import fr.perrier.hologramuilib.util.ColorHelper;
 import net.minecraft.client.MinecraftClient;
@@ -35,7 +35,10 @@ public class SliderElement extends AbstractMenuElement {
 
     private boolean dragging = false;
     private Consumer<Float> valueChangeCallback;
-    private AnimationManager animationManager;
+
+    // Formatted value text, rebuilt only when the displayed value changes
+    private String cachedDisplayText;
+    private float cachedDisplayValue = Float.NaN;
 
     public SliderElement(String id) {
         super(id);
@@ -71,39 +74,34 @@ public class SliderElement extends AbstractMenuElement {
         return slider;
     }
 
+    @Override
+    public boolean canDeferTransform() {
+        return true;
+    }
+
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
 
-        // Apply translation animations
-        float translateX = 0;
-        float translateY = 0;
-        float scale = 1.0f;
-        float scaleX = 1.0f;
-        float scaleY = 1.0f;
-        float rotation = 0;
-        float opacity = 1.0f;
-        float colorAlpha = 1.0f;
+        // Animated properties, all at their default when nothing is animating or applied by a cached mesh
+        ElementTransform transform = beginAnimatedTransform(matrices, vertexConsumers,
+            x + width / 2, y + height / 2, false);
+        float translateX = transform.getTranslateX();
+        float translateY = transform.getTranslateY();
+        float scaleX = transform.getScaleX();
+        float scaleY = transform.getScaleY();
+        float rotation = transform.getRotation();
+        float finalAlpha = transform.getAlpha();
 
         // Get animated value if available
         float animatedValue = value;
-        if (animationManager != null) {
-            animatedValue = animationManager.getValue(id, AnimationProperties.SLIDER_VALUE, value);
-            translateX = animationManager.getValue(id, "translateX", 0);
-            translateY = animationManager.getValue(id, "translateY", 0);
-            scale = animationManager.getValue(id, "scale", 1.0f);
-            scaleX = animationManager.getValue(id, "scaleX", scale);
-            scaleY = animationManager.getValue(id, "scaleY", scale);
-            rotation = animationManager.getValue(id, "rotation", 0);
-            opacity = animationManager.getValue(id, "opacity", 1.0f);
-            colorAlpha = animationManager.getValue(id, "colorA", 1.0f);
+        if (isAnimating()) {
+            animatedValue = animated(Handles.SLIDER_VALUE, value);
         }
 
-        float finalAlpha = opacity * colorAlpha;
-
         matrices.translate(x + translateX, y + translateY, 0);
 
         // Apply scale animation (centered)
@@ -140,7 +138,8 @@ public class SliderElement extends AbstractMenuElement {
 
             // Render filled portion (from left to handle position)
             float handleX = width * animatedValue;
-            int fillColorToUse = hovered ? brightenColor(fillColor) : fillColor;
+            int baseFillColor = transform.getColor(fillColor);
+            int fillColorToUse = hovered ? brightenColor(baseFillColor) : baseFillColor;
             if (handleX > 0) {
                 renderFilledRect(matrices, vertexConsumers, 0, trackY, handleX, trackHeight, fillColorToUse, 0.07f, finalAlpha);
             }
@@ -158,20 +157,7 @@ public class SliderElement extends AbstractMenuElement {
             // Render value text if enabled
             if (showValue) {
                 float actualValue = minValue + (maxValue - minValue) * animatedValue;
-                String valueText;
-
-                if (decimals > 0) {
-                    String format = "%." + decimals + "f";
-                    valueText = String.format(format, actualValue);
-                } else {
-                    valueText = String.format("%.0f", actualValue);
-                }
-
-                if (!unit.isEmpty()) {
-                    valueText += unit;
-                }
-
-                String displayText = label.isEmpty() ? valueText : label + ": " + valueText;
+                String displayText = getDisplayText(actualValue);
                 float textWidth = textRenderer.getWidth(displayText);
                 float textX = (width - textWidth) / 2;
                 float textY = -10; // Above the slider
@@ -210,9 +196,27 @@ public class SliderElement extends AbstractMenuElement {
             matrices.pop();
         }
 
+        endAnimatedTransform(vertexConsumers);
         matrices.pop();
     }
 
+    /**
+     * Gets the text shown above the slider for a value, formatting it only when it changed.
+     */
+    private String getDisplayText(float actualValue) {
+        if (cachedDisplayText == null || cachedDisplayValue != actualValue) {
+            String valueText = String.format("%." + decimals + "f", actualValue);
+
+            if (!unit.isEmpty()) {
+                valueText += unit;
+            }
+
+            cachedDisplayText = label.isEmpty() ? valueText : label + ": " + valueText;
+            cachedDisplayValue = actualValue;
+        }
+        return cachedDisplayText;
+    }
+
     private void renderFilledRect(MatrixStack matrices, VertexConsumerProvider vertexConsumers,
                                    float x, float y, float width, float height, int color, float z, float alphaMultiplier) {
         Matrix4f matrix = matrices.peek().getPositionMatrix();
@@ -307,6 +311,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setValue(float value) {
         this.value = Math.max(0, Math.min(1, value));
+        markDirty();
     }
 
     public float getActualValue() {
@@ -316,6 +321,7 @@ public class SliderElement extends AbstractMenuElement {
     public void setActualValue(float actualValue) {
         this.value = (actualValue - minValue) / (maxValue - minValue);
         this.value = Math.max(0, Math.min(1, this.value));
+        markDirty();
     }
 
     public float getMinValue() {
@@ -324,6 +330,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setMinValue(float minValue) {
         this.minValue = minValue;
+        markDirty();
     }
 
     public float getMaxValue() {
@@ -332,11 +339,13 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setMaxValue(float maxValue) {
         this.maxValue = maxValue;
+        markDirty();
     }
 
     public void setRange(float min, float max) {
         this.minValue = min;
         this.maxValue = max;
+        markDirty();
     }
 
     public int getTrackColor() {
@@ -345,6 +354,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setTrackColor(int trackColor) {
         this.trackColor = trackColor;
+        markDirty();
     }
 
     public int getFillColor() {
@@ -353,6 +363,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setFillColor(int fillColor) {
         this.fillColor = fillColor;
+        markDirty();
     }
 
     public int getHandleColor() {
@@ -361,6 +372,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setHandleColor(int handleColor) {
         this.handleColor = handleColor;
+        markDirty();
     }
 
     public int getBorderColor() {
@@ -369,6 +381,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setBorderColor(int borderColor) {
         this.borderColor = borderColor;
+        markDirty();
     }
 
     public boolean isShowValue() {
@@ -377,6 +390,7 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setShowValue(boolean showValue) {
         this.showValue = showValue;
+        markDirty();
     }
 
     public String getLabel() {
@@ -385,6 +399,8 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setLabel(String label) {
         this.label = label != null ? label : "";
+        this.cachedDisplayText = null;
+        markDirty();
     }
 
     public String getUnit() {
@@ -393,6 +409,8 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setUnit(String unit) {
         this.unit = unit != null ? unit : "";
+        this.cachedDisplayText = null;
+        markDirty();
     }
 
     public int getDecimals() {
@@ -401,12 +419,20 @@ public class SliderElement extends AbstractMenuElement {
 
     public void setDecimals(int decimals) {
         this.decimals = Math.max(0, decimals);
+        this.cachedDisplayText = null;
+        markDirty();
     }
 
     public boolean isDragging() {
         return dragging;
     }
 
+    @Override
+    public boolean isCacheable() {
+        // The handle follows the cursor every frame while dragging
+        return !dragging;
+    }
+
     public SliderElement onValueChange(Consumer<Float> callback) {
         this.valueChangeCallback = callback;
         return this;
@@ -414,11 +440,8 @@ public class SliderElement extends AbstractMenuElement {
 
     public SliderElement setWidth(float width) {
         this.width = width;
+        markLayoutDirty();
         return this;
     }
-
-    public void setAnimationManager(AnimationManager animationManager) {
-        this.animationManager = animationManager;
-    }
 }
 
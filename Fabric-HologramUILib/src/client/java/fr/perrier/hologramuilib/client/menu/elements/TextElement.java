@@ -1,5 +1,6 @@
 package fr.perrier.hologramuilib.client.menu.elements;
 
+import fr.perrier.hologramuilib.client.animation.ElementTransform;
 import fr.perrier.hologramuilib.client.config.ItemConfig;
 import fr.perrier.hologramuilib.util.ColorHelper;
 import net.minecraft.client.font.TextRenderer;
@@ -44,40 +45,33 @@ public class TextElement extends AbstractMenuElement {
         return text;
     }
 
+    @Override
+    public boolean canDeferTransform() {
+        return true;
+    }
+
     @Override
     public void render(MatrixStack matrices, TextRenderer textRenderer, VertexConsumerProvider vertexConsumers,
                        float x, float y, boolean hovered, float tickDelta) {
-        this.bounds = new Bounds(x, y, width, height);
+        updateBounds(x, y);
 
         matrices.push();
 
-        // Apply translation animations
-        float translateX = 0;
-        float translateY = 0;
-        float scale = 1.0f;
-        float scaleX = 1.0f;
-        float scaleY = 1.0f;
-        float rotation = 0;
-        float opacity = 1.0f;
-        float colorAlpha = 1.0f;
-
-        if (animationManager != null) {
-            translateX = animationManager.getValue(id, "translateX", 0);
-            translateY = animationManager.getValue(id, "translateY", 0);
-            scale = animationManager.getValue(id, "scale", 1.0f);
-            scaleX = animationManager.getValue(id, "scaleX", scale);
-            scaleY = animationManager.getValue(id, "scaleY", scale);
-            rotation = animationManager.getValue(id, "rotation", 0);
-            opacity = animationManager.getValue(id, "opacity", 1.0f);
-            colorAlpha = animationManager.getValue(id, "colorA", 1.0f);
-        }
-
-        float finalAlpha = opacity * colorAlpha;
-
         // Calculate text position
         float textWidth = textRenderer.getWidth(content);
         float textX = centered ? (width - textWidth) / 2 : 4; // 4px padding if not centered
 
+        // Animated properties, all at their default when nothing is animating or applied by a cached mesh
+        ElementTransform transform = beginAnimatedTransform(matrices, vertexConsumers,
+            x + textX + textWidth / 2, y + height / 2, false);
+        float translateX = transform.getTranslateX();
+        float translateY = transform.getTranslateY();
+        float scaleX = transform.getScaleX();
+        float scaleY = transform.getScaleY();
+        float rotation = transform.getRotation();
+        float finalAlpha = transform.getAlpha();
+        int baseColor = transform.getColor(textColor);
+
         // Translate to element position with animation offset
         matrices.translate(x + textX + translateX, y + translateY, 0.01f);
 
@@ -98,10 +92,10 @@ public class TextElement extends AbstractMenuElement {
         }
 
         // Apply alpha to text color
-        int renderColor = textColor;
+        int renderColor = baseColor;
         if (finalAlpha < 1.0f) {
             int alpha = (int)(finalAlpha * 255);
-            renderColor = (textColor & 0x00FFFFFF) | (alpha << 24);
+            renderColor = (baseColor & 0x00FFFFFF) | (alpha << 24);
         }
 
         // Render only if visible
@@ -133,6 +127,7 @@ public class TextElement extends AbstractMenuElement {
             matrices.pop();
         }
 
+        endAnimatedTransform(vertexConsumers);
         matrices.pop();
     }
 
@@ -144,6 +139,7 @@ public class TextElement extends AbstractMenuElement {
 
     public void setContent(String content) {
         this.content = content;
+        markDirty();
     }
 
     public int getTextColor() {
@@ -152,6 +148,7 @@ public class TextElement extends AbstractMenuElement {
 
     public void setTextColor(int textColor) {
         this.textColor = textColor;
+        markDirty();
     }
 
     public boolean isCentered() {
@@ -160,10 +157,12 @@ public class TextElement extends AbstractMenuElement {
 
     public void setCentered(boolean centered) {
         this.centered = centered;
+        markDirty();
     }
 
     public void setWidth(float width) {
         this.width = width;
+        markLayoutDirty();
     }
 }
 
@@ -0,0 +1,138 @@
+package fr.perrier.hologramuilib.client.network;
+
+import fr.perrier.hologramuilib.protocol.MenuWireFormat;
+import fr.perrier.hologramuilib.protocol.MessageCompression;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Joins the "menu_chunk" messages the plugin sends for messages too big for one plugin message.
+ *
+ * Mirrors {@code fr.perrier.hologramuilib.network.MessageChunker} on the plugin side, which
+ * documents the chunk layout. Transfers not completed within {@link #TIMEOUT_MS} are dropped,
+ * as are the oldest ones beyond {@link #MAX_PENDING_TRANSFERS}, so a lost chunk cannot keep
+ * memory forever.
+ */
+public final class ChunkReassembler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("HologramUILib/PluginChannel");
+
+    public static final long TIMEOUT_MS = 15_000;
+    public static final int MAX_PENDING_TRANSFERS = 8;
+
+    // The plugin's chunks are close to the plugin message limit, this leaves a wide margin
+    private static final int MAX_CHUNK_COUNT = 4096;
+
+    /**
+     * Largest reassembled message accepted, the same bound as decompressed messages.
+     */
+    public static final int MAX_MESSAGE_SIZE = MessageCompression.MAX_MESSAGE_SIZE;
+
+    private final Map<Integer, Transfer> transfers = new LinkedHashMap<>();
+
+    private static final class Transfer {
+        final byte[][] parts;
+        final long startedAt;
+        int received = 0;
+        int size = 0;
+
+        Transfer(int chunkCount, long startedAt) {
+            this.parts = new byte[chunkCount][];
+            this.startedAt = startedAt;
+        }
+    }
+
+    /**
+     * Adds a chunk.
+     *
+     * @param body Body of a "menu_chunk" message
+     * @param now Current time in milliseconds, for the timeouts
+     * @return The whole message once its last chunk arrived, null until then
+     * @throws IllegalArgumentException If the chunk is malformed or does not match its transfer
+     */
+    @Nullable
+    public byte[] accept(byte[] body, long now) {
+        expire(now);
+
+        MenuWireFormat.Reader in = new MenuWireFormat.Reader(body);
+        int transferId = in.readVarInt();
+        int index = in.readVarInt();
+        int chunkCount = in.readVarInt();
+        byte[] data = Arrays.copyOfRange(body, in.position(), body.length);
+
+        if (chunkCount <= 0 || chunkCount > MAX_CHUNK_COUNT || index < 0 || index >= chunkCount) {
+            throw new IllegalArgumentException("Invalid chunk " + index + " of " + chunkCount + " for transfer " + transferId);
+        }
+
+        Transfer transfer = transfers.get(transferId);
+        if (transfer == null) {
+            if (transfers.size() >= MAX_PENDING_TRANSFERS) {
+                Iterator<Map.Entry<Integer, Transfer>> oldest = transfers.entrySet().iterator();
+                Map.Entry<Integer, Transfer> dropped = oldest.next();
+                oldest.remove();
+                LOGGER.warn("Too many menu transfers, dropped transfer {} ({}/{} chunks)",
+                    dropped.getKey(), dropped.getValue().received, dropped.getValue().parts.length);
+            }
+            transfer = new Transfer(chunkCount, now);
+            transfers.put(transferId, transfer);
+        } else if (transfer.parts.length != chunkCount) {
+            transfers.remove(transferId);
+            throw new IllegalArgumentException("Chunk count changed for transfer " + transferId);
+        }
+
+        if (transfer.parts[index] == null) {
+            transfer.size += data.length;
+            if (transfer.size > MAX_MESSAGE_SIZE) {
+                transfers.remove(transferId);
+                throw new IllegalArgumentException("Transfer " + transferId + " over " + MAX_MESSAGE_SIZE + " bytes");
+            }
+            transfer.parts[index] = data;
+            transfer.received++;
+        }
+
+        if (transfer.received < chunkCount) {
+            return null;
+        }
+
+        transfers.remove(transferId);
+        byte[] message = new byte[transfer.size];
+        int offset = 0;
+        for (byte[] part : transfer.parts) {
+            System.arraycopy(part, 0, message, offset, part.length);
+            offset += part.length;
+        }
+        return message;
+    }
+
+    /**
+     * Drops the transfers that did not complete in time.
+     */
+    public void expire(long now) {
+        Iterator<Map.Entry<Integer, Transfer>> iterator = transfers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Transfer> entry = iterator.next();
+            Transfer transfer = entry.getValue();
+            if (now - transfer.startedAt > TIMEOUT_MS) {
+                iterator.remove();
+                LOGGER.warn("Menu transfer {} timed out with {}/{} chunks", entry.getKey(), transfer.received, transfer.parts.length);
+            }
+        }
+    }
+
+    /**
+     * Drops every pending transfer, when leaving a server.
+     */
+    public void clear() {
+        transfers.clear();
+    }
+
+    public int getPendingCount() {
+        return transfers.size();
+    }
+}
@@ -5,8 +5,20 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import fr.perrier.hologramuilib.client.menu.HologramMenu;
+import fr.perrier.hologramuilib.client.menu.MenuElement;
 import fr.perrier.hologramuilib.client.menu.MenuManager;
 import fr.perrier.hologramuilib.client.menu.elements.*;
+import fr.perrier.hologramuilib.protocol.ElementData;
+import fr.perrier.hologramuilib.protocol.MenuData;
+import fr.perrier.hologramuilib.protocol.MenuDecoder;
+import fr.perrier.hologramuilib.protocol.MenuJsonKeys;
+import fr.perrier.hologramuilib.protocol.MenuWireFormat;
+import fr.perrier.hologramuilib.protocol.MessageCompression;
+import fr.perrier.hologramuilib.protocol.PatchData;
+import fr.perrier.hologramuilib.protocol.PatchOperation;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.client.networking.v1.C2SPlayChannelEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 import net.minecraft.client.MinecraftClient;
@@ -18,6 +30,8 @@ import net.minecraft.util.math.Vec3d;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Gestionnaire pour les messages du plugin Spigot via le canal hologramuilib:main.
  */
@@ -26,6 +40,9 @@ public class SpigotPluginChannelHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger("HologramUILib/PluginChannel");
     private static final Identifier CHANNEL_ID = Identifier.of("hologramuilib", "main");
 
+    // Messages reçus en morceaux, en attente de leurs derniers morceaux
+    private static final ChunkReassembler CHUNKS = new ChunkReassembler();
+
     /**
      * Payload pour les messages bruts du plugin Spigot.
      *
@@ -42,17 +59,39 @@ public class SpigotPluginChannelHandler {
      * - Après avoir lu les données nécessaires, consommer le reste du buffer avec skipBytes()
      * - Ceci évite l'erreur "Packet was larger than I expected, found X bytes extra"
      *
+     * Les actions binaires (voir {@link #isBinaryAction(String)}) n'ont pas de data JSON :
+     * leur corps brut suit l'action jusqu'à la fin du paquet, dans {@link #body()}.
+     *
      * @see <a href="file:///NETWORK_PROTOCOL_FIX.md">NETWORK_PROTOCOL_FIX.md</a>
      * @see <a href="file:///NETWORK_BEST_PRACTICES.md">NETWORK_BEST_PRACTICES.md</a>
      */
-    public record SpigotPluginMessage(String action, String data) implements CustomPayload {
+    public record SpigotPluginMessage(String action, String data, byte[] body) implements CustomPayload {
         public static final CustomPayload.Id<SpigotPluginMessage> ID = new CustomPayload.Id<>(CHANNEL_ID);
 
+        private static final byte[] NO_BODY = new byte[0];
+
         public static final PacketCodec<PacketByteBuf, SpigotPluginMessage> CODEC = PacketCodec.of(
             SpigotPluginMessage::write,
             SpigotPluginMessage::read
         );
 
+        /**
+         * Message JSON, sans corps binaire.
+         */
+        public SpigotPluginMessage(String action, String data) {
+            this(action, data, NO_BODY);
+        }
+
+        /**
+         * Vérifie si une action transporte un corps binaire au lieu d'une data JSON.
+         */
+        public static boolean isBinaryAction(String action) {
+            return switch (action) {
+                case MenuWireFormat.MENU_ACTION, MenuWireFormat.PATCH_ACTION, "menu_chunk", MessageCompression.ACTION -> true;
+                default -> false;
+            };
+        }
+
         public void write(PacketByteBuf buf) {
             // IMPORTANT : Écrire au format DataOutputStream.writeUTF()
             // Format : short (2 bytes) pour la longueur, puis les bytes UTF-8
@@ -62,6 +101,12 @@ public class SpigotPluginChannelHandler {
             buf.writeShort(actionBytes.length);
             buf.writeBytes(actionBytes);
 
+            // Corps binaire : écrit tel quel jusqu'à la fin du paquet
+            if (isBinaryAction(action)) {
+                buf.writeBytes(body);
+                return;
+            }
+
             // Écrire data
             byte[] dataBytes = data.getBytes(java.nio.charset.StandardCharsets.UTF_8);
             buf.writeShort(dataBytes.length);
@@ -81,13 +126,22 @@ public class SpigotPluginChannelHandler {
                 // On doit utiliser readShort() + readBytes() au lieu de readString()
 
                 // Lire la première string (action)
-                short actionLength = buf.readShort();
+                // Longueurs non signées : writeUTF() accepte jusqu'à 65535 bytes
+                int actionLength = buf.readUnsignedShort();
                 byte[] actionBytes = new byte[actionLength];
                 buf.readBytes(actionBytes);
                 String action = new String(actionBytes, java.nio.charset.StandardCharsets.UTF_8);
 
+                // Action binaire : tout le reste du buffer est le corps
+                if (isBinaryAction(action)) {
+                    byte[] body = new byte[buf.readableBytes()];
+                    buf.readBytes(body);
+                    LOGGER.debug("Read binary action='{}', body length={} bytes", action, body.length);
+                    return new SpigotPluginMessage(action, "", body);
+                }
+
                 // Lire la deuxième string (data)
-                short dataLength = buf.readShort();
+                int dataLength = buf.readUnsignedShort();
                 byte[] dataBytes = new byte[dataLength];
                 buf.readBytes(dataBytes);
                 String data = new String(dataBytes, java.nio.charset.StandardCharsets.UTF_8);
@@ -154,6 +208,16 @@ public class SpigotPluginChannelHandler {
             context.client().execute(() -> handlePluginMessage(context.client(), payload))
         );
 
+        // Annoncer nos capacités dès que le plugin a enregistré son canal
+        C2SPlayChannelEvents.REGISTER.register((handler, sender, client, channels) -> {
+            if (channels.contains(CHANNEL_ID)) {
+                sendHello();
+            }
+        });
+
+        // Les morceaux d'un serveur quitté ne seront jamais complétés
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(CHUNKS::clear));
+
         LOGGER.info("Spigot plugin channel handler registered on {}", CHANNEL_ID);
     }
 
@@ -171,6 +235,18 @@ public class SpigotPluginChannelHandler {
                 case "menu_data":
                     handleMenuData(client, data);
                     break;
+                case MenuWireFormat.MENU_ACTION:
+                    handleBinaryMenuData(client, payload.body());
+                    break;
+                case MenuWireFormat.PATCH_ACTION:
+                    handleMenuPatch(payload.body());
+                    break;
+                case MessageCompression.ACTION:
+                    handleCompressedMessage(client, payload.body());
+                    break;
+                case "menu_chunk":
+                    handleChunk(client, payload.body());
+                    break;
                 case "menu_close":
                     handleMenuClose(client, data);
                     break;
@@ -182,6 +258,40 @@ public class SpigotPluginChannelHandler {
         }
     }
 
+    /**
+     * Décompresse un message et le traite comme s'il était arrivé tel quel.
+     */
+    private static void handleCompressedMessage(MinecraftClient client, byte[] body) {
+        byte[] message = MessageCompression.decompress(body);
+        LOGGER.debug("Decompressed message: {} -> {} bytes", body.length, message.length);
+        handleInnerMessage(client, MessageCompression.ACTION, message);
+    }
+
+    /**
+     * Ajoute un morceau d'un message trop gros pour un seul paquet, et traite le message une fois complet.
+     */
+    private static void handleChunk(MinecraftClient client, byte[] body) {
+        byte[] message = CHUNKS.accept(body, System.currentTimeMillis());
+        if (message != null) {
+            LOGGER.debug("Reassembled message: {} bytes", message.length);
+            handleInnerMessage(client, "menu_chunk", message);
+        }
+    }
+
+    /**
+     * Traite un message sorti d'une enveloppe (compression ou morceaux) comme s'il était arrivé tel quel.
+     */
+    private static void handleInnerMessage(MinecraftClient client, String envelope, byte[] message) {
+        SpigotPluginMessage payload = SpigotPluginMessage.read(new PacketByteBuf(Unpooled.wrappedBuffer(message)));
+
+        // Une enveloppe dans une enveloppe du même type n'a pas de sens, et pourrait boucler
+        if (envelope.equals(payload.action())) {
+            LOGGER.warn("Ignoring nested '{}' message", envelope);
+            return;
+        }
+        handlePluginMessage(client, payload);
+    }
+
     /**
      * Traite les données d'un menu reçu du serveur.
      */
@@ -216,7 +326,7 @@ public class SpigotPluginChannelHandler {
 
             // Configuration du menu (sauf height qui sera appliqué après les éléments)
             if (json.has("title")) {
-                TextElement titleElement = new TextElement("__title__", parseMinecraftColors(json.get("title").getAsString()));
+                TextElement titleElement = new TextElement(HologramMenu.TITLE_ELEMENT_ID, parseMinecraftColors(json.get("title").getAsString()));
                 menu.addElement(titleElement);
             }
 
@@ -240,6 +350,21 @@ public class SpigotPluginChannelHandler {
                 menu.setHasBackground(json.get("backgroundEnabled").getAsBoolean());
             }
 
+            if (json.has("lod")) {
+                JsonObject lod = json.getAsJsonObject("lod");
+                if (lod.has("enabled")) {
+                    menu.setLodEnabled(lod.get("enabled").getAsBoolean());
+                }
+                menu.setLodDistances(
+                    lod.has("reducedDistance") ? lod.get("reducedDistance").getAsDouble() : menu.getLodReducedDistance(),
+                    lod.has("impostorDistance") ? lod.get("impostorDistance").getAsDouble() : menu.getLodImpostorDistance()
+                );
+                menu.setLodScreenHeights(
+                    lod.has("fullMinScreenHeight") ? lod.get("fullMinScreenHeight").getAsFloat() : menu.getLodFullMinScreenHeight(),
+                    lod.has("reducedMinScreenHeight") ? lod.get("reducedMinScreenHeight").getAsFloat() : menu.getLodReducedMinScreenHeight()
+                );
+            }
+
             // Ajouter les éléments
             if (json.has("elements")) {
                 JsonArray elements = json.getAsJsonArray("elements");
@@ -267,85 +392,240 @@ public class SpigotPluginChannelHandler {
         }
     }
 
+    /**
+     * Traite un menu reçu au format binaire, sans passer par Gson.
+     * Applique les mêmes réglages, dans le même ordre, que {@link #handleMenuData}.
+     */
+    private static void handleBinaryMenuData(MinecraftClient client, byte[] body) {
+        try {
+            MenuData data = MenuDecoder.decode(body);
+            LOGGER.info("Creating menu '{}' from Spigot server ({} bytes)", data.menuId(), body.length);
+
+            // Position du menu
+            Vec3d position;
+            if (data.position() != null) {
+                position = new Vec3d(data.position()[0], data.position()[1], data.position()[2]);
+            } else if (client.player != null) {
+                position = client.player.getPos().add(0, 2, 0);
+            } else {
+                LOGGER.warn("Cannot determine menu position");
+                return;
+            }
+
+            MenuManager manager = MenuManager.getInstance();
+            HologramMenu menu = manager.createMenu(data.menuId(), position);
+
+            if (data.title() != null) {
+                menu.addElement(new TextElement(HologramMenu.TITLE_ELEMENT_ID, parseMinecraftColors(data.title())));
+            }
+            menu.setWidth(data.width());
+            menu.setScale(data.scale());
+            menu.setMaxRenderDistance(data.maxDistance());
+            menu.setBackgroundColor(data.backgroundColor());
+            menu.setHasBackground(data.backgroundEnabled());
+            menu.setLodEnabled(data.lodEnabled());
+            menu.setLodDistances(data.lodReducedDistance(), data.lodImpostorDistance());
+            menu.setLodScreenHeights(data.lodFullMinScreenHeight(), data.lodReducedMinScreenHeight());
+
+            for (ElementData element : data.elements()) {
+                addElementToMenu(menu, element.type(), element.id(), element.content(),
+                    element.width(), element.height(), element.min(), element.max(), element.value());
+            }
+
+            // Comme pour le JSON : height après les éléments, puis la position
+            menu.setHeight(data.height());
+            menu.setPosition(position);
+
+            LOGGER.info("Menu '{}' created successfully with {} elements", data.menuId(), menu.getElements().size());
+
+        } catch (Exception e) {
+            LOGGER.error("Error creating menu from binary data", e);
+        }
+    }
+
+    /**
+     * Applique les changements d'un menu affiché, sans le recréer : les éléments inchangés gardent
+     * leurs animations et le survol en cours. Les index ne comptent pas le titre.
+     */
+    private static void handleMenuPatch(byte[] body) {
+        try {
+            PatchData patch = MenuDecoder.decodePatch(body);
+            HologramMenu menu = MenuManager.getInstance().getMenu(patch.menuId());
+            if (menu == null) {
+                LOGGER.warn("Patch received for unknown menu '{}'", patch.menuId());
+                return;
+            }
+
+            List<MenuElement> elements = menu.getElements();
+            int titleOffset = !elements.isEmpty() && HologramMenu.TITLE_ELEMENT_ID.equals(elements.get(0).getId()) ? 1 : 0;
+            boolean contentChanged = false;
+
+            for (PatchOperation operation : patch.operations()) {
+                switch (operation.opcode()) {
+                    case MenuWireFormat.OP_SET_CONTENT -> {
+                        MenuElement element = menu.getElementById(operation.elementId());
+                        if (element instanceof TextElement text) {
+                            text.setContent(parseMinecraftColors(operation.content()));
+                        } else if (element instanceof ButtonElement button) {
+                            button.setText(parseMinecraftColors(operation.content()));
+                        } else {
+                            LOGGER.warn("Cannot set content of element '{}' in menu '{}'", operation.elementId(), patch.menuId());
+                            continue;
+                        }
+                        contentChanged = true;
+                    }
+                    case MenuWireFormat.OP_SET_VALUE -> {
+                        MenuElement element = menu.getElementById(operation.elementId());
+                        if (element instanceof SliderElement slider) {
+                            slider.setActualValue(operation.value());
+                        } else if (element instanceof ProgressBarElement progressBar) {
+                            progressBar.setProgress(operation.value());
+                        } else {
+                            LOGGER.warn("Cannot set value of element '{}' in menu '{}'", operation.elementId(), patch.menuId());
+                        }
+                    }
+                    case MenuWireFormat.OP_INSERT -> {
+                        ElementData data = operation.element();
+                        MenuElement element = createElement(menu, data.type(), data.id(), data.content(),
+                            data.width(), data.height(), data.min(), data.max(), data.value());
+                        if (element != null) {
+                            menu.insertElement(operation.index() + titleOffset, element);
+                        }
+                    }
+                    case MenuWireFormat.OP_REMOVE -> {
+                        MenuElement element = menu.getElementById(operation.elementId());
+                        if (element != null) {
+                            menu.removeElement(element);
+                        }
+                    }
+                    case MenuWireFormat.OP_MOVE -> {
+                        MenuElement element = menu.getElementById(operation.elementId());
+                        if (element != null) {
+                            menu.moveElement(element, operation.index() + titleOffset);
+                        }
+                    }
+                    default -> LOGGER.warn("Unknown patch opcode {}", operation.opcode());
+                }
+            }
+
+            // Un nouveau texte peut changer la hauteur du menu
+            if (contentChanged) {
+                menu.recalculateAutoHeight();
+            }
+
+            LOGGER.debug("Menu '{}' patched: {} operations ({} bytes)", patch.menuId(), patch.operations().size(), body.length);
+
+        } catch (Exception e) {
+            LOGGER.error("Error applying menu patch", e);
+        }
+    }
+
     /**
      * Ajoute un élément au menu depuis les données JSON.
      */
     private static void addElementToMenu(HologramMenu menu, JsonObject elementJson) {
         try {
-            String type = elementJson.get("type").getAsString();
-            String id = elementJson.get("id").getAsString();
-            String content = elementJson.has("content") ? elementJson.get("content").getAsString() : "";
+            addElementToMenu(menu,
+                elementJson.get(MenuJsonKeys.TYPE).getAsString(),
+                elementJson.get(MenuJsonKeys.ID).getAsString(),
+                elementJson.has(MenuJsonKeys.CONTENT) ? elementJson.get(MenuJsonKeys.CONTENT).getAsString() : "",
+                elementJson.has(MenuJsonKeys.WIDTH) ? elementJson.get(MenuJsonKeys.WIDTH).getAsInt() : 0,
+                elementJson.has(MenuJsonKeys.HEIGHT) ? elementJson.get(MenuJsonKeys.HEIGHT).getAsInt() : 0,
+                elementJson.has(MenuJsonKeys.MIN_VALUE) ? elementJson.get(MenuJsonKeys.MIN_VALUE).getAsDouble() : Double.NaN,
+                elementJson.has(MenuJsonKeys.MAX_VALUE) ? elementJson.get(MenuJsonKeys.MAX_VALUE).getAsDouble() : Double.NaN,
+                elementJson.has(MenuJsonKeys.VALUE) ? elementJson.get(MenuJsonKeys.VALUE).getAsDouble() : Double.NaN
+            );
+        } catch (Exception e) {
+            LOGGER.error("Error adding element to menu", e);
+        }
+    }
+
+    /**
+     * Ajoute un élément au menu, quel que soit le format reçu.
+     */
+    private static void addElementToMenu(HologramMenu menu, String type, String id, String content,
+                                         int width, int height, double min, double max, double value) {
+        MenuElement element = createElement(menu, type, id, content, width, height, min, max, value);
+        if (element != null) {
+            menu.addElement(element);
+        }
+    }
 
+    /**
+     * Crée un élément du menu, quel que soit le format reçu.
+     * Les tailles absentes valent 0 et les valeurs absentes NaN, remplacées par les valeurs par défaut.
+     *
+     * @return L'élément, ou null si le type est inconnu
+     */
+    private static MenuElement createElement(HologramMenu menu, String type, String id, String content,
+                                             int width, int height, double min, double max, double value) {
+        try {
             switch (type) {
                 case "text":
                     TextElement textElement = new TextElement(id, parseMinecraftColors(content));
-                    if (elementJson.has("width")) {
-                        textElement.setWidth(elementJson.get("width").getAsInt());
+                    if (width > 0) {
+                        textElement.setWidth(width);
                     }
-                    menu.addElement(textElement);
-                    break;
+                    return textElement;
 
                 case "button":
                     ButtonElement button = new ButtonElement(id, parseMinecraftColors(content));
-                    if (elementJson.has("width")) {
-                        button.setWidth(elementJson.get("width").getAsInt());
+                    if (width > 0) {
+                        button.setWidth(width);
                     }
-                    if (elementJson.has("height")) {
-                        button.setHeight(elementJson.get("height").getAsInt());
+                    if (height > 0) {
+                        button.setHeight(height);
                     }
                     button.onClickCallback(e -> sendButtonClickToServer(menu.getId(), id));
-                    menu.addElement(button);
-                    break;
+                    return button;
 
                 case "slider":
-                    double min = elementJson.has("min") ? elementJson.get("min").getAsDouble() : 0;
-                    double max = elementJson.has("max") ? elementJson.get("max").getAsDouble() : 100;
-                    double value = elementJson.has("value") ? elementJson.get("value").getAsDouble() : min;
+                    double sliderMin = Double.isNaN(min) ? 0 : min;
+                    double sliderMax = Double.isNaN(max) ? 100 : max;
+                    double sliderValue = Double.isNaN(value) ? sliderMin : value;
 
                     SliderElement slider = new SliderElement(id);
-                    slider.setMinValue((float) min);
-                    slider.setMaxValue((float) max);
-                    slider.setActualValue((float) value);
-                    if (elementJson.has("width")) {
-                        slider.setWidth((float) elementJson.get("width").getAsInt());
+                    slider.setMinValue((float) sliderMin);
+                    slider.setMaxValue((float) sliderMax);
+                    slider.setActualValue((float) sliderValue);
+                    if (width > 0) {
+                        slider.setWidth((float) width);
                     }
-                    final double initialValue = value;
+                    final double initialValue = sliderValue;
                     slider.onValueChange(newValue -> sendSliderChangeToServer(menu.getId(), id, initialValue, newValue));
-                    menu.addElement(slider);
-                    break;
+                    return slider;
 
                 case "progress_bar":
-                    double progressValue = elementJson.has("value") ? elementJson.get("value").getAsDouble() : 0;
-                    double progressMax = elementJson.has("max") ? elementJson.get("max").getAsDouble() : 100;
+                    double progressValue = Double.isNaN(value) ? 0 : value;
+                    double progressMax = Double.isNaN(max) ? 100 : max;
 
                     ProgressBarElement progressBar = new ProgressBarElement(id);
                     progressBar.setProgress((float) (progressValue / progressMax));
-                    if (elementJson.has("width")) {
-                        progressBar.setWidth(elementJson.get("width").getAsInt());
+                    if (width > 0) {
+                        progressBar.setWidth(width);
                     }
-                    menu.addElement(progressBar);
-                    break;
+                    return progressBar;
 
                 case "separator":
                     SeparatorElement separator = new SeparatorElement(id);
-                    menu.addElement(separator);
-                    break;
+                    return separator;
 
                 case "spacing":
                     // Utiliser SeparatorElement avec couleur transparente comme espacement
-                    int spacingHeight = elementJson.has("height") ? elementJson.get("height").getAsInt() : 10;
+                    int spacingHeight = height > 0 ? height : 10;
                     SeparatorElement spacing = new SeparatorElement(id);
                     spacing.setHeight(spacingHeight);
                     spacing.setColor(0x00000000); // Complètement transparent = invisible
-                    menu.addElement(spacing);
-                    break;
+                    return spacing;
 
                 default:
                     LOGGER.warn("Unknown element type: {}", type);
+                    return null;
             }
 
         } catch (Exception e) {
-            LOGGER.error("Error adding element to menu", e);
+            LOGGER.error("Error creating menu element", e);
+            return null;
         }
     }
 
@@ -367,6 +647,31 @@ public class SpigotPluginChannelHandler {
         }
     }
 
+    /**
+     * Annonce au plugin que le mod est installé, la version du format binaire qu'il décode,
+     * les compressions qu'il accepte avec le dernier dictionnaire qu'il connaît, et qu'il sait
+     * recevoir les messages en morceaux.
+     * Sans cette annonce, le plugin continue d'envoyer les menus en JSON.
+     */
+    private static void sendHello() {
+        try {
+            JsonObject json = new JsonObject();
+            json.addProperty("wireVersion", MenuWireFormat.VERSION);
+            JsonArray compression = new JsonArray();
+            compression.add(MessageCompression.ALGORITHM);
+            json.add("compression", compression);
+            json.addProperty("compressionDictionary", MessageCompression.DICTIONARY_VERSION);
+            json.addProperty("chunkedTransfer", true);
+
+            ClientPlayNetworking.send(new SpigotPluginMessage("hello", json.toString()));
+            LOGGER.debug("Sent hello to server: wireVersion={}, compression={} (dictionary {})",
+                MenuWireFormat.VERSION, MessageCompression.ALGORITHM, MessageCompression.DICTIONARY_VERSION);
+
+        } catch (Exception e) {
+            LOGGER.error("Error sending hello", e);
+        }
+    }
+
     /**
      * Envoie un clic de bouton au serveur Spigot.
      */
@@ -0,0 +1,93 @@
+package fr.perrier.hologramuilib.client.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BuiltBuffer;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.BufferAllocator;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Vertex consumer provider that keeps one buffer per render layer for a whole frame.
+ *
+ * Unlike the shared entity {@link VertexConsumerProvider.Immediate}, switching between
+ * layers never flushes the previous one: every menu appends to the same per-layer buffer
+ * and everything is drawn at once by {@link #draw()}.
+ * Layers whose vertices are shared (line strips) still have to be flushed on each
+ * {@link #getBuffer(RenderLayer)} call, otherwise separate strips would be joined together.
+ */
+public class BatchedVertexConsumers implements VertexConsumerProvider, AutoCloseable {
+
+    // Allocators are kept between frames so their memory is only reserved once
+    private final Map<RenderLayer, BufferAllocator> allocators = new HashMap<>();
+
+    // Builders currently receiving vertices, in first-use order
+    private final Map<RenderLayer, BufferBuilder> pending = new LinkedHashMap<>();
+
+    @Override
+    public VertexConsumer getBuffer(RenderLayer layer) {
+        BufferBuilder builder = pending.get(layer);
+        if (builder != null && !layer.areVerticesNotShared()) {
+            // Strips cannot be concatenated, draw what we have first
+            drawLayer(layer, pending.remove(layer));
+            builder = null;
+        }
+
+        if (builder == null) {
+            BufferAllocator allocator = allocators.computeIfAbsent(layer,
+                key -> new BufferAllocator(key.getExpectedBufferSize()));
+            builder = new BufferBuilder(allocator, layer.getDrawMode(), layer.getVertexFormat());
+            pending.put(layer, builder);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Draws every pending layer and resets the builders for the next frame.
+     */
+    public void draw() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<RenderLayer, BufferBuilder> entry : pending.entrySet()) {
+            drawLayer(entry.getKey(), entry.getValue());
+        }
+        pending.clear();
+    }
+
+    /**
+     * Gets the number of layers currently holding vertices.
+     */
+    public int getPendingLayerCount() {
+        return pending.size();
+    }
+
+    private void drawLayer(RenderLayer layer, BufferBuilder builder) {
+        BuiltBuffer builtBuffer = builder.endNullable();
+        if (builtBuffer == null) {
+            return;
+        }
+
+        if (layer.isTranslucent()) {
+            builtBuffer.sortQuads(allocators.get(layer), RenderSystem.getProjectionType().getVertexSorter());
+        }
+        layer.draw(builtBuffer);
+    }
+
+    /**
+     * Releases the native memory held by the allocators.
+     */
+    @Override
+    public void close() {
+        pending.clear();
+        allocators.values().forEach(BufferAllocator::close);
+        allocators.clear();
+    }
+}
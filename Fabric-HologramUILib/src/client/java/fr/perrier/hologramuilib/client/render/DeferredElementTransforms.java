@@ -0,0 +1,28 @@
+package fr.perrier.hologramuilib.client.render;
+
+import org.joml.Matrix4f;
+
+/**
+ * Vertex consumer provider that applies the animated transform of elements itself, at draw time.
+ *
+ * Elements rendered into it draw their geometry at rest, between {@link #beginElement} and
+ * {@link #endElement()}, and the provider moves, scales, rotates and fades it afterwards.
+ * See {@link fr.perrier.hologramuilib.client.menu.elements.AbstractMenuElement#beginAnimatedTransform}.
+ */
+public interface DeferredElementTransforms {
+
+    /**
+     * Starts the geometry of an element.
+     *
+     * @param elementHandle Animation handle of the element, or -1 if it has nothing to animate
+     * @param matrix Current position matrix, the space the pivot is expressed in
+     * @param pivotX Center of scale and rotation
+     * @param hoverScaled If the element also scales by its hover scale
+     */
+    void beginElement(int elementHandle, Matrix4f matrix, float pivotX, float pivotY, boolean hoverScaled);
+
+    /**
+     * Ends the geometry of the element started last.
+     */
+    void endElement();
+}
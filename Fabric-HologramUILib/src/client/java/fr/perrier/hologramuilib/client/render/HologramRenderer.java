@@ -1,11 +1,19 @@
 package fr.perrier.hologramuilib.client.render;
 
 import com.mojang.blaze3d.systems.RenderSystem;
+import com.sun.management.ThreadMXBean;
+import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.AnimationTier;
+import fr.perrier.hologramuilib.client.config.StyleConfig;
 import fr.perrier.hologramuilib.client.interaction.InteractionHandler;
 import fr.perrier.hologramuilib.client.interaction.RaycastHelper;
+import fr.perrier.hologramuilib.client.menu.ElementLayout;
 import fr.perrier.hologramuilib.client.menu.HologramMenu;
 import fr.perrier.hologramuilib.client.menu.MenuElement;
 import fr.perrier.hologramuilib.client.menu.MenuManager;
+import fr.perrier.hologramuilib.client.menu.MenuSpatialIndex;
+import fr.perrier.hologramuilib.client.menu.elements.AbstractMenuElement;
+import fr.perrier.hologramuilib.client.menu.elements.ContainerElement;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.client.MinecraftClient;
@@ -13,11 +21,20 @@ import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.render.*;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.math.RotationAxis;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix4f;
+import org.joml.Quaternionf;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Main renderer for holographic menus in 3D world space.
@@ -27,11 +44,57 @@ public class HologramRenderer {
 
     private static HologramRenderer INSTANCE;
 
+    // Weight of the newest sample in the frame time moving average
+    private static final double FRAME_TIME_SMOOTHING = 0.05;
+
+    // Cached meshes and textures unused for this many frames are released
+    private static final long CACHE_EVICTION_FRAMES = 600;
+
+    // Texture cache resolution per level of detail, in texels per menu unit
+    private static final float[] TEXTURE_DENSITY = {4.0f, 2.0f, 1.0f};
+
     private final MinecraftClient client;
+    private final BatchedVertexConsumers batchedVertexConsumers;
+    private final MenuMesh.Builder meshBuilder;
+    private final Map<HologramMenu, MenuRenderCache> caches = new IdentityHashMap<>();
+
+    // Reused every frame so the render path does not allocate in steady state
+    private final MatrixStack menuMatrices = new MatrixStack();
+    private final MatrixStack captureMatrices = new MatrixStack();
+    private final Quaternionf menuRotation = new Quaternionf();
+    private final List<HologramMenu> nearbyMenus = new ArrayList<>();
+    private List<HologramMenu> renderedMenuList = new ArrayList<>();
+    private List<HologramMenu> previousMenuList = new ArrayList<>(); // Rendered during the frame before
+    private final ThreadMXBean threadMXBean;
     private boolean debugMode = false;
+    private boolean batchedRendering = true;
+    private boolean meshCaching = true;
+    private boolean textureCaching = true;
+    private boolean occlusionCulling = false;
+    private boolean deferredTransforms = true;
+    private long frameCount = 0;
+    // Set when animation evaluation was started at the beginning of the world render
+    private boolean animationSampleStarted = false;
+
+    // Render statistics
+    private double averageFrameTimeNanos = 0;
+    private double averageAllocatedBytes = 0;
+    private int lastRenderedMenuCount = 0;
+    private int lastCachedMenuCount = 0;
+    private int lastCulledMenuCount = 0;
+    private final int[] lastLodMenuCounts = new int[StyleConfig.LodLevel.values().length];
+    private final int[] lodMenuCounts = new int[StyleConfig.LodLevel.values().length];
+    private long cacheRebuilds = 0;
 
     private HologramRenderer() {
         this.client = MinecraftClient.getInstance();
+        this.batchedVertexConsumers = new BatchedVertexConsumers();
+        this.meshBuilder = new MenuMesh.Builder();
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = bean instanceof ThreadMXBean allocationBean && allocationBean.isThreadAllocatedMemorySupported()
+            ? allocationBean
+            : null;
     }
 
     public static HologramRenderer getInstance() {
@@ -46,14 +109,26 @@ public class HologramRenderer {
      * Call this during client initialization.
      */
     public void register() {
+        WorldRenderEvents.START.register(this::onWorldRenderStart);
         WorldRenderEvents.LAST.register(this::onWorldRender);
     }
 
+    /**
+     * Starts evaluating animations before the world renders, so workers can run
+     * while the client thread draws terrain and entities.
+     */
+    private void onWorldRenderStart(WorldRenderContext context) {
+        AnimationManager animationManager = MenuManager.getInstance().getAnimationManager();
+        animationManager.getClock().captureFrame(context.tickCounter().getTickDelta(true));
+        animationManager.beginSample();
+        animationSampleStarted = true;
+    }
+
     /**
      * Called by Fabric's world render event system.
      */
     private void onWorldRender(WorldRenderContext context) {
-        render(context.camera(), context.tickCounter().getTickDelta(true));
+        render(context.camera(), context.frustum(), context.tickCounter().getTickDelta(true));
     }
 
     /**
@@ -78,33 +153,305 @@ public class HologramRenderer {
     }
 
     /**
-     * Main render method.
+     * Toggles batched rendering.
+     * When enabled, all menus share per-layer buffers that are flushed once per frame
+     * instead of once per menu.
+     */
+    public void toggleBatchedRendering() {
+        setBatchedRendering(!this.batchedRendering);
+    }
+
+    /**
+     * Returns whether batched rendering is enabled.
+     */
+    public boolean isBatchedRendering() {
+        return batchedRendering;
+    }
+
+    /**
+     * Sets batched rendering.
+     */
+    public void setBatchedRendering(boolean batchedRendering) {
+        if (this.batchedRendering != batchedRendering) {
+            this.batchedRendering = batchedRendering;
+            // Old samples were taken with the other mode, start fresh
+            this.averageFrameTimeNanos = 0;
+        }
+    }
+
+    /**
+     * Toggles mesh caching.
+     * When enabled, menus whose content did not change are drawn from retained GPU buffers.
+     */
+    public void toggleMeshCaching() {
+        setMeshCaching(!this.meshCaching);
+    }
+
+    /**
+     * Returns whether mesh caching is enabled.
+     */
+    public boolean isMeshCaching() {
+        return meshCaching;
+    }
+
+    /**
+     * Sets mesh caching. Disabling it releases every cached mesh and texture.
+     */
+    public void setMeshCaching(boolean meshCaching) {
+        if (this.meshCaching != meshCaching) {
+            this.meshCaching = meshCaching;
+            this.averageFrameTimeNanos = 0;
+            if (!meshCaching) {
+                releaseCaches();
+            }
+        }
+    }
+
+    /**
+     * Toggles texture caching.
+     * When enabled, cached menus are rendered once into an offscreen texture and drawn
+     * as a single quad instead of replaying their mesh.
+     */
+    public void toggleTextureCaching() {
+        setTextureCaching(!this.textureCaching);
+    }
+
+    /**
+     * Returns whether texture caching is enabled.
+     */
+    public boolean isTextureCaching() {
+        return textureCaching;
+    }
+
+    /**
+     * Sets texture caching. Changing it releases every cache so menus are captured again.
+     */
+    public void setTextureCaching(boolean textureCaching) {
+        if (this.textureCaching != textureCaching) {
+            this.textureCaching = textureCaching;
+            this.averageFrameTimeNanos = 0;
+            releaseCaches();
+        }
+    }
+
+    /**
+     * Toggles deferred element transforms.
+     * When enabled, translation, scale, rotation and opacity animations are applied on top of
+     * the cached mesh of a menu at draw time, instead of rendering the menu again every frame.
+     */
+    public void toggleDeferredTransforms() {
+        setDeferredTransforms(!this.deferredTransforms);
+    }
+
+    /**
+     * Returns whether deferred element transforms are enabled.
+     */
+    public boolean isDeferredTransforms() {
+        return deferredTransforms;
+    }
+
+    /**
+     * Sets deferred element transforms. Changing it releases every cache so menus are captured again.
+     */
+    public void setDeferredTransforms(boolean deferredTransforms) {
+        if (this.deferredTransforms != deferredTransforms) {
+            this.deferredTransforms = deferredTransforms;
+            this.averageFrameTimeNanos = 0;
+            releaseCaches();
+        }
+    }
+
+    /**
+     * Releases the cached meshes and textures of every menu.
+     */
+    public void releaseCaches() {
+        caches.keySet().forEach(HologramMenu::markDirty);
+        caches.values().forEach(MenuRenderCache::close);
+        caches.clear();
+    }
+
+    /**
+     * Gets the number of menus drawn from their cached mesh or texture during the last frame.
+     */
+    public int getLastCachedMenuCount() {
+        return lastCachedMenuCount;
+    }
+
+    /**
+     * Gets the number of cached meshes and textures currently held on the GPU.
+     */
+    public int getCachedMenuCount() {
+        return caches.size();
+    }
+
+    /**
+     * Gets the total number of cache rebuilds since startup.
+     */
+    public long getCacheRebuilds() {
+        return cacheRebuilds;
+    }
+
+    /**
+     * Gets the average CPU time spent rendering menus per frame, in microseconds.
+     */
+    public double getAverageFrameTimeMicros() {
+        return averageFrameTimeNanos / 1000.0;
+    }
+
+    /**
+     * Gets the average number of bytes allocated per frame while rendering menus,
+     * or -1 if the JVM cannot measure it.
+     */
+    public double getAverageAllocatedBytes() {
+        return threadMXBean != null ? averageAllocatedBytes : -1;
+    }
+
+    /**
+     * Gets the number of menus rendered during the last frame.
+     */
+    public int getLastRenderedMenuCount() {
+        return lastRenderedMenuCount;
+    }
+
+    /**
+     * Gets the number of menus culled during the last frame.
+     */
+    public int getLastCulledMenuCount() {
+        return lastCulledMenuCount;
+    }
+
+    /**
+     * Gets the number of menus rendered at the given level of detail during the last frame.
+     */
+    public int getLastLodMenuCount(StyleConfig.LodLevel level) {
+        return lastLodMenuCounts[level.ordinal()];
+    }
+
+    /**
+     * Toggles coarse occlusion culling.
+     * When enabled, menus standing in chunk sections that are not loaded or not yet built are skipped.
+     */
+    public void toggleOcclusionCulling() {
+        this.occlusionCulling = !this.occlusionCulling;
+    }
+
+    /**
+     * Returns whether coarse occlusion culling is enabled.
+     */
+    public boolean isOcclusionCulling() {
+        return occlusionCulling;
+    }
+
+    /**
+     * Sets coarse occlusion culling.
+     */
+    public void setOcclusionCulling(boolean occlusionCulling) {
+        this.occlusionCulling = occlusionCulling;
+    }
+
+    /**
+     * Main render method, without frustum culling.
      *
      * @param camera The camera used for rendering
      * @param tickDelta Partial tick for smooth interpolation
      */
     public void render(Camera camera, float tickDelta) {
+        render(camera, null, tickDelta);
+    }
+
+    /**
+     * Main render method.
+     *
+     * @param camera The camera used for rendering
+     * @param frustum The camera frustum used to cull menus, or null to only cull by distance
+     * @param tickDelta Partial tick for smooth interpolation
+     */
+    public void render(Camera camera, @Nullable Frustum frustum, float tickDelta) {
         if (client.world == null || client.player == null) {
             return;
         }
 
         MenuManager menuManager = MenuManager.getInstance();
         if (menuManager.getActiveMenus().isEmpty()) {
+            animationSampleStarted = false;
+            menuManager.getAnimationManager().finishSample();
+            renderedMenuList.clear();
+            evictUnusedCaches(menuManager);
             return;
         }
 
+        long startTime = System.nanoTime();
+        long startAllocatedBytes = threadMXBean != null ? threadMXBean.getCurrentThreadAllocatedBytes() : 0;
+        frameCount++;
+        lastCachedMenuCount = 0;
         Vec3d cameraPos = camera.getPos();
 
+        // Evaluate every animation once at this frame's time, elements only read the sampled values
+        AnimationManager animationManager = menuManager.getAnimationManager();
+        if (!animationSampleStarted) {
+            animationManager.getClock().captureFrame(tickDelta);
+            animationManager.beginSample();
+        }
+        animationSampleStarted = false;
+        animationManager.finishSample();
+
         // Setup render state for transparency
         RenderSystem.enableBlend();
         RenderSystem.defaultBlendFunc();
         RenderSystem.disableCull();
         RenderSystem.enableDepthTest();
 
-        for (HologramMenu menu : menuManager.getActiveMenus()) {
+        // Menus that drop out of the query below are never visited, cull them up front
+        List<HologramMenu> previousMenus = renderedMenuList;
+        for (int i = 0; i < previousMenus.size(); i++) {
+            previousMenus.get(i).setCulled(true);
+        }
+        renderedMenuList = previousMenuList;
+        previousMenuList = previousMenus;
+        renderedMenuList.clear();
+
+        // Only menus within the largest render distance can be visible
+        MenuSpatialIndex spatialIndex = menuManager.getSpatialIndex();
+        nearbyMenus.clear();
+        spatialIndex.queryRadius(cameraPos.x, cameraPos.y, cameraPos.z, spatialIndex.getMaxRenderDistance(), nearbyMenus);
+
+        Arrays.fill(lodMenuCounts, 0);
+        for (int i = 0; i < nearbyMenus.size(); i++) {
+            HologramMenu menu = nearbyMenus.get(i);
+
+            // Culled menus skip update, hover resolution and element traversal entirely
+            boolean culled = isCulled(menu, cameraPos, frustum);
+            menu.setCulled(culled);
+            if (culled) {
+                continue;
+            }
+
             renderMenu(menu, camera, cameraPos, tickDelta);
+            renderedMenuList.add(menu);
+        }
+        nearbyMenus.clear();
+
+        // Menus that stopped being rendered stop animating until they come back
+        for (int i = 0; i < previousMenus.size(); i++) {
+            HologramMenu menu = previousMenus.get(i);
+            if (menu.isCulled()) {
+                setAnimationTier(menu, AnimationTier.HIDDEN);
+            }
         }
 
+        int renderedMenus = renderedMenuList.size();
+        int culledMenus = menuManager.getMenuCount() - renderedMenus;
+
+        // Flush every menu at once
+        if (batchedRendering) {
+            batchedVertexConsumers.draw();
+        }
+        lastRenderedMenuCount = renderedMenus;
+        lastCulledMenuCount = culledMenus;
+        System.arraycopy(lodMenuCounts, 0, lastLodMenuCounts, 0, lodMenuCounts.length);
+
+        evictUnusedCaches(menuManager);
+
         // Render debug raycast line if debug mode is enabled
         if (debugMode) {
             renderDebugRaycast(camera, cameraPos);
@@ -113,33 +460,81 @@ public class HologramRenderer {
         // Restore render state
         RenderSystem.enableCull();
         RenderSystem.disableBlend();
+
+        long frameTime = System.nanoTime() - startTime;
+        averageFrameTimeNanos = averageFrameTimeNanos == 0
+            ? frameTime
+            : averageFrameTimeNanos + (frameTime - averageFrameTimeNanos) * FRAME_TIME_SMOOTHING;
+
+        if (threadMXBean != null) {
+            long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+            averageAllocatedBytes += (allocatedBytes - averageAllocatedBytes) * FRAME_TIME_SMOOTHING;
+        }
     }
 
     /**
-     * Renders a single hologram menu.
+     * Culling stage, run before anything else touches the menu.
+     *
+     * @return true if the menu should not be rendered this frame
+     */
+    private boolean isCulled(HologramMenu menu, Vec3d cameraPos, @Nullable Frustum frustum) {
+        // Distance-based culling
+        double maxDistance = menu.getMaxRenderDistance();
+        if (cameraPos.squaredDistanceTo(menu.getPosition()) > maxDistance * maxDistance) {
+            return true;
+        }
+
+        // Frustum culling against the menu quad
+        if (frustum != null && !frustum.isVisible(menu.getWorldBounds())) {
+            return true;
+        }
+
+        return occlusionCulling && isOccluded(menu);
+    }
+
+    /**
+     * Coarse occlusion test: a menu standing in a chunk section that is not loaded
+     * or not built yet has nothing rendered around it and is most likely hidden.
+     */
+    private boolean isOccluded(HologramMenu menu) {
+        BlockPos pos = BlockPos.ofFloored(menu.getPosition());
+        int chunkX = ChunkSectionPos.getSectionCoord(pos.getX());
+        int chunkZ = ChunkSectionPos.getSectionCoord(pos.getZ());
+
+        if (!client.world.isChunkLoaded(chunkX, chunkZ)) {
+            return true;
+        }
+        return !client.worldRenderer.isRenderingReady(pos);
+    }
+
+    /**
+     * Renders a single hologram menu that passed the culling stage.
      */
     private void renderMenu(HologramMenu menu, Camera camera, Vec3d cameraPos, float tickDelta) {
         Vec3d menuPos = menu.getPosition();
-
-        // Distance-based culling
         double distance = cameraPos.distanceTo(menuPos);
-        if (distance > menu.getMaxRenderDistance()) {
-            return;
-        }
 
         // Update menu if auto-update is enabled
         menu.update();
 
-        // Update hover state from InteractionHandler
-        InteractionHandler interactionHandler = InteractionHandler.getInstance();
-        if (interactionHandler.isMenuHovered(menu)) {
-            menu.setHoveredElement(interactionHandler.getHoveredElement());
-        } else {
-            menu.setHoveredElement(null);
-        }
+        // Pick the level of detail, a change of level invalidates the cache
+        StyleConfig.LodLevel lodLevel = menu.computeLodLevel(distance, getProjectedHeight(menu, distance));
+        menu.setLodLevel(lodLevel);
+        lodMenuCounts[lodLevel.ordinal()]++;
 
-        // Create matrix stack for transformations
-        MatrixStack matrices = new MatrixStack();
+        // Hover state is moved by the InteractionHandler each tick, elements are only shown at full detail
+        boolean hovered = lodLevel == StyleConfig.LodLevel.FULL && InteractionHandler.getInstance().isMenuHovered(menu);
+
+        // Only the elements of full detail menus are shown, the title alone at mid range
+        setAnimationTier(menu, switch (lodLevel) {
+            case FULL -> hovered ? AnimationTier.HOVERED : AnimationTier.VISIBLE;
+            case REDUCED -> AnimationTier.DISTANT;
+            case IMPOSTOR -> AnimationTier.HIDDEN;
+        });
+
+        // Reset the shared matrix stack for this menu
+        MatrixStack matrices = menuMatrices;
+        matrices.loadIdentity();
 
         // Translate to menu position relative to camera
         matrices.translate(
@@ -149,27 +544,187 @@ public class HologramRenderer {
         );
 
         // Apply menu rotation (fixed orientation based on menu's yaw)
-        matrices.multiply(RotationAxis.POSITIVE_Y.rotationDegrees(180-menu.getYaw()));
+        matrices.multiply(menuRotation.rotationY((float) Math.toRadians(180-menu.getYaw())));
 
         // Apply menu scale (negative X to flip horizontally for correct text orientation)
         float scale = menu.getScale();
         matrices.scale(scale, -scale, scale); //That is good don't touch
 
-        // Get vertex consumers for rendering
-        VertexConsumerProvider.Immediate immediate = client.getBufferBuilders().getEntityVertexConsumers();
+        if (meshCaching && !debugMode && menu.isCacheable(deferredTransforms)) {
+            renderCachedMenu(menu, matrices, tickDelta, distance);
+            lastCachedMenuCount++;
+            return;
+        }
 
-        // Render the menu content
-        renderMenuContent(menu, matrices, immediate, tickDelta, distance);
+        // Content changes every frame, rebuild the cache once it settles
+        menu.markDirty();
 
-        // Draw all buffered vertices
-        immediate.draw();
+        if (batchedRendering) {
+            // Vertices are flushed once all menus are rendered
+            renderMenuContent(menu, matrices, batchedVertexConsumers, tickDelta, distance);
+        } else {
+            // Get vertex consumers for rendering
+            VertexConsumerProvider.Immediate immediate = client.getBufferBuilders().getEntityVertexConsumers();
+
+            // Render the menu content
+            renderMenuContent(menu, matrices, immediate, tickDelta, distance);
+
+            // Draw all buffered vertices
+            immediate.draw();
+        }
+    }
+
+
+    /**
+     * Sets how often the animations of a menu are evaluated, from how it is seen.
+     * Takes effect from the next sample, a menu coming back into view is refreshed at once.
+     */
+    private void setAnimationTier(HologramMenu menu, AnimationTier tier) {
+        AnimationManager animationManager = menu.getAnimationManager();
+        if (animationManager != null && menu.getAnimationGroup() >= 0) {
+            animationManager.setGroupTier(menu.getAnimationGroup(), tier);
+        }
+    }
+
+    /**
+     * Estimates the height of a menu on screen, in pixels, seen from the given distance.
+     */
+    private float getProjectedHeight(HologramMenu menu, double distance) {
+        double worldHeight = menu.getHeight() * menu.getScale();
+        if (distance < 1.0E-3) {
+            return Float.MAX_VALUE;
+        }
+
+        double fov = Math.toRadians(client.options.getFov().getValue());
+        double viewHeight = 2.0 * distance * Math.tan(fov / 2.0);
+        return (float) (worldHeight / viewHeight * client.getWindow().getFramebufferHeight());
+    }
+
+    /**
+     * Draws a menu from its cached mesh or texture, rebuilding it first if the menu changed.
+     * A change of level of detail marks the menu dirty, so textures are also re-captured
+     * at the resolution of the new level.
+     */
+    private void renderCachedMenu(HologramMenu menu, MatrixStack matrices, float tickDelta, double distance) {
+        MenuRenderCache cache = caches.get(menu);
+        boolean animated = hasAnimatedElements(menu);
+        if (cache == null || menu.isDirty() || animated && !animatesElements(cache, menu)) {
+            // Only a mesh can animate its elements, a texture is a single quad
+            cache = textureCaching && !animated
+                ? captureTexture(menu, cache, tickDelta, distance)
+                : captureMesh(menu, cache, tickDelta, distance);
+            caches.put(menu, cache);
+            menu.clearDirty();
+            cacheRebuilds++;
+        }
+
+        cache.setLastUsedFrame(frameCount);
+        cache.draw(matrices.peek().getPositionMatrix());
     }
 
+    /**
+     * Checks if any top-level element of a menu is animated.
+     */
+    private boolean hasAnimatedElements(HologramMenu menu) {
+        List<MenuElement> elements = menu.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i) instanceof AbstractMenuElement element && element.isAnimating()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a cache applies the animations of every animated element of a menu,
+     * meaning it is a mesh that captured these elements on their own.
+     */
+    private boolean animatesElements(MenuRenderCache cache, HologramMenu menu) {
+        if (!(cache instanceof MenuMesh mesh)) {
+            return false;
+        }
+
+        List<MenuElement> elements = menu.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i) instanceof AbstractMenuElement element && element.isAnimating()
+                    && !mesh.isAnimatedElement(element.getAnimationHandle())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Captures the content of a menu as a mesh, in menu-local space.
+     * Elements animated at that point are captured at rest, the mesh animates them when drawn.
+     */
+    private MenuRenderCache captureMesh(HologramMenu menu, @Nullable MenuRenderCache previous, float tickDelta, double distance) {
+        if (previous != null) {
+            previous.close();
+        }
+
+        // The world transform is applied at draw time
+        captureMatrices.loadIdentity();
+        renderMenuContent(menu, captureMatrices, meshBuilder, tickDelta, distance);
+        return meshBuilder.build(menu.getAnimationManager());
+    }
+
+    /**
+     * Captures the content of a menu into a texture, reusing the previous one when it has the right size.
+     */
+    private MenuRenderCache captureTexture(HologramMenu menu, @Nullable MenuRenderCache previous, float tickDelta, double distance) {
+        float density = TEXTURE_DENSITY[menu.getLodLevel().ordinal()];
+
+        MenuTexture texture;
+        if (previous instanceof MenuTexture previousTexture && previousTexture.matches(menu.getWidth(), menu.getHeight(), density)) {
+            texture = previousTexture;
+        } else {
+            if (previous != null) {
+                previous.close();
+            }
+            texture = new MenuTexture(menu.getWidth(), menu.getHeight(), density);
+        }
+
+        // Menus batched so far belong to the main framebuffer
+        batchedVertexConsumers.draw();
+
+        captureMatrices.loadIdentity();
+        texture.beginCapture(captureMatrices);
+        renderMenuContent(menu, captureMatrices, batchedVertexConsumers, tickDelta, distance);
+        batchedVertexConsumers.draw();
+        texture.endCapture();
+
+        return texture;
+    }
+
+    /**
+     * Releases the caches of menus that were removed or not drawn for a while.
+     */
+    private void evictUnusedCaches(MenuManager menuManager) {
+        if (caches.isEmpty()) {
+            return;
+        }
+
+        Iterator<Map.Entry<HologramMenu, MenuRenderCache>> iterator = caches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<HologramMenu, MenuRenderCache> entry = iterator.next();
+            HologramMenu menu = entry.getKey();
+            boolean removed = menuManager.getMenu(menu.getId()) != menu;
+            boolean unused = frameCount - entry.getValue().getLastUsedFrame() > CACHE_EVICTION_FRAMES;
+
+            if (removed || unused) {
+                entry.getValue().close();
+                iterator.remove();
+                // Make sure the cache is built again if the menu comes back
+                menu.markDirty();
+            }
+        }
+    }
 
     /**
      * Renders the actual content of a menu (background, elements, etc.)
      */
-    private void renderMenuContent(HologramMenu menu, MatrixStack matrices, VertexConsumerProvider.Immediate vertexConsumers, float tickDelta, double distance) {
+    private void renderMenuContent(HologramMenu menu, MatrixStack matrices, VertexConsumerProvider vertexConsumers, float tickDelta, double distance) {
         TextRenderer textRenderer = client.textRenderer;
 
         float width = menu.getWidth();
@@ -187,13 +742,24 @@ public class HologramRenderer {
             renderBackground(matrices, vertexConsumers, width, height, menu.getBackgroundColor());
         }
 
+        StyleConfig.LodLevel lodLevel = menu.getLodLevel();
+        if (lodLevel == StyleConfig.LodLevel.IMPOSTOR && !debugMode) {
+            // Far away, the background quad alone stands for the menu
+            matrices.pop();
+            return;
+        }
+
         // Render border
         if (menu.hasBorder()) {
             renderBorder(matrices, vertexConsumers, width, height, menu.getBorderColor(), menu.getBorderWidth());
         }
 
-        // Render elements
-        menu.render(matrices, textRenderer, vertexConsumers, tickDelta);
+        // Render elements, or only the title at mid range
+        if (lodLevel == StyleConfig.LodLevel.REDUCED && !debugMode) {
+            menu.renderTitle(matrices, textRenderer, vertexConsumers, tickDelta);
+        } else {
+            menu.render(matrices, textRenderer, vertexConsumers, tickDelta);
+        }
 
         // Render debug hitboxes if enabled
         if (debugMode) {
@@ -257,32 +823,36 @@ public class HologramRenderer {
         matrices.push();
         matrices.translate(menu.getPadding(), menu.getPadding(), 0.02f);
 
-        float currentY = 0;
-        int colorIndex = 0;
         int[] colors = {0xFFFF0000, 0xFF00FF00, 0xFF0000FF, 0xFFFFFF00, 0xFFFF00FF, 0xFF00FFFF};
 
-        List<MenuElement> elements = menu.getElements();
-        for (int i = 0; i < elements.size(); i++) {
-            MenuElement element = elements.get(i);
-            int color = colors[colorIndex % colors.length];
-            renderElementHitbox(matrices, vertexConsumers, element, currentY, color);
-
-            currentY += element.getHeight();
-            // Only add spacing if not the last element
-            if (i < elements.size() - 1) {
-                currentY += menu.getSpacing();
-            }
-
-            colorIndex++;
-        }
+        // Same layout as rendering and raycasting
+        renderLayoutHitboxes(matrices, vertexConsumers, menu.getLayout(), colors);
 
         matrices.pop();
     }
 
+    /**
+     * Renders the hitboxes of a layout, descending into the children of containers.
+     */
+    private void renderLayoutHitboxes(MatrixStack matrices, VertexConsumerProvider vertexConsumers, ElementLayout layout, int[] colors) {
+        for (int i = 0; i < layout.size(); i++) {
+            MenuElement element = layout.getElement(i);
+            int color = colors[i % colors.length];
+            renderElementHitbox(matrices, vertexConsumers, element, layout.getX(i), layout.getY(i), color);
+
+            if (element instanceof ContainerElement container) {
+                matrices.push();
+                matrices.translate(layout.getX(i) + container.getPadding(), layout.getY(i) + container.getPadding(), 0.01f);
+                renderLayoutHitboxes(matrices, vertexConsumers, container.getChildLayout(), colors);
+                matrices.pop();
+            }
+        }
+    }
+
     /**
      * Renders a debug hitbox outline for a single element.
      */
-    private void renderElementHitbox(MatrixStack matrices, VertexConsumerProvider vertexConsumers, MenuElement element, float y, int color) {
+    private void renderElementHitbox(MatrixStack matrices, VertexConsumerProvider vertexConsumers, MenuElement element, float x, float y, int color) {
         Matrix4f matrix = matrices.peek().getPositionMatrix();
 
         float a = ((color >> 24) & 0xFF) / 255f;
@@ -296,11 +866,11 @@ public class HologramRenderer {
         VertexConsumer buffer = vertexConsumers.getBuffer(RenderLayer.getDebugLineStrip(2.0));
 
         // Draw element hitbox outline
-        buffer.vertex(matrix, 0, y, 0).color(r, g, b, a);
-        buffer.vertex(matrix, w, y, 0).color(r, g, b, a);
-        buffer.vertex(matrix, w, y + h, 0).color(r, g, b, a);
-        buffer.vertex(matrix, 0, y + h, 0).color(r, g, b, a);
-        buffer.vertex(matrix, 0, y, 0).color(r, g, b, a);
+        buffer.vertex(matrix, x, y, 0).color(r, g, b, a);
+        buffer.vertex(matrix, x + w, y, 0).color(r, g, b, a);
+        buffer.vertex(matrix, x + w, y + h, 0).color(r, g, b, a);
+        buffer.vertex(matrix, x, y + h, 0).color(r, g, b, a);
+        buffer.vertex(matrix, x, y, 0).color(r, g, b, a);
     }
 
     /**
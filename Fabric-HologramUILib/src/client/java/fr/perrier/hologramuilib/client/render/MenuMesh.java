@@ -0,0 +1,240 @@
+package fr.perrier.hologramuilib.client.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import fr.perrier.hologramuilib.client.animation.AnimationManager;
+import fr.perrier.hologramuilib.client.animation.ElementTransform;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.client.gl.GlUsage;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BuiltBuffer;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.BufferAllocator;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retained GPU geometry of a hologram menu.
+ *
+ * The menu content is captured once in menu-local space (before the world translation,
+ * rotation and scale) and uploaded to one vertex buffer per render layer.
+ * Moving, rotating or scaling the menu therefore does not require a rebuild,
+ * only changes to its content do (see {@link fr.perrier.hologramuilib.client.menu.HologramMenu#markDirty()}).
+ *
+ * Elements that were animating when the mesh was captured get buffers of their own, captured
+ * at rest. Their translation, scale and rotation are applied to the model-view matrix and
+ * their opacity to the shader color when drawing, so these animations do not rebuild the mesh.
+ */
+public class MenuMesh implements MenuRenderCache {
+
+    private final List<Segment> segments;
+    @Nullable
+    private final AnimationManager animationManager;
+    private final IntSet animatedElements;
+    private final Matrix4f modelViewMatrix = new Matrix4f();
+    private final Matrix4f elementMatrix = new Matrix4f();
+    private final Matrix4f animatedMatrix = new Matrix4f();
+    private final ElementTransform transform = new ElementTransform();
+    private long lastUsedFrame;
+
+    private MenuMesh(List<Segment> segments, @Nullable AnimationManager animationManager, IntSet animatedElements) {
+        this.segments = segments;
+        this.animationManager = animationManager;
+        this.animatedElements = animatedElements;
+    }
+
+    @Override
+    public void draw(Matrix4f positionMatrix) {
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        modelViewMatrix.set(RenderSystem.getModelViewMatrix()).mul(positionMatrix);
+        Matrix4f projectionMatrix = RenderSystem.getProjectionMatrix();
+
+        for (Segment segment : segments) {
+            Matrix4f matrix = modelViewMatrix;
+            float alpha = 1.0f;
+
+            ElementBinding binding = segment.binding();
+            if (binding != null && animationManager != null && animationManager.isAnimating(binding.elementHandle())) {
+                animationManager.readTransform(binding.elementHandle(), transform);
+                alpha = transform.getAlpha();
+                if (alpha <= 0.01f) {
+                    continue;
+                }
+
+                // The animation is expressed in the space the element was captured in
+                transform.toMatrix(elementMatrix, binding.pivotX(), binding.pivotY(), binding.hoverScaled());
+                matrix = animatedMatrix.set(modelViewMatrix)
+                    .mul(binding.captureMatrix())
+                    .mul(elementMatrix)
+                    .mul(binding.inverseCaptureMatrix());
+            }
+
+            if (alpha < 1.0f) {
+                RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, alpha);
+            }
+            segment.layer().startDrawing();
+            segment.buffer().bind();
+            segment.buffer().draw(matrix, projectionMatrix, RenderSystem.getShader());
+            segment.layer().endDrawing();
+            if (alpha < 1.0f) {
+                RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
+            }
+        }
+        VertexBuffer.unbind();
+    }
+
+    /**
+     * Checks if an element has its own buffers, so its transform animations can be applied at draw time.
+     */
+    public boolean isAnimatedElement(int elementHandle) {
+        return animatedElements.contains(elementHandle);
+    }
+
+    /**
+     * Gets the number of GPU buffers used by this mesh.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public long getLastUsedFrame() {
+        return lastUsedFrame;
+    }
+
+    @Override
+    public void setLastUsedFrame(long lastUsedFrame) {
+        this.lastUsedFrame = lastUsedFrame;
+    }
+
+    /**
+     * Releases the GPU buffers of this mesh.
+     */
+    @Override
+    public void close() {
+        segments.forEach(segment -> segment.buffer().close());
+        segments.clear();
+    }
+
+    /**
+     * A vertex buffer together with the render layer it must be drawn with,
+     * and the element it belongs to if that element is animated at draw time.
+     */
+    private record Segment(RenderLayer layer, VertexBuffer buffer, @Nullable ElementBinding binding) {
+    }
+
+    /**
+     * Where an animated element was captured, to replay its animation around the same pivot.
+     */
+    private record ElementBinding(int elementHandle, Matrix4f captureMatrix, Matrix4f inverseCaptureMatrix,
+                                  float pivotX, float pivotY, boolean hoverScaled) {
+    }
+
+    /**
+     * Vertex consumer provider that captures everything rendered into it as a {@link MenuMesh}.
+     * The builder keeps its allocators between meshes, so it should be reused.
+     */
+    public static class Builder implements VertexConsumerProvider, DeferredElementTransforms, AutoCloseable {
+
+        private final Map<RenderLayer, BufferAllocator> allocators = new HashMap<>();
+        private final Map<RenderLayer, BufferBuilder> pending = new LinkedHashMap<>();
+        private List<Segment> segments = new ArrayList<>();
+        private IntSet animatedElements = new IntOpenHashSet();
+        @Nullable
+        private ElementBinding currentElement;
+
+        @Override
+        public VertexConsumer getBuffer(RenderLayer layer) {
+            BufferBuilder builder = pending.get(layer);
+            if (builder != null && !layer.areVerticesNotShared()) {
+                // Strips cannot be concatenated, each one gets its own buffer
+                upload(layer, pending.remove(layer));
+                builder = null;
+            }
+
+            if (builder == null) {
+                BufferAllocator allocator = allocators.computeIfAbsent(layer,
+                    key -> new BufferAllocator(key.getExpectedBufferSize()));
+                builder = new BufferBuilder(allocator, layer.getDrawMode(), layer.getVertexFormat());
+                pending.put(layer, builder);
+            }
+
+            return builder;
+        }
+
+        @Override
+        public void beginElement(int elementHandle, Matrix4f matrix, float pivotX, float pivotY, boolean hoverScaled) {
+            if (elementHandle < 0) {
+                return; // Nothing to animate, stays with the static geometry
+            }
+
+            // Static geometry captured so far must not move with the element
+            flush();
+            currentElement = new ElementBinding(elementHandle, new Matrix4f(matrix), new Matrix4f(matrix).invert(),
+                pivotX, pivotY, hoverScaled);
+            animatedElements.add(elementHandle);
+        }
+
+        @Override
+        public void endElement() {
+            if (currentElement != null) {
+                flush();
+                currentElement = null;
+            }
+        }
+
+        /**
+         * Uploads everything captured since the last call and returns it as a mesh.
+         *
+         * @param animationManager Manager to read element animations from when drawing, or null for a static mesh
+         */
+        public MenuMesh build(@Nullable AnimationManager animationManager) {
+            flush();
+            currentElement = null;
+
+            MenuMesh mesh = new MenuMesh(segments, animationManager, animatedElements);
+            segments = new ArrayList<>();
+            animatedElements = new IntOpenHashSet();
+            return mesh;
+        }
+
+        private void flush() {
+            for (Map.Entry<RenderLayer, BufferBuilder> entry : pending.entrySet()) {
+                upload(entry.getKey(), entry.getValue());
+            }
+            pending.clear();
+        }
+
+        private void upload(RenderLayer layer, BufferBuilder builder) {
+            BuiltBuffer builtBuffer = builder.endNullable();
+            if (builtBuffer == null) {
+                return;
+            }
+
+            VertexBuffer vertexBuffer = new VertexBuffer(GlUsage.STATIC_WRITE);
+            vertexBuffer.bind();
+            vertexBuffer.upload(builtBuffer);
+            VertexBuffer.unbind();
+            segments.add(new Segment(layer, vertexBuffer, currentElement));
+        }
+
+        @Override
+        public void close() {
+            pending.clear();
+            allocators.values().forEach(BufferAllocator::close);
+            allocators.clear();
+        }
+    }
+}
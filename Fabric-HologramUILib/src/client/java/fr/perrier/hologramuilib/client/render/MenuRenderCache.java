@@ -0,0 +1,27 @@
+package fr.perrier.hologramuilib.client.render;
+
+import org.joml.Matrix4f;
+
+/**
+ * Retained GPU representation of a menu whose content did not change.
+ * See {@link MenuMesh} and {@link MenuTexture}.
+ */
+public interface MenuRenderCache extends AutoCloseable {
+
+    /**
+     * Draws the cached menu.
+     *
+     * @param positionMatrix Camera-relative transform of the menu (translation, rotation and scale)
+     */
+    void draw(Matrix4f positionMatrix);
+
+    long getLastUsedFrame();
+
+    void setLastUsedFrame(long lastUsedFrame);
+
+    /**
+     * Releases the GPU resources held by this cache.
+     */
+    @Override
+    void close();
+}
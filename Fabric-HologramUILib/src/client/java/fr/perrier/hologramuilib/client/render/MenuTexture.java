@@ -0,0 +1,147 @@
+package fr.perrier.hologramuilib.client.render;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.ShaderProgramKeys;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.ProjectionType;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fStack;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * Menu content rendered once into an offscreen texture, drawn as a single quad.
+ *
+ * The texture is captured in menu-local space, so like {@link MenuMesh} it survives
+ * moving, rotating or scaling the menu. The content is captured with premultiplied alpha
+ * (the framebuffer starts fully transparent) and composited back the same way.
+ */
+public class MenuTexture implements MenuRenderCache {
+
+    // Largest texture side, in pixels
+    private static final int MAX_TEXTURE_SIZE = 2048;
+
+    private final SimpleFramebuffer framebuffer;
+    private final float width;
+    private final float height;
+    private final float texelsPerUnit;
+    private long lastUsedFrame;
+
+    // Render state saved while capturing
+    private final Matrix4f savedProjectionMatrix = new Matrix4f();
+    private ProjectionType savedProjectionType;
+
+    /**
+     * Creates an empty texture for a menu.
+     *
+     * @param width Menu width, in menu units
+     * @param height Menu height, in menu units
+     * @param texelsPerUnit Requested resolution, in texels per menu unit
+     */
+    public MenuTexture(float width, float height, float texelsPerUnit) {
+        this.width = width;
+        this.height = height;
+        this.texelsPerUnit = texelsPerUnit;
+
+        float density = Math.min(texelsPerUnit, MAX_TEXTURE_SIZE / Math.max(1f, Math.max(width, height)));
+        int textureWidth = Math.max(1, (int) Math.ceil(width * density));
+        int textureHeight = Math.max(1, (int) Math.ceil(height * density));
+
+        this.framebuffer = new SimpleFramebuffer(textureWidth, textureHeight, true);
+        this.framebuffer.setTexFilter(GL11.GL_LINEAR);
+        this.framebuffer.setClearColor(0f, 0f, 0f, 0f);
+    }
+
+    /**
+     * Checks if this texture can hold a menu of the given size at the given resolution.
+     */
+    public boolean matches(float width, float height, float texelsPerUnit) {
+        return this.width == width && this.height == height && this.texelsPerUnit == texelsPerUnit;
+    }
+
+    /**
+     * Redirects rendering to this texture.
+     * Menu content rendered into the given matrices until {@link #endCapture()} ends up in the texture.
+     *
+     * @param matrices Matrices the content will be rendered with, expected to be the identity
+     */
+    public void beginCapture(MatrixStack matrices) {
+        savedProjectionMatrix.set(RenderSystem.getProjectionMatrix());
+        savedProjectionType = RenderSystem.getProjectionType();
+
+        framebuffer.clear();
+        framebuffer.beginWrite(true);
+
+        // One menu unit per unit, Y pointing down like the menu layout
+        RenderSystem.setProjectionMatrix(
+            new Matrix4f().setOrtho(0, width, height, 0, -1000f, 1000f),
+            ProjectionType.ORTHOGRAPHIC
+        );
+        Matrix4fStack modelViewStack = RenderSystem.getModelViewStack();
+        modelViewStack.pushMatrix();
+        modelViewStack.identity();
+
+        // Accumulate coverage in the alpha channel instead of overwriting it
+        RenderSystem.blendFuncSeparate(
+            GlStateManager.SrcFactor.SRC_ALPHA, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA,
+            GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA
+        );
+
+        // Menu content is centered on the origin
+        matrices.translate(width / 2f, height / 2f, 0);
+    }
+
+    /**
+     * Restores rendering to the main framebuffer.
+     */
+    public void endCapture() {
+        RenderSystem.getModelViewStack().popMatrix();
+        RenderSystem.setProjectionMatrix(savedProjectionMatrix, savedProjectionType);
+        RenderSystem.defaultBlendFunc();
+        MinecraftClient.getInstance().getFramebuffer().beginWrite(true);
+    }
+
+    @Override
+    public void draw(Matrix4f positionMatrix) {
+        float x0 = -width / 2f;
+        float y0 = -height / 2f;
+        float x1 = width / 2f;
+        float y1 = height / 2f;
+
+        RenderSystem.setShader(ShaderProgramKeys.POSITION_TEX_COLOR);
+        RenderSystem.setShaderTexture(0, framebuffer.getColorAttachment());
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        // The top of the menu is the top row of the framebuffer (v = 1)
+        BufferBuilder buffer = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE_COLOR);
+        buffer.vertex(positionMatrix, x0, y0, 0).texture(0, 1).color(0xFFFFFFFF);
+        buffer.vertex(positionMatrix, x0, y1, 0).texture(0, 0).color(0xFFFFFFFF);
+        buffer.vertex(positionMatrix, x1, y1, 0).texture(1, 0).color(0xFFFFFFFF);
+        buffer.vertex(positionMatrix, x1, y0, 0).texture(1, 1).color(0xFFFFFFFF);
+        BufferRenderer.drawWithGlobalProgram(buffer.end());
+
+        RenderSystem.defaultBlendFunc();
+    }
+
+    @Override
+    public long getLastUsedFrame() {
+        return lastUsedFrame;
+    }
+
+    @Override
+    public void setLastUsedFrame(long lastUsedFrame) {
+        this.lastUsedFrame = lastUsedFrame;
+    }
+
+    @Override
+    public void close() {
+        framebuffer.delete();
+    }
+}
@@ -0,0 +1,39 @@
+package fr.perrier.hologramuilib.client.animation;
+
+import fr.perrier.hologramuilib.client.animation.Easing.EasingFunction;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EasingTableTest {
+
+    private static final int PROBES = 100_000;
+
+    @Test
+    public void sharedTablesStayCloseToTheirCurve() {
+        for (String name : Easing.getNames()) {
+            EasingFunction analytic = Easing.getAnalyticFunction(name);
+            EasingFunction shared = EasingTable.of(analytic);
+            if (shared instanceof EasingTable table) {
+                float maxError = table.getMaxError(PROBES);
+                assertTrue(name + " off by " + maxError, maxError <= EasingTable.MAX_ERROR);
+            } else {
+                assertSame(name, analytic, shared);
+            }
+        }
+    }
+
+    @Test
+    public void steepCurvesStayAnalytic() {
+        EasingFunction easeInCirc = Easing.getAnalyticFunction("easeInCirc");
+        assertTrue(new EasingTable(easeInCirc).getMaxError(PROBES) > EasingTable.MAX_ERROR);
+        assertSame(easeInCirc, EasingTable.of(easeInCirc));
+    }
+
+    @Test
+    public void tablesAreShared() {
+        EasingFunction easeOutBounce = Easing.getAnalyticFunction("easeOutBounce");
+        assertSame(EasingTable.of(easeOutBounce), EasingTable.of(easeOutBounce));
+    }
+}
@@ -0,0 +1,36 @@
+package fr.perrier.hologramuilib.client.benchmark;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the regression checks of {@code /hologram bench animations} outside the game.
+ * They only drive a {@link fr.perrier.hologramuilib.client.animation.FrameClock} by hand.
+ */
+@RunWith(Parameterized.class)
+public class AnimationBenchmarkTest {
+
+    @Parameters(name = "{0}")
+    public static List<Object[]> checks() {
+        return AnimationBenchmark.check().stream()
+            .map(check -> new Object[]{check.name(), check})
+            .toList();
+    }
+
+    private final AnimationBenchmark.Check check;
+
+    public AnimationBenchmarkTest(String name, AnimationBenchmark.Check check) {
+        this.check = check;
+    }
+
+    @Test
+    public void passes() {
+        assertTrue(check.name() + ": " + check.detail(), check.passed());
+    }
+}
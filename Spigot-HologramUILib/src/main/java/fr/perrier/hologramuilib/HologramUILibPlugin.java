@@ -71,6 +71,9 @@ public class HologramUILibPlugin extends JavaPlugin implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         HologramMenuAPI.clearPlayerData(event.getPlayer());
+        if (this.networkManager != null) {
+            this.networkManager.removePlayer(event.getPlayer());
+        }
     }
 
     /**
@@ -1,11 +1,13 @@
 package fr.perrier.hologramuilib.api;
 
 import fr.perrier.hologramuilib.HologramUILibPlugin;
+import fr.perrier.hologramuilib.protocol.LodDefaults;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -28,8 +30,17 @@ public class HologramMenu {
     private int padding;
     private int spacing;
     private boolean backgroundEnabled;
+    private boolean lodEnabled = LodDefaults.ENABLED;
+    private double lodReducedDistance = LodDefaults.REDUCED_DISTANCE;
+    private double lodImpostorDistance = LodDefaults.IMPOSTOR_DISTANCE;
+    private float lodFullMinScreenHeight = LodDefaults.FULL_MIN_SCREEN_HEIGHT;
+    private float lodReducedMinScreenHeight = LodDefaults.REDUCED_MIN_SCREEN_HEIGHT;
+    private boolean lodCustomized;
     private Predicate<Player> visibilityCondition;
 
+    // Encoded messages per action, shared by every player and dropped when the menu changes
+    private final Map<String, byte[]> serializedMessages = new HashMap<>(4);
+
     public HologramMenu(String menuId) {
         this.menuId = menuId;
         this.elements = new LinkedHashMap<>();
@@ -42,6 +53,93 @@ public class HologramMenu {
      */
     protected void addElement(String id, MenuElement element) {
         this.elements.put(id, element);
+        element.attachTo(this);
+        invalidateSerialized();
+    }
+
+    /**
+     * Inserts an element at a position, shifting the following ones.
+     */
+    protected void insertElement(int index, String id, MenuElement element) {
+        List<Map.Entry<String, MenuElement>> entries = new ArrayList<>(this.elements.entrySet());
+        entries.add(index, Map.entry(id, element));
+        replaceElements(entries);
+        element.attachTo(this);
+    }
+
+    /**
+     * Removes an element.
+     *
+     * @return The removed element, or null if there was none
+     */
+    protected MenuElement removeElement(String id) {
+        MenuElement element = this.elements.remove(id);
+        if (element != null) {
+            element.attachTo(null);
+            invalidateSerialized();
+        }
+        return element;
+    }
+
+    /**
+     * Moves an element to another position.
+     */
+    protected void moveElement(String id, int index) {
+        List<Map.Entry<String, MenuElement>> entries = new ArrayList<>(this.elements.entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getKey().equals(id)) {
+                entries.add(index, Map.entry(id, entries.remove(i).getValue()));
+                replaceElements(entries);
+                return;
+            }
+        }
+    }
+
+    private void replaceElements(List<Map.Entry<String, MenuElement>> entries) {
+        this.elements.clear();
+        for (Map.Entry<String, MenuElement> entry : entries) {
+            this.elements.put(entry.getKey(), entry.getValue());
+        }
+        invalidateSerialized();
+    }
+
+    /**
+     * Gets the message sending this menu with an action, encoding it on first use.
+     * The same array goes to every player until the menu changes, it must not be modified.
+     *
+     * @param action The network action, one cached message per action
+     * @param encoder Builds the message when none is cached
+     */
+    public byte[] getSerializedMessage(String action, Function<HologramMenu, byte[]> encoder) {
+        return this.serializedMessages.computeIfAbsent(action, key -> encoder.apply(this));
+    }
+
+    /**
+     * Drops the cached messages, called whenever the menu or one of its elements changes.
+     */
+    void invalidateSerialized() {
+        this.serializedMessages.clear();
+    }
+
+    /**
+     * Starts a batch of changes to this menu, sent to its players with {@link MenuPatch#send()}.
+     */
+    public MenuPatch patch() {
+        return new MenuPatch(this);
+    }
+
+    /**
+     * Changes the content of an element and sends it to the players right away.
+     */
+    public void updateContent(String elementId, String content) {
+        patch().setContent(elementId, content).send();
+    }
+
+    /**
+     * Changes the value of a slider or progress bar and sends it to the players right away.
+     */
+    public void updateValue(String elementId, double value) {
+        patch().setValue(elementId, value).send();
     }
 
     /**
@@ -132,6 +230,7 @@ public class HologramMenu {
 
     protected void setPosition(Location position) {
         this.position = position;
+        invalidateSerialized();
     }
 
     public String getTitle() {
@@ -140,6 +239,7 @@ public class HologramMenu {
 
     protected void setTitle(String title) {
         this.title = title;
+        invalidateSerialized();
     }
 
     public int getWidth() {
@@ -148,6 +248,7 @@ public class HologramMenu {
 
     protected void setWidth(int width) {
         this.width = width;
+        invalidateSerialized();
     }
 
     public int getHeight() {
@@ -156,6 +257,7 @@ public class HologramMenu {
 
     protected void setHeight(int height) {
         this.height = height;
+        invalidateSerialized();
     }
 
     public float getScale() {
@@ -164,6 +266,7 @@ public class HologramMenu {
 
     protected void setScale(float scale) {
         this.scale = scale;
+        invalidateSerialized();
     }
 
     public double getMaxRenderDistance() {
@@ -172,6 +275,7 @@ public class HologramMenu {
 
     protected void setMaxRenderDistance(double maxRenderDistance) {
         this.maxRenderDistance = maxRenderDistance;
+        invalidateSerialized();
     }
 
     public int getBackgroundColor() {
@@ -180,6 +284,7 @@ public class HologramMenu {
 
     protected void setBackgroundColor(int backgroundColor) {
         this.backgroundColor = backgroundColor;
+        invalidateSerialized();
     }
 
     public int getBorderColor() {
@@ -188,6 +293,7 @@ public class HologramMenu {
 
     protected void setBorderColor(int borderColor) {
         this.borderColor = borderColor;
+        invalidateSerialized();
     }
 
     public int getPadding() {
@@ -196,6 +302,7 @@ public class HologramMenu {
 
     protected void setPadding(int padding) {
         this.padding = padding;
+        invalidateSerialized();
     }
 
     public int getSpacing() {
@@ -204,6 +311,7 @@ public class HologramMenu {
 
     protected void setSpacing(int spacing) {
         this.spacing = spacing;
+        invalidateSerialized();
     }
 
     public boolean isBackgroundEnabled() {
@@ -212,6 +320,65 @@ public class HologramMenu {
 
     protected void setBackgroundEnabled(boolean backgroundEnabled) {
         this.backgroundEnabled = backgroundEnabled;
+        invalidateSerialized();
+    }
+
+    /**
+     * Checks if any level of detail setting was set on this menu.
+     * Menus that set none are sent without them and use the mod's, see {@link LodDefaults}.
+     */
+    public boolean isLodCustomized() {
+        return lodCustomized;
+    }
+
+    public boolean isLodEnabled() {
+        return lodEnabled;
+    }
+
+    protected void setLodEnabled(boolean lodEnabled) {
+        this.lodEnabled = lodEnabled;
+        this.lodCustomized = true;
+        invalidateSerialized();
+    }
+
+    public double getLodReducedDistance() {
+        return lodReducedDistance;
+    }
+
+    protected void setLodReducedDistance(double lodReducedDistance) {
+        this.lodReducedDistance = lodReducedDistance;
+        this.lodCustomized = true;
+        invalidateSerialized();
+    }
+
+    public double getLodImpostorDistance() {
+        return lodImpostorDistance;
+    }
+
+    protected void setLodImpostorDistance(double lodImpostorDistance) {
+        this.lodImpostorDistance = lodImpostorDistance;
+        this.lodCustomized = true;
+        invalidateSerialized();
+    }
+
+    public float getLodFullMinScreenHeight() {
+        return lodFullMinScreenHeight;
+    }
+
+    protected void setLodFullMinScreenHeight(float lodFullMinScreenHeight) {
+        this.lodFullMinScreenHeight = lodFullMinScreenHeight;
+        this.lodCustomized = true;
+        invalidateSerialized();
+    }
+
+    public float getLodReducedMinScreenHeight() {
+        return lodReducedMinScreenHeight;
+    }
+
+    protected void setLodReducedMinScreenHeight(float lodReducedMinScreenHeight) {
+        this.lodReducedMinScreenHeight = lodReducedMinScreenHeight;
+        this.lodCustomized = true;
+        invalidateSerialized();
     }
 
     public Predicate<Player> getVisibilityCondition() {
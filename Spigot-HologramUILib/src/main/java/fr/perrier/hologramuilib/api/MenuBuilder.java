@@ -32,6 +32,7 @@ public class MenuBuilder {
         this.menu.setBorderColor(0xFFFFD700);
         this.menu.setPadding(10);
         this.menu.setSpacing(5);
+        // Level of detail keeps LodDefaults, off until enabled with withLod
     }
 
     /**
@@ -203,6 +204,56 @@ public class MenuBuilder {
         return this;
     }
 
+    /**
+     * Enables or disables level of detail, disabled by default.
+     * When disabled, the menu is always rendered with all its elements.
+     *
+     * @param enabled Whether level of detail is enabled
+     * @return This builder
+     */
+    public MenuBuilder withLod(boolean enabled) {
+        this.menu.setLodEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Sets the distances at which the menu loses detail.
+     * Beyond the reduced distance only the background, border and title are shown,
+     * beyond the impostor distance only the background. Also enables level of detail.
+     *
+     * @param reducedDistance Distance in blocks for title-only rendering
+     * @param impostorDistance Distance in blocks for background-only rendering
+     * @return This builder
+     */
+    public MenuBuilder withLod(double reducedDistance, double impostorDistance) {
+        if (reducedDistance > impostorDistance) {
+            throw new IllegalArgumentException("Reduced LOD distance must not exceed the impostor distance");
+        }
+        this.menu.setLodEnabled(true);
+        this.menu.setLodReducedDistance(reducedDistance);
+        this.menu.setLodImpostorDistance(impostorDistance);
+        return this;
+    }
+
+    /**
+     * Sets the minimum on-screen heights, in pixels, for each level of detail.
+     * Menus that appear smaller than these are simplified regardless of distance.
+     * Also enables level of detail.
+     *
+     * @param fullMinHeight Minimum height for full detail
+     * @param reducedMinHeight Minimum height for title-only rendering
+     * @return This builder
+     */
+    public MenuBuilder withLodScreenSize(float fullMinHeight, float reducedMinHeight) {
+        if (reducedMinHeight > fullMinHeight) {
+            throw new IllegalArgumentException("Reduced LOD screen height must not exceed the full detail height");
+        }
+        this.menu.setLodEnabled(true);
+        this.menu.setLodFullMinScreenHeight(fullMinHeight);
+        this.menu.setLodReducedMinScreenHeight(reducedMinHeight);
+        return this;
+    }
+
     /**
      * Sets a condition that determines if the menu should be visible.
      * The predicate receives the player and should return true if menu is visible.
@@ -1,5 +1,7 @@
 package fr.perrier.hologramuilib.api;
 
+import fr.perrier.hologramuilib.protocol.MenuJsonKeys;
+
 import java.util.*;
 import java.util.function.BiConsumer;
 
@@ -23,6 +25,9 @@ public class MenuElement {
     private BiConsumer<org.bukkit.entity.Player, SliderChangeEvent> changeCallback;
     private Map<String, MenuElement> children;
 
+    // Menu this element belongs to, told when the element changes so it serializes again
+    private HologramMenu menu;
+
     public MenuElement(String type, String id, String content) {
         this.type = type;
         this.id = id;
@@ -46,6 +51,7 @@ public class MenuElement {
 
     public void setContent(String content) {
         this.content = content;
+        changed();
     }
 
     public int getWidth() {
@@ -54,6 +60,7 @@ public class MenuElement {
 
     public MenuElement setWidth(int width) {
         this.width = width;
+        changed();
         return this;
     }
 
@@ -63,6 +70,7 @@ public class MenuElement {
 
     public MenuElement setHeight(int height) {
         this.height = height;
+        changed();
         return this;
     }
 
@@ -72,6 +80,7 @@ public class MenuElement {
 
     public MenuElement setMinValue(double minValue) {
         this.minValue = minValue;
+        changed();
         return this;
     }
 
@@ -81,6 +90,7 @@ public class MenuElement {
 
     public MenuElement setMaxValue(double maxValue) {
         this.maxValue = maxValue;
+        changed();
         return this;
     }
 
@@ -90,6 +100,7 @@ public class MenuElement {
 
     public MenuElement setValue(double value) {
         this.value = value;
+        changed();
         return this;
     }
 
@@ -117,35 +128,60 @@ public class MenuElement {
 
     public MenuElement setChildren(Map<String, MenuElement> children) {
         this.children = new LinkedHashMap<>(children);
+        attachTo(this.menu);
+        changed();
         return this;
     }
 
+    /**
+     * Sets the menu this element and its children belong to.
+     */
+    void attachTo(HologramMenu menu) {
+        this.menu = menu;
+        for (MenuElement child : children.values()) {
+            child.attachTo(menu);
+        }
+    }
+
+    private void changed() {
+        if (menu != null) {
+            menu.invalidateSerialized();
+        }
+    }
+
     /**
      * Converts this element to a JSON representation for sending to the mod.
      */
     public String toJson() {
+        return toJsonObject().toString();
+    }
+
+    /**
+     * Converts this element to a JSON object, children included, without going through a string.
+     */
+    public com.google.gson.JsonObject toJsonObject() {
         com.google.gson.JsonObject json = new com.google.gson.JsonObject();
-        json.addProperty("id", id);
-        json.addProperty("type", type);
+        json.addProperty(MenuJsonKeys.ID, id);
+        json.addProperty(MenuJsonKeys.TYPE, type);
 
         if (content != null && !content.isEmpty()) {
-            json.addProperty("content", content);
+            json.addProperty(MenuJsonKeys.CONTENT, content);
         }
 
-        if (width > 0) json.addProperty("width", width);
-        if (height > 0) json.addProperty("height", height);
-        if (minValue > 0) json.addProperty("minValue", minValue);
-        if (maxValue > 0) json.addProperty("maxValue", maxValue);
-        if (value > 0) json.addProperty("value", value);
+        if (width > 0) json.addProperty(MenuJsonKeys.WIDTH, width);
+        if (height > 0) json.addProperty(MenuJsonKeys.HEIGHT, height);
+        if (minValue > 0) json.addProperty(MenuJsonKeys.MIN_VALUE, minValue);
+        if (maxValue > 0) json.addProperty(MenuJsonKeys.MAX_VALUE, maxValue);
+        if (value > 0) json.addProperty(MenuJsonKeys.VALUE, value);
 
         if (!children.isEmpty()) {
             com.google.gson.JsonArray childrenArray = new com.google.gson.JsonArray();
             for (MenuElement child : children.values()) {
-                childrenArray.add(com.google.gson.JsonParser.parseString(child.toJson()));
+                childrenArray.add(child.toJsonObject());
             }
-            json.add("children", childrenArray);
+            json.add(MenuJsonKeys.CHILDREN, childrenArray);
         }
 
-        return json.toString();
+        return json;
     }
 }
@@ -0,0 +1,171 @@
+package fr.perrier.hologramuilib.api;
+
+import fr.perrier.hologramuilib.HologramUILibPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of changes to a shown menu, sent to its players as one "menu_patch".
+ *
+ * Changes are applied to the menu as they are added, and sent with {@link #send()}.
+ * Clients only update the elements that changed, keeping animations and hover state;
+ * players whose mod does not support patches get the whole menu again.
+ *
+ * Example:
+ * <pre>
+ * menu.patch()
+ *     .setContent("score", "§eScore: " + score)
+ *     .setValue("progress", 42)
+ *     .remove("bonus")
+ *     .send();
+ * </pre>
+ */
+public class MenuPatch {
+
+    public enum Type {
+        SET_CONTENT,
+        SET_VALUE,
+        INSERT,
+        REMOVE,
+        MOVE
+    }
+
+    /**
+     * One change, as sent to the client.
+     *
+     * @param elementId ID of the element on the client
+     * @param content New content, for {@link Type#SET_CONTENT}
+     * @param value New value, for {@link Type#SET_VALUE}: the slider value, or the fraction filled for progress bars
+     * @param index Position among the menu elements, for {@link Type#INSERT} and {@link Type#MOVE}
+     * @param element Inserted element, for {@link Type#INSERT}
+     */
+    public record Operation(Type type, String elementId, String content, double value, int index, MenuElement element) {
+    }
+
+    private final HologramMenu menu;
+    private final List<Operation> operations = new ArrayList<>();
+
+    protected MenuPatch(HologramMenu menu) {
+        this.menu = menu;
+    }
+
+    /**
+     * Changes the text of a text element or the label of a button.
+     *
+     * @param elementId The element ID
+     * @param content The new content
+     * @return This patch
+     */
+    public MenuPatch setContent(String elementId, String content) {
+        MenuElement element = requireElement(elementId);
+        element.setContent(content);
+        operations.add(new Operation(Type.SET_CONTENT, element.getId(), content, 0, -1, null));
+        return this;
+    }
+
+    /**
+     * Changes the value of a slider or progress bar.
+     *
+     * @param elementId The element ID
+     * @param value The new value, in the range the element was created with
+     * @return This patch
+     */
+    public MenuPatch setValue(String elementId, double value) {
+        MenuElement element = requireElement(elementId);
+        element.setValue(value);
+
+        // Progress bars are only a fraction on the client, which does not know their maximum
+        double wireValue = value;
+        if ("progress_bar".equals(element.getType())) {
+            wireValue = value / (element.getMaxValue() > 0 ? element.getMaxValue() : 100);
+        }
+        operations.add(new Operation(Type.SET_VALUE, element.getId(), null, wireValue, -1, null));
+        return this;
+    }
+
+    /**
+     * Inserts an element.
+     *
+     * @param index Position among the menu elements, the title excluded
+     * @param element The element, its ID must not be used yet
+     * @return This patch
+     */
+    public MenuPatch insert(int index, MenuElement element) {
+        if (menu.getElement(element.getId()) != null) {
+            throw new IllegalArgumentException("Element already in menu " + menu.getMenuId() + ": " + element.getId());
+        }
+        checkIndex(index, menu.getElements().size());
+        menu.insertElement(index, element.getId(), element);
+        operations.add(new Operation(Type.INSERT, element.getId(), null, 0, index, element));
+        return this;
+    }
+
+    /**
+     * Removes an element.
+     *
+     * @param elementId The element ID
+     * @return This patch
+     */
+    public MenuPatch remove(String elementId) {
+        MenuElement element = requireElement(elementId);
+        menu.removeElement(elementId);
+        operations.add(new Operation(Type.REMOVE, element.getId(), null, 0, -1, null));
+        return this;
+    }
+
+    /**
+     * Moves an element to another position.
+     *
+     * @param elementId The element ID
+     * @param index New position among the menu elements, the title excluded
+     * @return This patch
+     */
+    public MenuPatch move(String elementId, int index) {
+        MenuElement element = requireElement(elementId);
+        checkIndex(index, menu.getElements().size() - 1);
+        menu.moveElement(elementId, index);
+        operations.add(new Operation(Type.MOVE, element.getId(), null, 0, index, null));
+        return this;
+    }
+
+    /**
+     * Sends the changes to every player the menu is shown to.
+     */
+    public void send() {
+        if (operations.isEmpty() || menu.getVisiblePlayers().isEmpty()) {
+            return;
+        }
+
+        HologramUILibPlugin plugin = HologramUILibPlugin.getInstance();
+        if (plugin != null && plugin.getNetworkManager() != null) {
+            plugin.getNetworkManager().sendPatch(menu, this, menu.getVisiblePlayers());
+        }
+    }
+
+    /**
+     * Gets the changes, in the order they were made.
+     */
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    private MenuElement requireElement(String elementId) {
+        MenuElement element = menu.getElement(elementId);
+        if (element == null) {
+            throw new IllegalArgumentException("No element " + elementId + " in menu " + menu.getMenuId());
+        }
+        return element;
+    }
+
+    private static void checkIndex(int index, int max) {
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of 0.." + max);
+        }
+    }
+}
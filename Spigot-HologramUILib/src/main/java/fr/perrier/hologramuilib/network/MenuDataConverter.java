@@ -0,0 +1,96 @@
+package fr.perrier.hologramuilib.network;
+
+import fr.perrier.hologramuilib.api.HologramMenu;
+import fr.perrier.hologramuilib.api.MenuElement;
+import fr.perrier.hologramuilib.api.MenuPatch;
+import fr.perrier.hologramuilib.protocol.ElementData;
+import fr.perrier.hologramuilib.protocol.MenuData;
+import fr.perrier.hologramuilib.protocol.MenuEncoder;
+import fr.perrier.hologramuilib.protocol.MenuWireFormat;
+import fr.perrier.hologramuilib.protocol.PatchData;
+import fr.perrier.hologramuilib.protocol.PatchOperation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Converts API menus and patches into the records {@link MenuEncoder} encodes.
+ */
+public final class MenuDataConverter {
+
+    private MenuDataConverter() {
+    }
+
+    /**
+     * Converts a menu with all its elements.
+     */
+    public static MenuData toData(HologramMenu menu) {
+        return toData(menu, menu.getElements().size());
+    }
+
+    /**
+     * Converts a menu with only its first elements, the others can follow as insert patches.
+     */
+    public static MenuData toData(HologramMenu menu, int elementCount) {
+        elementCount = Math.min(elementCount, menu.getElements().size());
+        List<ElementData> elements = new ArrayList<>(elementCount);
+        Iterator<MenuElement> iterator = menu.getElements().values().iterator();
+        for (int i = 0; i < elementCount; i++) {
+            elements.add(toData(iterator.next()));
+        }
+
+        double[] position = menu.getPosition() != null
+            ? new double[] {menu.getPosition().getX(), menu.getPosition().getY(), menu.getPosition().getZ()}
+            : null;
+        return new MenuData(menu.getMenuId(), position, menu.getTitle(),
+            menu.getWidth(), menu.getHeight(), menu.getScale(), (float) menu.getMaxRenderDistance(),
+            menu.getBackgroundColor(), menu.getBorderColor(), menu.getPadding(), menu.getSpacing(),
+            menu.isBackgroundEnabled(), menu.isLodEnabled(),
+            (float) menu.getLodReducedDistance(), (float) menu.getLodImpostorDistance(),
+            menu.getLodFullMinScreenHeight(), menu.getLodReducedMinScreenHeight(),
+            elements);
+    }
+
+    /**
+     * Converts patch operations.
+     */
+    public static PatchData toPatch(String menuId, List<MenuPatch.Operation> operations) {
+        List<PatchOperation> converted = new ArrayList<>(operations.size());
+        for (MenuPatch.Operation operation : operations) {
+            converted.add(switch (operation.type()) {
+                case SET_CONTENT -> new PatchOperation(MenuWireFormat.OP_SET_CONTENT, operation.elementId(),
+                    operation.content() != null ? operation.content() : "", Float.NaN, -1, null);
+                case SET_VALUE -> new PatchOperation(MenuWireFormat.OP_SET_VALUE, operation.elementId(),
+                    null, (float) operation.value(), -1, null);
+                case INSERT -> new PatchOperation(MenuWireFormat.OP_INSERT, operation.elementId(),
+                    null, Float.NaN, operation.index(), toData(operation.element()));
+                case REMOVE -> new PatchOperation(MenuWireFormat.OP_REMOVE, operation.elementId(),
+                    null, Float.NaN, -1, null);
+                case MOVE -> new PatchOperation(MenuWireFormat.OP_MOVE, operation.elementId(),
+                    null, Float.NaN, operation.index(), null);
+            });
+        }
+        return new PatchData(menuId, converted);
+    }
+
+    private static ElementData toData(MenuElement element) {
+        List<ElementData> children = new ArrayList<>(element.getChildren().size());
+        for (MenuElement child : element.getChildren().values()) {
+            children.add(toData(child));
+        }
+
+        // Same presence rules as MenuElement.toJson(), unset fields keep the client defaults
+        return new ElementData(
+            element.getType(),
+            element.getId(),
+            element.getContent() != null ? element.getContent() : "",
+            Math.max(0, element.getWidth()),
+            Math.max(0, element.getHeight()),
+            element.getMinValue() > 0 ? (float) element.getMinValue() : Float.NaN,
+            element.getMaxValue() > 0 ? (float) element.getMaxValue() : Float.NaN,
+            element.getValue() > 0 ? (float) element.getValue() : Float.NaN,
+            children
+        );
+    }
+}
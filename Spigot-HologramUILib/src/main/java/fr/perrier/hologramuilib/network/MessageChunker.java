@@ -0,0 +1,67 @@
+package fr.perrier.hologramuilib.network;
+
+import fr.perrier.hologramuilib.protocol.MenuWireFormat;
+import org.bukkit.plugin.messaging.Messenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits messages larger than a plugin message into {@link #ACTION} chunks, for players whose
+ * mod announced "chunkedTransfer" in its "hello".
+ *
+ * Each chunk is a binary message whose body is:
+ * <pre>
+ * varint   transfer ID, shared by the chunks of one message
+ * varint   chunk index, from 0
+ * varint   chunk count
+ * bytes    the next part of the original message (action and data), up to the end
+ * </pre>
+ * The client ({@code fr.perrier.hologramuilib.client.network.ChunkReassembler}) joins the parts
+ * once all arrived and handles the result as if it had been sent whole. Transfers it does not
+ * complete in time are dropped.
+ */
+public final class MessageChunker {
+
+    public static final String ACTION = "menu_chunk";
+
+    /**
+     * Largest message sent whole, Bukkit refuses bigger plugin messages.
+     */
+    public static final int MAX_MESSAGE_SIZE = Messenger.MAX_MESSAGE_SIZE;
+
+    // Room for the action and the three varints of each chunk
+    private static final int CHUNK_HEADER_SIZE = 2 + ACTION.length() + 15;
+    static final int CHUNK_DATA_SIZE = MAX_MESSAGE_SIZE - CHUNK_HEADER_SIZE;
+
+    private MessageChunker() {
+    }
+
+    /**
+     * Splits a message into chunk bodies, each to be framed as an {@link #ACTION} message.
+     */
+    public static List<byte[]> split(byte[] message, int transferId) {
+        int chunkCount = (message.length + CHUNK_DATA_SIZE - 1) / CHUNK_DATA_SIZE;
+        List<byte[]> bodies = new ArrayList<>(chunkCount);
+
+        for (int index = 0; index < chunkCount; index++) {
+            int offset = index * CHUNK_DATA_SIZE;
+            int length = Math.min(CHUNK_DATA_SIZE, message.length - offset);
+
+            MenuWireFormat.Writer body = new MenuWireFormat.Writer(length + 15);
+            body.writeVarInt(transferId);
+            body.writeVarInt(index);
+            body.writeVarInt(chunkCount);
+            body.writeBytes(message, offset, length);
+            bodies.add(body.toByteArray());
+        }
+        return bodies;
+    }
+
+    /**
+     * Checks if a message must be chunked to be sent.
+     */
+    public static boolean needsChunking(byte[] message) {
+        return message.length > MAX_MESSAGE_SIZE;
+    }
+}
@@ -1,8 +1,12 @@
 package fr.perrier.hologramuilib.network;
 
 import fr.perrier.hologramuilib.api.*;
+import fr.perrier.hologramuilib.protocol.MenuEncoder;
+import fr.perrier.hologramuilib.protocol.MenuWireFormat;
+import fr.perrier.hologramuilib.protocol.MessageCompression;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.messaging.PluginMessageListener;
@@ -16,6 +20,13 @@ import java.util.*;
 /**
  * Manages network communication between Spigot server and Fabric mod client.
  * Uses Minecraft's plugin messaging channel system.
+ *
+ * Every message starts with its action as a {@link DataOutputStream#writeUTF} string. JSON
+ * messages follow with their data as a second such string, binary ones with raw bytes up to
+ * the end of the message. Menus are sent in the {@link MenuWireFormat} to players whose mod
+ * announced it in its "hello", and as JSON to everyone else. Messages above
+ * {@link MessageCompression#THRESHOLD} are compressed for mods that announced it too, and
+ * messages still too big for one plugin message are sent in {@link MessageChunker} chunks.
  */
 public class NetworkManager implements PluginMessageListener {
 
@@ -24,6 +35,10 @@ public class NetworkManager implements PluginMessageListener {
 
     private final JavaPlugin plugin;
     private final Map<UUID, PlayerNetworkHandler> playerHandlers;
+    private int nextTransferId = 0;
+
+    // Elements per message when a menu too big for one message is sent progressively
+    private static final int PROGRESSIVE_BATCH_SIZE = 32;
 
     public NetworkManager(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -49,31 +64,263 @@ public class NetworkManager implements PluginMessageListener {
         LOGGER.info("Network manager shutdown");
     }
 
+    /**
+     * Forgets what a player's mod announced, called when the player leaves.
+     */
+    public void removePlayer(Player player) {
+        playerHandlers.remove(player.getUniqueId());
+    }
+
+    /**
+     * Checks if a player's mod decodes binary menus.
+     */
+    public boolean supportsBinaryMenus(Player player) {
+        return getWireVersion(player) >= 1;
+    }
+
+    /**
+     * Checks if a player's mod applies menu patches.
+     */
+    public boolean supportsPatches(Player player) {
+        return getWireVersion(player) >= 2;
+    }
+
+    private int getWireVersion(Player player) {
+        PlayerNetworkHandler handler = playerHandlers.get(player.getUniqueId());
+        return handler != null ? handler.getWireVersion() : 0;
+    }
+
+    /**
+     * Checks if a player's mod decompresses messages.
+     */
+    public boolean supportsCompression(Player player) {
+        PlayerNetworkHandler handler = playerHandlers.get(player.getUniqueId());
+        return handler != null && handler.isCompressionEnabled();
+    }
+
+    /**
+     * Gets the {@link MessageCompression} dictionary version a player's mod knows, 0 if it does not decompress.
+     */
+    public int getCompressionDictionary(Player player) {
+        PlayerNetworkHandler handler = playerHandlers.get(player.getUniqueId());
+        return handler != null ? handler.getCompressionDictionary() : 0;
+    }
+
+    /**
+     * Checks if a player's mod reassembles {@link MessageChunker} chunks.
+     */
+    public boolean supportsChunkedTransfer(Player player) {
+        PlayerNetworkHandler handler = playerHandlers.get(player.getUniqueId());
+        return handler != null && handler.isChunkedTransferEnabled();
+    }
+
     /**
      * Sends a menu to players via plugin messaging.
+     * Each format is encoded once per menu change, cached on the menu, and the same message
+     * shared by every player using it.
+     *
+     * Menus too big for one plugin message go progressively to mods that apply patches: the
+     * first elements as a menu, shown right away, then the others as insert patches.
      */
     public void sendMenu(HologramMenu menu, Collection<Player> players) {
+        // Split menus are rare and not cached on the menu, they are built once per call
+        Map<Integer, List<byte[]>> progressiveMessages = new HashMap<>(2);
+        Map<byte[], List<byte[]>> chunkedMessages = new IdentityHashMap<>(2);
+
+        for (Player player : players) {
+            if (!player.isOnline()) {
+                continue;
+            }
+
+            // A menu one player's mod cannot receive must not stop it from reaching the others
+            try {
+                byte[] message = menuMessage(menu, player);
+
+                if (MessageChunker.needsChunking(message) && supportsPatches(player)) {
+                    List<byte[]> parts = progressiveMessages.computeIfAbsent(getCompressionDictionary(player),
+                        dictionary -> progressiveMenuMessages(menu, dictionary));
+                    for (byte[] part : parts) {
+                        send(player, part, menu.getMenuId(), chunkedMessages);
+                    }
+                    LOGGER.debug("Menu sent to {}: {} ({} bytes in {} parts)", player.getName(), menu.getMenuId(), message.length, parts.size());
+                } else {
+                    send(player, message, menu.getMenuId(), chunkedMessages);
+                    LOGGER.debug("Menu sent to {}: {} ({} bytes)", player.getName(), menu.getMenuId(), message.length);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error sending menu {} to {}", menu.getMenuId(), player.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the whole menu message for a player's mod, encoded once per menu change.
+     */
+    private byte[] menuMessage(HologramMenu menu, Player player) {
+        boolean binary = supportsBinaryMenus(player);
+        String action = binary ? MenuWireFormat.MENU_ACTION : "menu_data";
+        byte[] message = menu.getSerializedMessage(action, m -> binary
+            ? frame(action, MenuEncoder.encode(MenuDataConverter.toData(m)))
+            : frame(action, serializeMenu(m).toString()));
+
+        int dictionary = getCompressionDictionary(player);
+        if (dictionary != 0 && message.length >= MessageCompression.THRESHOLD) {
+            return menu.getSerializedMessage(action + "/" + MessageCompression.ALGORITHM + dictionary, m -> compressed(message, dictionary));
+        }
+        return message;
+    }
+
+    /**
+     * Splits a menu into a first message with its first elements, then insert patches for the others.
+     *
+     * @param dictionary Compression dictionary version, 0 to leave the messages as is
+     */
+    private static List<byte[]> progressiveMenuMessages(HologramMenu menu, int dictionary) {
+        List<MenuElement> elements = new ArrayList<>(menu.getElements().values());
+        List<byte[]> messages = new ArrayList<>();
+
+        int first = Math.min(PROGRESSIVE_BATCH_SIZE, elements.size());
+        messages.add(frame(MenuWireFormat.MENU_ACTION, MenuEncoder.encode(MenuDataConverter.toData(menu, first))));
+
+        for (int start = first; start < elements.size(); start += PROGRESSIVE_BATCH_SIZE) {
+            int end = Math.min(start + PROGRESSIVE_BATCH_SIZE, elements.size());
+            List<MenuPatch.Operation> inserts = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                MenuElement element = elements.get(i);
+                inserts.add(new MenuPatch.Operation(MenuPatch.Type.INSERT, element.getId(), null, 0, i, element));
+            }
+            messages.add(frame(MenuWireFormat.PATCH_ACTION, MenuEncoder.encodePatch(MenuDataConverter.toPatch(menu.getMenuId(), inserts))));
+        }
+
+        if (dictionary != 0) {
+            messages.replaceAll(message -> message.length >= MessageCompression.THRESHOLD ? compressed(message, dictionary) : message);
+        }
+        return messages;
+    }
+
+    /**
+     * Sends a message, in chunks if it is too big for one plugin message.
+     * Mods that cannot reassemble chunks do not get it, and the failure is logged.
+     *
+     * @param chunkedMessages Chunks already built for a message, shared by the players of one call
+     */
+    private void send(Player player, byte[] message, String menuId, Map<byte[], List<byte[]>> chunkedMessages) {
+        if (!MessageChunker.needsChunking(message)) {
+            player.sendPluginMessage(plugin, CHANNEL, message);
+            return;
+        }
+
+        if (!supportsChunkedTransfer(player)) {
+            LOGGER.error("Menu {} not sent to {}: {} bytes is over the {} byte plugin message limit and their mod cannot receive it in chunks",
+                menuId, player.getName(), message.length, MessageChunker.MAX_MESSAGE_SIZE);
+            return;
+        }
+
+        List<byte[]> chunks = chunkedMessages.computeIfAbsent(message, this::chunk);
+        for (byte[] chunk : chunks) {
+            player.sendPluginMessage(plugin, CHANNEL, chunk);
+        }
+    }
+
+    private List<byte[]> chunk(byte[] message) {
+        int transferId = nextTransferId;
+        nextTransferId = (nextTransferId + 1) & Integer.MAX_VALUE;
+
+        List<byte[]> chunks = MessageChunker.split(message, transferId);
+        chunks.replaceAll(body -> frame(MessageChunker.ACTION, body));
+        return chunks;
+    }
+
+    /**
+     * Sends changes to a shown menu. Players whose mod cannot apply them get the whole menu again.
+     */
+    public void sendPatch(HologramMenu menu, MenuPatch patch, Collection<Player> players) {
         try {
-            JsonObject menuJson = serializeMenu(menu);
-            byte[] data = menuJson.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            byte[] patchMessage = null;
+            Map<Integer, byte[]> compressedPatchMessages = new HashMap<>(2);
+            Map<byte[], List<byte[]>> chunkedMessages = new IdentityHashMap<>(2);
+            List<Player> resendPlayers = null;
 
             for (Player player : players) {
-                if (player.isOnline()) {
-                    ByteArrayOutputStream out = new ByteArrayOutputStream();
-                    DataOutputStream dos = new DataOutputStream(out);
-
-                    dos.writeUTF("menu_data");
-                    dos.writeUTF(menuJson.toString());
+                if (!player.isOnline()) {
+                    continue;
+                }
 
-                    player.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
-                    LOGGER.debug("Menu sent to {}: {}", player.getName(), menu.getMenuId());
+                if (supportsPatches(player)) {
+                    if (patchMessage == null) {
+                        patchMessage = frame(MenuWireFormat.PATCH_ACTION, MenuEncoder.encodePatch(MenuDataConverter.toPatch(menu.getMenuId(), patch.getOperations())));
+                    }
+                    byte[] message = patchMessage;
+                    int dictionary = getCompressionDictionary(player);
+                    if (dictionary != 0 && message.length >= MessageCompression.THRESHOLD) {
+                        message = compressedPatchMessages.get(dictionary);
+                        if (message == null) {
+                            message = compressed(patchMessage, dictionary);
+                            compressedPatchMessages.put(dictionary, message);
+                        }
+                    }
+                    send(player, message, menu.getMenuId(), chunkedMessages);
+                    LOGGER.debug("Menu patch sent to {}: {} ({} bytes)", player.getName(), menu.getMenuId(), message.length);
+                } else {
+                    if (resendPlayers == null) {
+                        resendPlayers = new ArrayList<>();
+                    }
+                    resendPlayers.add(player);
                 }
             }
+
+            if (resendPlayers != null) {
+                sendMenu(menu, resendPlayers);
+            }
         } catch (Exception e) {
-            LOGGER.error("Error sending menu", e);
+            LOGGER.error("Error sending menu patch", e);
         }
     }
 
+    /**
+     * Builds a JSON message: the action, then the data.
+     */
+    private static byte[] frame(String action, String data) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length() + action.length() + 4);
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeUTF(action);
+            dos.writeUTF(data);
+            return out.toByteArray();
+        } catch (IOException e) {
+            // Only thrown by writeUTF for data over 65535 bytes, binary messages have no such limit
+            throw new IllegalArgumentException("JSON " + action + " message over 65535 bytes, only mods with binary menus can receive it", e);
+        }
+    }
+
+    /**
+     * Builds a binary message: the action, then the body up to the end of the message.
+     */
+    private static byte[] frame(String action, byte[] body) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + action.length() + 2);
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeUTF(action);
+            dos.write(body);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Wraps a message in a {@link MessageCompression#ACTION} message, or returns it as is if
+     * compressing does not make it smaller.
+     */
+    private static byte[] compressed(byte[] message, int dictionary) {
+        byte[] body = MessageCompression.compress(message, dictionary);
+        if (body == null) {
+            return message;
+        }
+        byte[] compressedMessage = frame(MessageCompression.ACTION, body);
+        return compressedMessage.length < message.length ? compressedMessage : message;
+    }
+
     /**
      * Sends a menu close packet to players.
      */
@@ -82,16 +329,11 @@ public class NetworkManager implements PluginMessageListener {
             JsonObject closeJson = new JsonObject();
             closeJson.addProperty("action", "close");
             closeJson.addProperty("menuId", menuId);
+            byte[] message = frame("menu_close", closeJson.toString());
 
             for (Player player : players) {
                 if (player.isOnline()) {
-                    ByteArrayOutputStream out = new ByteArrayOutputStream();
-                    DataOutputStream dos = new DataOutputStream(out);
-
-                    dos.writeUTF("menu_close");
-                    dos.writeUTF(closeJson.toString());
-
-                    player.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
+                    player.sendPluginMessage(plugin, CHANNEL, message);
                     LOGGER.debug("Menu close sent to {}: {}", player.getName(), menuId);
                 }
             }
@@ -145,7 +387,7 @@ public class NetworkManager implements PluginMessageListener {
                     break;
 
                 case "hello":
-                    LOGGER.info("Player {} has HologramUILib mod installed", player.getName());
+                    handleHello(player, json);
                     break;
 
                 default:
@@ -156,6 +398,34 @@ public class NetworkManager implements PluginMessageListener {
         }
     }
 
+    /**
+     * Handles the capabilities a client mod announces when it joins.
+     * Mods that predate the binary format never send it and keep getting JSON.
+     */
+    private void handleHello(Player player, JsonObject json) {
+        int announcedVersion = json.has("wireVersion") ? json.get("wireVersion").getAsInt() : 0;
+
+        PlayerNetworkHandler handler = new PlayerNetworkHandler(player, plugin);
+        handler.setModInstalled(true);
+        handler.setWireVersion(Math.min(announcedVersion, MenuWireFormat.VERSION));
+        handler.setChunkedTransferEnabled(json.has("chunkedTransfer") && json.get("chunkedTransfer").getAsBoolean());
+        if (json.has("compression")) {
+            for (JsonElement algorithm : json.getAsJsonArray("compression")) {
+                if (MessageCompression.ALGORITHM.equals(algorithm.getAsString())) {
+                    // Mods that predate the field only know the first dictionary
+                    int announcedDictionary = json.has("compressionDictionary") ? json.get("compressionDictionary").getAsInt() : 1;
+                    handler.setCompressionDictionary(Math.max(1, Math.min(announcedDictionary, MessageCompression.DICTIONARY_VERSION)));
+                }
+            }
+        }
+        playerHandlers.put(player.getUniqueId(), handler);
+
+        LOGGER.info("Player {} has HologramUILib mod installed (wire version {}, compression {}, chunked transfer {})",
+            player.getName(), handler.getWireVersion(),
+            handler.isCompressionEnabled() ? MessageCompression.ALGORITHM + " dictionary " + handler.getCompressionDictionary() : "none",
+            handler.isChunkedTransferEnabled());
+    }
+
     /**
      * Handles menu click events from client.
      */
@@ -269,10 +539,20 @@ public class NetworkManager implements PluginMessageListener {
         json.addProperty("spacing", menu.getSpacing());
         json.addProperty("backgroundEnabled", menu.isBackgroundEnabled());
 
+        if (menu.isLodCustomized()) {
+            JsonObject lod = new JsonObject();
+            lod.addProperty("enabled", menu.isLodEnabled());
+            lod.addProperty("reducedDistance", menu.getLodReducedDistance());
+            lod.addProperty("impostorDistance", menu.getLodImpostorDistance());
+            lod.addProperty("fullMinScreenHeight", menu.getLodFullMinScreenHeight());
+            lod.addProperty("reducedMinScreenHeight", menu.getLodReducedMinScreenHeight());
+            json.add("lod", lod);
+        }
+
         // Serialize elements
         JsonArray elementsArray = new JsonArray();
         for (MenuElement element : menu.getElements().values()) {
-            elementsArray.add(JsonParser.parseString(element.toJson()));
+            elementsArray.add(element.toJsonObject());
         }
         json.add("elements", elementsArray);
 
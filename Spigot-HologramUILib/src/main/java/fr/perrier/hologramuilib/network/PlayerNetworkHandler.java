@@ -11,6 +11,9 @@ public class PlayerNetworkHandler {
     private final Player player;
     private final JavaPlugin plugin;
     private boolean hasModInstalled;
+    private int wireVersion; // Binary menu format version agreed on, 0 for JSON only
+    private int compressionDictionary; // MessageCompression dictionary agreed on, 0 to send messages as is
+    private boolean chunkedTransfer; // Oversized messages are sent through MessageChunker
 
     public PlayerNetworkHandler(Player player, JavaPlugin plugin) {
         this.player = player;
@@ -32,6 +35,46 @@ public class PlayerNetworkHandler {
         this.hasModInstalled = installed;
     }
 
+    /**
+     * Gets the {@link fr.perrier.hologramuilib.protocol.MenuWireFormat} version used for this player, 0 if menus are sent as JSON.
+     */
+    public int getWireVersion() {
+        return wireVersion;
+    }
+
+    public void setWireVersion(int wireVersion) {
+        this.wireVersion = wireVersion;
+    }
+
+    /**
+     * Checks if large messages are compressed for this player.
+     */
+    public boolean isCompressionEnabled() {
+        return compressionDictionary != 0;
+    }
+
+    /**
+     * Gets the {@link fr.perrier.hologramuilib.protocol.MessageCompression} dictionary version used for this player, 0 if messages are not compressed.
+     */
+    public int getCompressionDictionary() {
+        return compressionDictionary;
+    }
+
+    public void setCompressionDictionary(int compressionDictionary) {
+        this.compressionDictionary = compressionDictionary;
+    }
+
+    /**
+     * Checks if messages too big for one plugin message can be sent to this player in chunks.
+     */
+    public boolean isChunkedTransferEnabled() {
+        return chunkedTransfer;
+    }
+
+    public void setChunkedTransferEnabled(boolean chunkedTransfer) {
+        this.chunkedTransfer = chunkedTransfer;
+    }
+
     public Player getPlayer() {
         return player;
     }